@@ -6,6 +6,7 @@ plugins {
   signing
   alias(libs.plugins.spotless)
   alias(libs.plugins.nexus)
+  alias(libs.plugins.jmh)
 }
 
 val signRequired = !rootProject.property("dev").toString().toBoolean()
@@ -17,6 +18,7 @@ defaultTasks("build")
 configurations {
   testImplementation.get().extendsFrom(compileOnly.get())
   testAnnotationProcessor.get().extendsFrom(annotationProcessor.get())
+  jmhImplementation.get().extendsFrom(compileOnly.get())
 }
 
 repositories {
@@ -0,0 +1,109 @@
+package io.github.shiruka.nbt.stream;
+
+import io.github.shiruka.nbt.CompoundTag;
+import io.github.shiruka.nbt.Tag;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * compares decoding a chunk-like compound from a byte array through {@link NBTInputStream} and
+ * {@link NBTByteArrayDecoder}.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DecoderBenchmark {
+
+  /**
+   * the format.
+   */
+  @Param({ "BIG_ENDIAN", "LITTLE_ENDIAN", "NETWORK" })
+  public NBTFormat format;
+
+  /**
+   * the encoded chunk.
+   */
+  private byte[] data;
+
+  /**
+   * creates a chunk-like compound.
+   *
+   * @return chunk.
+   */
+  static CompoundTag chunk() {
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    final List<Tag> sections = new ArrayList<>();
+    for (int y = 0; y < 16; y++) {
+      final long[] states = new long[256];
+      for (int i = 0; i < states.length; i++) {
+        states[i] = random.nextLong();
+      }
+      final List<Tag> palette = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        palette.add(
+          Tag.createCompound().setString("Name", "minecraft:block_" + i).setInteger("Version", i)
+        );
+      }
+      sections.add(
+        Tag.createCompound()
+          .setByte("Y", (byte) y)
+          .setLongArray("BlockStates", states)
+          .setList("Palette", palette)
+      );
+    }
+    final int[] biomes = new int[1024];
+    for (int i = 0; i < biomes.length; i++) {
+      biomes[i] = random.nextInt(64);
+    }
+    final CompoundTag level = Tag.createCompound()
+      .setInteger("xPos", random.nextInt())
+      .setInteger("zPos", random.nextInt())
+      .setLong("LastUpdate", random.nextLong())
+      .setString("Status", "full")
+      .setIntArray("Biomes", biomes)
+      .setList("Sections", sections);
+    return Tag.createCompound().set("Level", level).setInteger("DataVersion", 3465);
+  }
+
+  /**
+   * encodes the chunk in the current format.
+   *
+   * @throws IOException if something went wrong when writing the chunk.
+   */
+  @Setup
+  public void setup() throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    new NBTOutputStream(this.format.createOutput(bytes)).write(DecoderBenchmark.chunk());
+    this.data = bytes.toByteArray();
+  }
+
+  @Benchmark
+  public CompoundTag byteArrayDecoder() throws IOException {
+    return new NBTByteArrayDecoder(this.data, this.format).readCompoundTag();
+  }
+
+  @Benchmark
+  public CompoundTag inputStream() throws IOException {
+    return new NBTInputStream(this.format.createInput(new ByteArrayInputStream(this.data)))
+      .readCompoundTag();
+  }
+}
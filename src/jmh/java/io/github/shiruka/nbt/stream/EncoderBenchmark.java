@@ -0,0 +1,162 @@
+package io.github.shiruka.nbt.stream;
+
+import io.github.shiruka.nbt.CompoundTag;
+import io.github.shiruka.nbt.Tag;
+import io.github.shiruka.nbt.TagTypes;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * compares writing a large entity list through the type id switch of {@link NBTOutputStream} and
+ * through the chain of {@code isX()} checks which it replaced.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EncoderBenchmark {
+
+  /**
+   * the format.
+   */
+  @Param({ "BIG_ENDIAN", "LITTLE_ENDIAN", "NETWORK" })
+  public NBTFormat format;
+
+  /**
+   * the bytes to write into.
+   */
+  private ByteArrayOutputStream bytes;
+
+  /**
+   * the entity list.
+   */
+  private CompoundTag entities;
+
+  /**
+   * creates a compound that contains a list of entity-like compounds.
+   *
+   * @return entities.
+   */
+  static CompoundTag entities() {
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    final List<Tag> entities = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      entities.add(
+        Tag.createCompound()
+          .setString("id", "minecraft:zombie")
+          .set(
+            "Pos",
+            Tag.createList(
+              Tag.createDouble(random.nextDouble()),
+              Tag.createDouble(random.nextDouble()),
+              Tag.createDouble(random.nextDouble())
+            )
+          )
+          .set("Rotation", Tag.createList(Tag.createFloat(random.nextFloat()), Tag.createFloat(0f)))
+          .setFloat("Health", 20f)
+          .setShort("Fire", (short) -1)
+          .setShort("Air", (short) 300)
+          .setByte("OnGround", (byte) 1)
+          .setInteger("PortalCooldown", 0)
+          .setLong("UUIDMost", random.nextLong())
+          .setLong("UUIDLeast", random.nextLong())
+          .setIntArray("UUID", random.nextInt(), random.nextInt(), random.nextInt(), 0)
+      );
+    }
+    return Tag.createCompound().setList("Entities", entities);
+  }
+
+  /**
+   * writes the given tag with the chain of {@code isX()} checks.
+   *
+   * @param stream the stream to write.
+   * @param value the value to write.
+   *
+   * @throws IOException if something went wrong when writing the value.
+   */
+  private static void writeChain(final NBTOutputStream stream, final Tag value)
+    throws IOException {
+    final DataOutput output = stream.output();
+    if (value.isByte()) {
+      stream.writeByte(value.asByte());
+    } else if (value.isShort()) {
+      stream.writeShort(value.asShort());
+    } else if (value.isInt()) {
+      stream.writeInt(value.asInt());
+    } else if (value.isLong()) {
+      stream.writeLong(value.asLong());
+    } else if (value.isFloat()) {
+      stream.writeFloat(value.asFloat());
+    } else if (value.isDouble()) {
+      stream.writeDouble(value.asDouble());
+    } else if (value.isByteArray()) {
+      stream.writeByteArray(value.asByteArray());
+    } else if (value.isString()) {
+      stream.writeString(value.asString());
+    } else if (value.isList()) {
+      output.writeByte(value.asList().getListType().getId());
+      output.writeInt(value.asList().size());
+      for (final Tag tag : value.asList()) {
+        EncoderBenchmark.writeChain(stream, tag);
+      }
+    } else if (value.isCompound()) {
+      for (final Map.Entry<String, Tag> entry : value.asCompound().all().entrySet()) {
+        output.writeByte(entry.getValue().getType().getId());
+        if (entry.getValue().getType() != TagTypes.END) {
+          output.writeUTF(entry.getKey());
+          EncoderBenchmark.writeChain(stream, entry.getValue());
+        }
+      }
+      output.writeByte(TagTypes.END.getId());
+    } else if (value.isIntArray()) {
+      stream.writeIntArray(value.asIntArray());
+    } else if (value.isLongArray()) {
+      stream.writeLongArray(value.asLongArray());
+    }
+  }
+
+  /**
+   * creates the entity list.
+   */
+  @Setup
+  public void setup() {
+    this.bytes = new ByteArrayOutputStream(1 << 20);
+    this.entities = EncoderBenchmark.entities();
+  }
+
+  @Benchmark
+  public int isChain() throws IOException {
+    this.bytes.reset();
+    EncoderBenchmark.writeChain(
+      new NBTOutputStream(this.format.createOutput(this.bytes)),
+      this.entities
+    );
+    return this.bytes.size();
+  }
+
+  @Benchmark
+  public int typeSwitch() throws IOException {
+    this.bytes.reset();
+    new NBTOutputStream(this.format.createOutput(this.bytes)).write(this.entities);
+    return this.bytes.size();
+  }
+}
@@ -13,12 +13,17 @@ import io.github.shiruka.nbt.primitive.IntTag;
 import io.github.shiruka.nbt.primitive.LongTag;
 import io.github.shiruka.nbt.primitive.ShortTag;
 import io.github.shiruka.nbt.primitive.StringTag;
+import io.github.shiruka.nbt.stream.BigEndianByteBufInputStream;
+import io.github.shiruka.nbt.stream.BigEndianByteBufOutputStream;
+import io.github.shiruka.nbt.stream.ByteBufferDataInput;
 import io.github.shiruka.nbt.stream.LittleEndianByteBufInputStream;
 import io.github.shiruka.nbt.stream.LittleEndianByteBufOutputStream;
 import io.github.shiruka.nbt.stream.LittleEndianDataInputStream;
 import io.github.shiruka.nbt.stream.LittleEndianDataOutputStream;
 import io.github.shiruka.nbt.stream.NBTInputStream;
 import io.github.shiruka.nbt.stream.NBTOutputStream;
+import io.github.shiruka.nbt.stream.NetworkByteBufInputStream;
+import io.github.shiruka.nbt.stream.NetworkByteBufOutputStream;
 import io.github.shiruka.nbt.stream.NetworkDataInputStream;
 import io.github.shiruka.nbt.stream.NetworkDataOutputStream;
 import io.netty.buffer.ByteBuf;
@@ -28,6 +33,8 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -70,7 +77,7 @@ public interface Tag {
    */
   @NotNull
   static ByteTag createByte(final byte original) {
-    return new ByteTag(original);
+    return ByteTag.valueOf(original);
   }
 
   /**
@@ -82,7 +89,7 @@ public interface Tag {
    */
   @NotNull
   static ByteArrayTag createByteArray(final byte... original) {
-    return new ByteArrayTag(original);
+    return original.length == 0 ? ByteArrayTag.EMPTY : new ByteArrayTag(original);
   }
 
   /**
@@ -126,7 +133,7 @@ public interface Tag {
    */
   @NotNull
   static DoubleTag createDouble(final double original) {
-    return new DoubleTag(original);
+    return DoubleTag.valueOf(original);
   }
 
   /**
@@ -136,7 +143,7 @@ public interface Tag {
    */
   @NotNull
   static EndTag createEnd() {
-    return new EndTag();
+    return EndTag.INSTANCE;
   }
 
   /**
@@ -158,7 +165,7 @@ public interface Tag {
    */
   @NotNull
   static FloatTag createFloat(final float original) {
-    return new FloatTag(original);
+    return FloatTag.valueOf(original);
   }
 
   /**
@@ -208,7 +215,7 @@ public interface Tag {
    */
   @NotNull
   static IntTag createInt(final int original) {
-    return new IntTag(original);
+    return IntTag.valueOf(original);
   }
 
   /**
@@ -220,7 +227,7 @@ public interface Tag {
    */
   @NotNull
   static IntArrayTag createIntArray(final int... original) {
-    return new IntArrayTag(original);
+    return original.length == 0 ? IntArrayTag.EMPTY : new IntArrayTag(original);
   }
 
   /**
@@ -269,7 +276,7 @@ public interface Tag {
    */
   @NotNull
   static LongTag createLong(final long original) {
-    return new LongTag(original);
+    return LongTag.valueOf(original);
   }
 
   /**
@@ -281,7 +288,7 @@ public interface Tag {
    */
   @NotNull
   static LongArrayTag createLongArray(final long... original) {
-    return new LongArrayTag(original);
+    return original.length == 0 ? LongArrayTag.EMPTY : new LongArrayTag(original);
   }
 
   /**
@@ -296,6 +303,18 @@ public interface Tag {
     return new NBTInputStream(new NetworkDataInputStream(stream));
   }
 
+  /**
+   * creates a nbt reader from the {@link ByteBuf}.
+   *
+   * @param buffer the buffer to create.
+   *
+   * @return a new instance of {@link NBTInputStream} with {@link NetworkByteBufInputStream}.
+   */
+  @NotNull
+  static NBTInputStream createNetworkReader(@NotNull final ByteBuf buffer) {
+    return new NBTInputStream(new NetworkByteBufInputStream(buffer));
+  }
+
   /**
    * creates a nbt writer from the {@link OutputStream}.
    *
@@ -308,6 +327,18 @@ public interface Tag {
     return new NBTOutputStream(new NetworkDataOutputStream(stream));
   }
 
+  /**
+   * creates a nbt writer from the {@link ByteBuf}.
+   *
+   * @param buffer the buffer to create.
+   *
+   * @return a new instance of {@link NBTOutputStream} with {@link NetworkByteBufOutputStream}.
+   */
+  @NotNull
+  static NBTOutputStream createNetworkWriter(@NotNull final ByteBuf buffer) {
+    return new NBTOutputStream(new NetworkByteBufOutputStream(buffer));
+  }
+
   /**
    * creates an instance of {@link NumberTag}.
    *
@@ -318,17 +349,17 @@ public interface Tag {
   @NotNull
   static NumberTag createNumber(@NotNull final Number original) {
     if (original instanceof Byte) {
-      return new ByteTag(original.byteValue());
+      return ByteTag.valueOf(original.byteValue());
     } else if (original instanceof Short) {
-      return new ShortTag(original.shortValue());
+      return ShortTag.valueOf(original.shortValue());
     } else if (original instanceof Integer) {
-      return new IntTag(original.intValue());
+      return IntTag.valueOf(original.intValue());
     } else if (original instanceof Long) {
-      return new LongTag(original.longValue());
+      return LongTag.valueOf(original.longValue());
     } else if (original instanceof Float) {
-      return new FloatTag(original.floatValue());
+      return FloatTag.valueOf(original.floatValue());
     }
-    return new DoubleTag(original.doubleValue());
+    return DoubleTag.valueOf(original.doubleValue());
   }
 
   /**
@@ -343,6 +374,32 @@ public interface Tag {
     return new NBTInputStream(new DataInputStream(stream));
   }
 
+  /**
+   * creates a nbt reader from the {@link ByteBuf}.
+   *
+   * @param buffer the buffer to create.
+   *
+   * @return a new instance of {@link NBTInputStream} with {@link BigEndianByteBufInputStream}.
+   */
+  @NotNull
+  static NBTInputStream createReader(@NotNull final ByteBuf buffer) {
+    return new NBTInputStream(new BigEndianByteBufInputStream(buffer));
+  }
+
+  /**
+   * creates a nbt reader from the {@link ByteBuffer}.
+   * <p>
+   * reads the little-endian format if the buffer's order is {@link ByteOrder#LITTLE_ENDIAN}.
+   *
+   * @param buffer the buffer to create.
+   *
+   * @return a new instance of {@link NBTInputStream} with {@link ByteBufferDataInput}.
+   */
+  @NotNull
+  static NBTInputStream createReader(@NotNull final ByteBuffer buffer) {
+    return new NBTInputStream(new ByteBufferDataInput(buffer));
+  }
+
   /**
    * creates a nbt reader from the {@link InputStream}.
    *
@@ -398,7 +455,7 @@ public interface Tag {
    */
   @NotNull
   static ShortTag createShort(final short original) {
-    return new ShortTag(original);
+    return ShortTag.valueOf(original);
   }
 
   /**
@@ -410,7 +467,7 @@ public interface Tag {
    */
   @NotNull
   static StringTag createString(@NotNull final String original) {
-    return new StringTag(original);
+    return original.isEmpty() ? StringTag.EMPTY : new StringTag(original);
   }
 
   /**
@@ -435,6 +492,18 @@ public interface Tag {
     return new NBTOutputStream(new DataOutputStream(stream));
   }
 
+  /**
+   * creates a nbt writer from the {@link ByteBuf}.
+   *
+   * @param buffer the buffer to create.
+   *
+   * @return a new instance of {@link NBTOutputStream} with {@link BigEndianByteBufOutputStream}.
+   */
+  @NotNull
+  static NBTOutputStream createWriter(@NotNull final ByteBuf buffer) {
+    return new NBTOutputStream(new BigEndianByteBufOutputStream(buffer));
+  }
+
   /**
    * creates a nbt writer from the {@link OutputStream}.
    *
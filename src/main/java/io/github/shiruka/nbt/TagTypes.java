@@ -1,6 +1,5 @@
 package io.github.shiruka.nbt;
 
-import io.github.shiruka.nbt.primitive.EndTag;
 import java.util.Objects;
 import java.util.function.Supplier;
 import lombok.Getter;
@@ -20,7 +19,7 @@ public enum TagTypes {
   /**
    * the end tag.
    */
-  END(EndTag::new, 0),
+  END(Tag::createEnd, 0),
   /**
    * the byte tag.
    */
@@ -74,6 +73,11 @@ public enum TagTypes {
    */
   ALL(() -> null, 99);
 
+  /**
+   * the values.
+   */
+  private static final TagTypes[] VALUES = TagTypes.values();
+
   /**
    * the empty tag supplier.
    */
@@ -96,6 +100,23 @@ public enum TagTypes {
     this(emptyTagSupplier, (byte) id);
   }
 
+  /**
+   * obtains the type of the given id.
+   *
+   * @param id the id to obtain.
+   *
+   * @return type of the id.
+   *
+   * @throws IllegalArgumentException if the id is not a tag id.
+   */
+  @NotNull
+  public static TagTypes byId(final byte id) {
+    if (id < TagTypes.END.id || id > TagTypes.LONG_ARRAY.id) {
+      throw new IllegalArgumentException("Unknown type " + id);
+    }
+    return TagTypes.VALUES[id + 1];
+  }
+
   /**
    * obtains an empty tag.
    *
@@ -1,13 +1,21 @@
 package io.github.shiruka.nbt;
 
+import io.netty.buffer.ByteBuf;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import lombok.experimental.UtilityClass;
 import org.jetbrains.annotations.NotNull;
 
 /**
  * a class that contains utility methods for {@link DataInput} and {@link DataOutput} classes.
+ * <p>
+ * the var ints can also be read from and written to {@link ByteBuf}s, {@link ByteBuffer}s and byte
+ * arrays without going through a stream. one and two byte var ints, which are the most common ones,
+ * are decoded without a loop.
  */
 @UtilityClass
 public class VarInts {
@@ -26,6 +34,30 @@ public class VarInts {
     return n >>> 1 ^ -(n & 1);
   }
 
+  /**
+   * reads the integer from the given buffer.
+   *
+   * @param buffer the buffer to read.
+   *
+   * @return the given buffer's integer value.
+   */
+  public int readInt(@NotNull final ByteBuf buffer) {
+    final int n = VarInts.readUnsignedInt(buffer);
+    return n >>> 1 ^ -(n & 1);
+  }
+
+  /**
+   * reads the integer from the given buffer.
+   *
+   * @param buffer the buffer to read.
+   *
+   * @return the given buffer's integer value.
+   */
+  public int readInt(@NotNull final ByteBuffer buffer) {
+    final int n = VarInts.readUnsignedInt(buffer);
+    return n >>> 1 ^ -(n & 1);
+  }
+
   /**
    * reads the long from the given input.
    *
@@ -40,6 +72,30 @@ public class VarInts {
     return n >>> 1 ^ -(n & 1);
   }
 
+  /**
+   * reads the long from the given buffer.
+   *
+   * @param buffer the buffer to read.
+   *
+   * @return the given buffer's long value.
+   */
+  public long readLong(@NotNull final ByteBuf buffer) {
+    final long n = VarInts.readUnsignedLong(buffer);
+    return n >>> 1 ^ -(n & 1);
+  }
+
+  /**
+   * reads the long from the given buffer.
+   *
+   * @param buffer the buffer to read.
+   *
+   * @return the given buffer's long value.
+   */
+  public long readLong(@NotNull final ByteBuffer buffer) {
+    final long n = VarInts.readUnsignedLong(buffer);
+    return n >>> 1 ^ -(n & 1);
+  }
+
   /**
    * reads the integer from the given input.
    *
@@ -53,6 +109,267 @@ public class VarInts {
     return (int) VarInts.decodeUnsigned(input);
   }
 
+  /**
+   * reads the integer from the given buffer.
+   * <p>
+   * if the buffer has at least 5 readable bytes, the bytes are read at their indexes without
+   * checking the readable bytes of each one.
+   *
+   * @param buffer the buffer to read.
+   *
+   * @return the given buffer's integer value.
+   */
+  public int readUnsignedInt(@NotNull final ByteBuf buffer) {
+    if (buffer.readableBytes() < 5) {
+      return (int) VarInts.readUnsignedLong(buffer);
+    }
+    final int index = buffer.readerIndex();
+    int b = buffer.getByte(index);
+    if (b >= 0) {
+      buffer.readerIndex(index + 1);
+      return b;
+    }
+    int result = b & 0x7F;
+    b = buffer.getByte(index + 1);
+    if (b >= 0) {
+      buffer.readerIndex(index + 2);
+      return result | b << 7;
+    }
+    result |= (b & 0x7F) << 7;
+    b = buffer.getByte(index + 2);
+    if (b >= 0) {
+      buffer.readerIndex(index + 3);
+      return result | b << 14;
+    }
+    result |= (b & 0x7F) << 14;
+    b = buffer.getByte(index + 3);
+    if (b >= 0) {
+      buffer.readerIndex(index + 4);
+      return result | b << 21;
+    }
+    result |= (b & 0x7F) << 21;
+    b = buffer.getByte(index + 4);
+    if (b >= 0) {
+      buffer.readerIndex(index + 5);
+      return result | b << 28;
+    }
+    return (int) VarInts.readUnsignedLong(buffer);
+  }
+
+  /**
+   * reads the integer from the given buffer.
+   * <p>
+   * one and two byte var ints are read at their indexes without a loop.
+   *
+   * @param buffer the buffer to read.
+   *
+   * @return the given buffer's integer value.
+   */
+  public int readUnsignedInt(@NotNull final ByteBuffer buffer) {
+    final int position = buffer.position();
+    if (buffer.limit() - position >= 2) {
+      final byte first = buffer.get(position);
+      if (first >= 0) {
+        buffer.position(position + 1);
+        return first;
+      }
+      final byte second = buffer.get(position + 1);
+      if (second >= 0) {
+        buffer.position(position + 2);
+        return first & 0x7F | second << 7;
+      }
+    }
+    return (int) VarInts.readUnsignedLong(buffer);
+  }
+
+  /**
+   * reads the integer at the given offset of the given array.
+   * <p>
+   * the var int is expected to be encoded in its shortest form, so the count of its bytes is
+   * {@link #varIntSize(int)} of the returned value.
+   *
+   * @param data the array to read.
+   * @param offset the offset to read at.
+   *
+   * @return the given array's integer value.
+   *
+   * @throws ArrayIndexOutOfBoundsException if the array ends before the var int.
+   */
+  public int readUnsignedInt(final byte@NotNull[] data, final int offset) {
+    final byte first = data[offset];
+    if (first >= 0) {
+      return first;
+    }
+    final byte second = data[offset + 1];
+    if (second >= 0) {
+      return first & 0x7F | second << 7;
+    }
+    return (int) VarInts.readUnsignedLong(data, offset);
+  }
+
+  /**
+   * reads the long from the given input.
+   *
+   * @param input the input to read.
+   *
+   * @return the given input's long value.
+   *
+   * @throws IOException if something went wrong when reading the input.
+   */
+  public long readUnsignedLong(@NotNull final DataInput input) throws IOException {
+    return VarInts.decodeUnsigned(input);
+  }
+
+  /**
+   * reads the long from the given buffer.
+   * <p>
+   * if the buffer has at least 10 readable bytes, the bytes are read at their indexes without
+   * checking the readable bytes of each one.
+   *
+   * @param buffer the buffer to read.
+   *
+   * @return the given buffer's long value.
+   */
+  public long readUnsignedLong(@NotNull final ByteBuf buffer) {
+    if (buffer.readableBytes() < 10) {
+      long result = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        final byte b = buffer.readByte();
+        result |= (long) (b & 0x7F) << shift;
+        if (b >= 0) {
+          return result;
+        }
+      }
+      throw new ArithmeticException("VarInt was too large");
+    }
+    int index = buffer.readerIndex();
+    final byte first = buffer.getByte(index++);
+    if (first >= 0) {
+      buffer.readerIndex(index);
+      return first;
+    }
+    long result = first & 0x7F;
+    for (int shift = 7; shift < 64; shift += 7) {
+      final byte b = buffer.getByte(index++);
+      result |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        buffer.readerIndex(index);
+        return result;
+      }
+    }
+    throw new ArithmeticException("VarInt was too large");
+  }
+
+  /**
+   * reads the long from the given buffer.
+   * <p>
+   * one and two byte var longs are read at their indexes without a loop, and if the buffer has an
+   * array, the longer ones are read from the array directly.
+   *
+   * @param buffer the buffer to read.
+   *
+   * @return the given buffer's long value.
+   */
+  public long readUnsignedLong(@NotNull final ByteBuffer buffer) {
+    final int start = buffer.position();
+    if (buffer.limit() - start >= 2) {
+      final byte first = buffer.get(start);
+      if (first >= 0) {
+        buffer.position(start + 1);
+        return first;
+      }
+      final byte second = buffer.get(start + 1);
+      if (second >= 0) {
+        buffer.position(start + 2);
+        return first & 0x7F | second << 7;
+      }
+    }
+    if (!buffer.hasArray()) {
+      long result = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        final byte b = buffer.get();
+        result |= (long) (b & 0x7F) << shift;
+        if (b >= 0) {
+          return result;
+        }
+      }
+      throw new ArithmeticException("VarInt was too large");
+    }
+    final byte[] array = buffer.array();
+    final int offset = buffer.arrayOffset();
+    final int limit = buffer.limit();
+    int position = buffer.position();
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      if (position >= limit) {
+        throw new BufferUnderflowException();
+      }
+      final byte b = array[offset + position++];
+      result |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        buffer.position(position);
+        return result;
+      }
+    }
+    throw new ArithmeticException("VarInt was too large");
+  }
+
+  /**
+   * reads the long at the given offset of the given array.
+   * <p>
+   * the var long is expected to be encoded in its shortest form, so the count of its bytes is
+   * {@link #varLongSize(long)} of the returned value.
+   *
+   * @param data the array to read.
+   * @param offset the offset to read at.
+   *
+   * @return the given array's long value.
+   *
+   * @throws ArrayIndexOutOfBoundsException if the array ends before the var long.
+   */
+  public long readUnsignedLong(final byte@NotNull[] data, final int offset) {
+    final byte first = data[offset];
+    if (first >= 0) {
+      return first;
+    }
+    final byte second = data[offset + 1];
+    if (second >= 0) {
+      return first & 0x7F | second << 7;
+    }
+    long result = first & 0x7F | (second & 0x7F) << 7;
+    int index = offset + 2;
+    for (int shift = 14; shift < 64; shift += 7) {
+      final byte b = data[index++];
+      result |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return result;
+      }
+    }
+    throw new ArithmeticException("VarInt was too large");
+  }
+
+  /**
+   * calculates the encoded size of the given unsigned integer.
+   *
+   * @param integer the integer to calculate.
+   *
+   * @return the size of the var int in bytes, from 1 to 5.
+   */
+  public int varIntSize(final int integer) {
+    return (31 - Integer.numberOfLeadingZeros(integer | 1)) / 7 + 1;
+  }
+
+  /**
+   * calculates the encoded size of the given unsigned long.
+   *
+   * @param longInteger the long integer to calculate.
+   *
+   * @return the size of the var long in bytes, from 1 to 10.
+   */
+  public int varLongSize(final long longInteger) {
+    return (63 - Long.numberOfLeadingZeros(longInteger | 1)) / 7 + 1;
+  }
+
   /**
    * writes the given integer into the given output.
    *
@@ -65,6 +382,26 @@ public class VarInts {
     VarInts.encodeUnsigned(output, (long) integer << 1 ^ integer >> 31);
   }
 
+  /**
+   * writes the given integer into the given buffer.
+   *
+   * @param buffer the buffer to write.
+   * @param integer the integer to write.
+   */
+  public void writeInt(@NotNull final ByteBuf buffer, final int integer) {
+    VarInts.writeUnsignedInt(buffer, (integer << 1 ^ integer >> 31) & 0xFFFFFFFFL);
+  }
+
+  /**
+   * writes the given integer into the given buffer.
+   *
+   * @param buffer the buffer to write.
+   * @param integer the integer to write.
+   */
+  public void writeInt(@NotNull final ByteBuffer buffer, final int integer) {
+    VarInts.writeUnsignedInt(buffer, (integer << 1 ^ integer >> 31) & 0xFFFFFFFFL);
+  }
+
   /**
    * writes the given long into the given output.
    *
@@ -78,6 +415,26 @@ public class VarInts {
     VarInts.encodeUnsigned(output, longInteger << 1 ^ longInteger >> 63);
   }
 
+  /**
+   * writes the given long into the given buffer.
+   *
+   * @param buffer the buffer to write.
+   * @param longInteger the long integer to write.
+   */
+  public void writeLong(@NotNull final ByteBuf buffer, final long longInteger) {
+    VarInts.writeUnsignedInt(buffer, longInteger << 1 ^ longInteger >> 63);
+  }
+
+  /**
+   * writes the given long into the given buffer.
+   *
+   * @param buffer the buffer to write.
+   * @param longInteger the long integer to write.
+   */
+  public void writeLong(@NotNull final ByteBuffer buffer, final long longInteger) {
+    VarInts.writeUnsignedInt(buffer, longInteger << 1 ^ longInteger >> 63);
+  }
+
   /**
    * writes the given integer into the given output.
    *
@@ -91,6 +448,87 @@ public class VarInts {
     VarInts.encodeUnsigned(output, integer);
   }
 
+  /**
+   * writes the given integer into the given buffer.
+   * <p>
+   * var ints of up to 8 bytes are packed into a long and set at once after ensuring the buffer has
+   * room for them.
+   *
+   * @param buffer the buffer to write.
+   * @param integer the integer to write.
+   */
+  public void writeUnsignedInt(@NotNull final ByteBuf buffer, final long integer) {
+    if ((integer & ~0x7FL) == 0) {
+      buffer.writeByte((int) integer);
+      return;
+    }
+    final int size = VarInts.varLongSize(integer);
+    buffer.ensureWritable(size);
+    final int index = buffer.writerIndex();
+    if (size > 8 || buffer.writableBytes() < 8) {
+      long remaining = integer;
+      for (int i = index; i < index + size - 1; i++) {
+        buffer.setByte(i, (int) remaining & 0x7F | 0x80);
+        remaining >>>= 7;
+      }
+      buffer.setByte(index + size - 1, (int) remaining);
+    } else {
+      long packed = 0;
+      long remaining = integer;
+      for (int shift = 0; shift < size * 8 - 8; shift += 8) {
+        packed |= (remaining & 0x7F | 0x80) << shift;
+        remaining >>>= 7;
+      }
+      buffer.setLongLE(index, packed | remaining << size * 8 - 8);
+    }
+    buffer.writerIndex(index + size);
+  }
+
+  /**
+   * writes the given integer into the given buffer.
+   *
+   * @param buffer the buffer to write.
+   * @param integer the integer to write.
+   */
+  public void writeUnsignedInt(@NotNull final ByteBuffer buffer, final long integer) {
+    if (!buffer.hasArray()) {
+      long remaining = integer;
+      while ((remaining & ~0x7FL) != 0) {
+        buffer.put((byte) ((int) remaining & 0x7F | 0x80));
+        remaining >>>= 7;
+      }
+      buffer.put((byte) remaining);
+      return;
+    }
+    final int size = VarInts.varLongSize(integer);
+    if (buffer.remaining() < size) {
+      throw new BufferOverflowException();
+    }
+    final int position = buffer.position();
+    VarInts.writeUnsignedInt(buffer.array(), buffer.arrayOffset() + position, integer);
+    buffer.position(position + size);
+  }
+
+  /**
+   * writes the given integer into the given array.
+   *
+   * @param data the array to write.
+   * @param offset the offset to write at.
+   * @param integer the integer to write.
+   *
+   * @return the offset after the written bytes.
+   */
+  public int writeUnsignedInt(final byte@NotNull[] data, final int offset, final long integer) {
+    int index = offset;
+    long remaining = integer;
+    while ((remaining & ~0x7FL) != 0) {
+      data[index++] = (byte) ((int) remaining & 0x7F | 0x80);
+      remaining >>>= 7;
+    }
+    data[index++] = (byte) remaining;
+    return index;
+  }
+
   /**
    * decodes the long value from the given input.
    *
@@ -101,8 +539,16 @@ public class VarInts {
    * @throws IOException if something went wrong when decoding the given input.
    */
   private long decodeUnsigned(@NotNull final DataInput input) throws IOException {
-    long result = 0;
-    for (int shift = 0; shift < 64; shift += 7) {
+    final byte first = input.readByte();
+    if (first >= 0) {
+      return first;
+    }
+    final byte second = input.readByte();
+    if (second >= 0) {
+      return first & 0x7F | second << 7;
+    }
+    long result = first & 0x7F | (second & 0x7F) << 7;
+    for (int shift = 14; shift < 64; shift += 7) {
       final byte b = input.readByte();
       result |= (long) (b & 0x7F) << shift;
       if ((b & 0x80) == 0) {
@@ -122,14 +568,11 @@ public class VarInts {
    */
   private void encodeUnsigned(@NotNull final DataOutput output, final long value)
     throws IOException {
-    long tempValue = value;
-    while (true) {
-      if ((tempValue & ~0x7FL) == 0) {
-        output.writeByte((int) tempValue);
-        return;
-      }
-      output.writeByte((byte) ((int) tempValue & 0x7F | 0x80));
-      tempValue >>>= 7;
+    long remaining = value;
+    while ((remaining & ~0x7FL) != 0) {
+      output.writeByte((int) remaining & 0x7F | 0x80);
+      remaining >>>= 7;
     }
+    output.writeByte((int) remaining);
   }
 }
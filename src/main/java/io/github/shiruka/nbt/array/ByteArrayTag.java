@@ -12,10 +12,9 @@ import org.jetbrains.annotations.NotNull;
 public final class ByteArrayTag implements ArrayTag<Byte> {
 
   /**
-   * the original.
+   * the shared instance of the empty array.
    */
-  @NotNull
-  private final Byte[] original;
+  public static final ByteArrayTag EMPTY = new ByteArrayTag();
 
   /**
    * the primitive original.
@@ -28,8 +27,32 @@ public final class ByteArrayTag implements ArrayTag<Byte> {
    * @param original the original.
    */
   public ByteArrayTag(final byte... original) {
-    this.primitiveOriginal = original.clone();
-    this.original = ArrayUtils.toObject(this.primitiveOriginal);
+    this(original, true);
+  }
+
+  /**
+   * ctor.
+   *
+   * @param original the original.
+   * @param copy if the original is copied.
+   */
+  private ByteArrayTag(final byte@NotNull[] original, final boolean copy) {
+    this.primitiveOriginal = copy ? original.clone() : original;
+  }
+
+  /**
+   * creates a byte array tag that uses the given array without copying it.
+   * <p>
+   * the array must not be modified after, so it is meant for the arrays which are owned by the
+   * decoders.
+   *
+   * @param original the original to adopt.
+   *
+   * @return a new byte array tag instance.
+   */
+  @NotNull
+  public static ByteArrayTag adopt(final byte@NotNull[] original) {
+    return original.length == 0 ? ByteArrayTag.EMPTY : new ByteArrayTag(original, false);
   }
 
   @NotNull
@@ -52,13 +75,12 @@ public final class ByteArrayTag implements ArrayTag<Byte> {
   @NotNull
   @Override
   public Byte get(final int index) {
-    ArrayTag.checkIndex(index, this.original.length);
-    return this.original[index];
+    return this.getByte(index);
   }
 
   @Override
   public int size() {
-    return this.original.length;
+    return this.primitiveOriginal.length;
   }
 
   @Override
@@ -83,6 +105,18 @@ public final class ByteArrayTag implements ArrayTag<Byte> {
     return ("ByteArrayTag{" + "primitiveOriginal=" + Arrays.toString(this.primitiveOriginal) + '}');
   }
 
+  /**
+   * obtains the byte at the given index without boxing it.
+   *
+   * @param index the index to get.
+   *
+   * @return byte at the index.
+   */
+  public byte getByte(final int index) {
+    ArrayTag.checkIndex(index, this.primitiveOriginal.length);
+    return this.primitiveOriginal[index];
+  }
+
   /**
    * obtains the primitive original value.
    *
@@ -95,6 +129,6 @@ public final class ByteArrayTag implements ArrayTag<Byte> {
   @NotNull
   @Override
   public Byte@NotNull[] value() {
-    return this.original.clone();
+    return ArrayUtils.toObject(this.primitiveOriginal);
   }
 }
@@ -4,6 +4,8 @@ import io.github.shiruka.nbt.ArrayTag;
 import io.github.shiruka.nbt.TagTypes;
 import io.github.shiruka.nbt.misc.ArrayUtils;
 import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -12,10 +14,9 @@ import org.jetbrains.annotations.NotNull;
 public final class IntArrayTag implements ArrayTag<Integer> {
 
   /**
-   * the original.
+   * the shared instance of the empty array.
    */
-  @NotNull
-  private final Integer@NotNull[] original;
+  public static final IntArrayTag EMPTY = new IntArrayTag();
 
   /**
    * the primitive original.
@@ -28,8 +29,32 @@ public final class IntArrayTag implements ArrayTag<Integer> {
    * @param original the original.
    */
   public IntArrayTag(final int... original) {
-    this.primitiveOriginal = original.clone();
-    this.original = ArrayUtils.toObject(this.primitiveOriginal);
+    this(original, true);
+  }
+
+  /**
+   * ctor.
+   *
+   * @param original the original.
+   * @param copy if the original is copied.
+   */
+  private IntArrayTag(final int@NotNull[] original, final boolean copy) {
+    this.primitiveOriginal = copy ? original.clone() : original;
+  }
+
+  /**
+   * creates a int array tag that uses the given array without copying it.
+   * <p>
+   * the array must not be modified after, so it is meant for the arrays which are owned by the
+   * decoders.
+   *
+   * @param original the original to adopt.
+   *
+   * @return a new int array tag instance.
+   */
+  @NotNull
+  public static IntArrayTag adopt(final int@NotNull[] original) {
+    return original.length == 0 ? IntArrayTag.EMPTY : new IntArrayTag(original, false);
   }
 
   @NotNull
@@ -52,13 +77,12 @@ public final class IntArrayTag implements ArrayTag<Integer> {
   @NotNull
   @Override
   public Integer get(final int index) {
-    ArrayTag.checkIndex(index, this.original.length);
-    return this.original[index];
+    return this.getInt(index);
   }
 
   @Override
   public int size() {
-    return this.original.length;
+    return this.primitiveOriginal.length;
   }
 
   @Override
@@ -83,6 +107,38 @@ public final class IntArrayTag implements ArrayTag<Integer> {
     return ("IntArrayTag{" + "primitiveOriginal=" + Arrays.toString(this.primitiveOriginal) + '}');
   }
 
+  /**
+   * obtains the int at the given index without boxing it.
+   *
+   * @param index the index to get.
+   *
+   * @return int at the index.
+   */
+  public int getInt(final int index) {
+    ArrayTag.checkIndex(index, this.primitiveOriginal.length);
+    return this.primitiveOriginal[index];
+  }
+
+  /**
+   * obtains the ints as a stream.
+   *
+   * @return int stream.
+   */
+  @NotNull
+  public IntStream intStream() {
+    return Arrays.stream(this.primitiveOriginal);
+  }
+
+  /**
+   * obtains a spliterator that covers the ints.
+   *
+   * @return int spliterator.
+   */
+  @NotNull
+  public Spliterator.OfInt intSpliterator() {
+    return Arrays.spliterator(this.primitiveOriginal);
+  }
+
   /**
    * obtains the primitive original value.
    *
@@ -95,6 +151,6 @@ public final class IntArrayTag implements ArrayTag<Integer> {
   @NotNull
   @Override
   public Integer@NotNull[] value() {
-    return this.original.clone();
+    return ArrayUtils.toObject(this.primitiveOriginal);
   }
 }
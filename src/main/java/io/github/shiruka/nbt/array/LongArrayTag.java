@@ -4,6 +4,8 @@ import io.github.shiruka.nbt.ArrayTag;
 import io.github.shiruka.nbt.TagTypes;
 import io.github.shiruka.nbt.misc.ArrayUtils;
 import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.stream.LongStream;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -12,10 +14,9 @@ import org.jetbrains.annotations.NotNull;
 public final class LongArrayTag implements ArrayTag<Long> {
 
   /**
-   * the original.
+   * the shared instance of the empty array.
    */
-  @NotNull
-  private final Long[] original;
+  public static final LongArrayTag EMPTY = new LongArrayTag();
 
   /**
    * the primitive original.
@@ -28,8 +29,32 @@ public final class LongArrayTag implements ArrayTag<Long> {
    * @param original the original.
    */
   public LongArrayTag(final long... original) {
-    this.primitiveOriginal = original.clone();
-    this.original = ArrayUtils.toObject(this.primitiveOriginal);
+    this(original, true);
+  }
+
+  /**
+   * ctor.
+   *
+   * @param original the original.
+   * @param copy if the original is copied.
+   */
+  private LongArrayTag(final long@NotNull[] original, final boolean copy) {
+    this.primitiveOriginal = copy ? original.clone() : original;
+  }
+
+  /**
+   * creates a long array tag that uses the given array without copying it.
+   * <p>
+   * the array must not be modified after, so it is meant for the arrays which are owned by the
+   * decoders.
+   *
+   * @param original the original to adopt.
+   *
+   * @return a new long array tag instance.
+   */
+  @NotNull
+  public static LongArrayTag adopt(final long@NotNull[] original) {
+    return original.length == 0 ? LongArrayTag.EMPTY : new LongArrayTag(original, false);
   }
 
   @NotNull
@@ -52,13 +77,12 @@ public final class LongArrayTag implements ArrayTag<Long> {
   @NotNull
   @Override
   public Long get(final int index) {
-    ArrayTag.checkIndex(index, this.original.length);
-    return this.original[index];
+    return this.getLong(index);
   }
 
   @Override
   public int size() {
-    return this.original.length;
+    return this.primitiveOriginal.length;
   }
 
   @Override
@@ -83,6 +107,38 @@ public final class LongArrayTag implements ArrayTag<Long> {
     return ("LongArrayTag{" + "primitiveOriginal=" + Arrays.toString(this.primitiveOriginal) + '}');
   }
 
+  /**
+   * obtains the long at the given index without boxing it.
+   *
+   * @param index the index to get.
+   *
+   * @return long at the index.
+   */
+  public long getLong(final int index) {
+    ArrayTag.checkIndex(index, this.primitiveOriginal.length);
+    return this.primitiveOriginal[index];
+  }
+
+  /**
+   * obtains the longs as a stream.
+   *
+   * @return long stream.
+   */
+  @NotNull
+  public LongStream longStream() {
+    return Arrays.stream(this.primitiveOriginal);
+  }
+
+  /**
+   * obtains a spliterator that covers the longs.
+   *
+   * @return long spliterator.
+   */
+  @NotNull
+  public Spliterator.OfLong longSpliterator() {
+    return Arrays.spliterator(this.primitiveOriginal);
+  }
+
   /**
    * obtains the primitive original value.
    *
@@ -95,6 +151,6 @@ public final class LongArrayTag implements ArrayTag<Long> {
   @NotNull
   @Override
   public Long@NotNull[] value() {
-    return this.original.clone();
+    return ArrayUtils.toObject(this.primitiveOriginal);
   }
 }
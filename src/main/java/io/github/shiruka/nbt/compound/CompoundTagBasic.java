@@ -3,7 +3,6 @@ package io.github.shiruka.nbt.compound;
 import io.github.shiruka.nbt.CompoundTag;
 import io.github.shiruka.nbt.Tag;
 import java.util.*;
-import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 import org.jetbrains.annotations.NotNull;
@@ -13,7 +12,6 @@ import org.jetbrains.annotations.NotNull;
  */
 @Getter
 @ToString
-@EqualsAndHashCode
 public final class CompoundTagBasic implements CompoundTag {
 
   @NotNull
@@ -73,4 +71,20 @@ public final class CompoundTagBasic implements CompoundTag {
   public int size() {
     return this.original.size();
   }
+
+  @Override
+  public int hashCode() {
+    return this.original.hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof CompoundTag)) {
+      return false;
+    }
+    return this.original.equals(((CompoundTag) o).all());
+  }
 }
@@ -0,0 +1,368 @@
+package io.github.shiruka.nbt.compound;
+
+import io.github.shiruka.nbt.CompoundTag;
+import io.github.shiruka.nbt.Tag;
+import io.github.shiruka.nbt.TagTypes;
+import io.github.shiruka.nbt.stream.ByteBufferDataInput;
+import io.github.shiruka.nbt.stream.NBTFormat;
+import io.github.shiruka.nbt.stream.NBTInputStream;
+import io.github.shiruka.nbt.stream.NBTOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * an implementation for {@link CompoundTag} that keeps the encoded bytes of its entries and decodes
+ * an entry only when it is accessed for the first time.
+ * <p>
+ * the entries which have never been accessed are written verbatim by the {@link NBTOutputStream}s
+ * that have the same {@link NBTFormat}.
+ */
+public final class LazyCompoundTag implements CompoundTag {
+
+  /**
+   * the size of the buffer to copy the encoded entries which are not in an array.
+   */
+  private static final int COPY_SIZE = 8192;
+
+  /**
+   * the buffer that contains the encoded entries at the offsets of their {@link Encoded}s.
+   */
+  @NotNull
+  private final ByteBuffer data;
+
+  /**
+   * the format of the {@link #data}.
+   */
+  @NotNull
+  private final NBTFormat format;
+
+  /**
+   * the original.
+   */
+  @NotNull
+  private final Map<String, Tag> original;
+
+  /**
+   * ctor.
+   *
+   * @param data the data.
+   * @param format the format.
+   * @param original the original.
+   */
+  private LazyCompoundTag(
+    @NotNull final ByteBuffer data,
+    @NotNull final NBTFormat format,
+    @NotNull final Map<String, Tag> original
+  ) {
+    this.data = data;
+    this.format = format;
+    this.original = original;
+  }
+
+  /**
+   * reads the compound tag from the given stream without decoding its entries.
+   * <p>
+   * the entries are skipped and only their encoded byte ranges are kept. if the stream reads a
+   * {@link ByteBufferDataInput}, the ranges refer to its buffer without copying, otherwise the
+   * skipped bytes are copied as they are.
+   *
+   * @param stream the stream to read.
+   *
+   * @return a new lazy compound tag instance.
+   *
+   * @throws IOException if something went wrong when reading the given stream.
+   */
+  @NotNull
+  public static LazyCompoundTag read(@NotNull final NBTInputStream stream) throws IOException {
+    final DataInput input = stream.input();
+    final ByteBuffer source = input instanceof ByteBufferDataInput
+      ? ((ByteBufferDataInput) input).buffer()
+      : null;
+    final ByteArrayOutputStream bytes = source == null ? new ByteArrayOutputStream() : null;
+    final Map<String, Tag> original = new LinkedHashMap<>();
+    while (true) {
+      final byte id;
+      try {
+        id = input.readByte();
+      } catch (final EOFException e) {
+        break;
+      }
+      if (id == TagTypes.END.getId()) {
+        break;
+      }
+      final String key = stream.readKey();
+      final int offset;
+      final int length;
+      if (source == null) {
+        offset = bytes.size();
+        stream.skip(id, bytes);
+        length = bytes.size() - offset;
+      } else {
+        offset = source.position();
+        stream.skip(id);
+        length = source.position() - offset;
+      }
+      original.put(key, new Encoded(TagTypes.byId(id), offset, length));
+    }
+    final ByteBuffer data = source == null
+      ? ByteBuffer.wrap(bytes.toByteArray())
+      : source.duplicate();
+    return new LazyCompoundTag(data, stream.format(), original);
+  }
+
+  @NotNull
+  @Override
+  public Map<String, Tag> all() {
+    this.original.entrySet().forEach(this::resolve);
+    return Collections.unmodifiableMap(this.original);
+  }
+
+  @Override
+  public boolean contains(@NotNull final Tag tag) {
+    return this.all().containsValue(tag);
+  }
+
+  @Override
+  public boolean containsKey(@NotNull final String key) {
+    return this.original.containsKey(key);
+  }
+
+  @NotNull
+  @Override
+  public Optional<Tag> get(@NotNull final String key) {
+    final Tag tag = this.original.get(key);
+    if (!(tag instanceof Encoded)) {
+      return Optional.ofNullable(tag);
+    }
+    final Tag decoded = this.decode((Encoded) tag);
+    this.original.put(key, decoded);
+    return Optional.of(decoded);
+  }
+
+  @NotNull
+  @Override
+  public CompoundTag remove(@NotNull final String key) {
+    this.original.remove(key);
+    return this;
+  }
+
+  @NotNull
+  @Override
+  public CompoundTag set(@NotNull final String key, @NotNull final Tag tag) {
+    this.original.put(key, tag);
+    return this;
+  }
+
+  @Override
+  public int size() {
+    return this.original.size();
+  }
+
+  @Override
+  public int hashCode() {
+    return this.all().hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof CompoundTag)) {
+      return false;
+    }
+    return this.all().equals(((CompoundTag) o).all());
+  }
+
+  @Override
+  public String toString() {
+    return "LazyCompoundTag{" + "original=" + this.all() + '}';
+  }
+
+  /**
+   * calculates the encoded size of the entries in the given format, the same as
+   * {@link #write(NBTOutputStream)} writes them.
+   * <p>
+   * the entries which have never been accessed are counted by their encoded lengths if the format
+   * is the same with {@code this}.
+   *
+   * @param format the format to calculate.
+   *
+   * @return encoded size in bytes.
+   */
+  public long sizeOf(@NotNull final NBTFormat format) {
+    final boolean verbatim = format == this.format;
+    long size = Byte.BYTES;
+    for (final Map.Entry<String, Tag> entry : this.original.entrySet()) {
+      final Tag tag = verbatim ? entry.getValue() : this.resolve(entry);
+      size += Byte.BYTES + format.sizeOf(entry.getKey());
+      size += tag instanceof Encoded ? ((Encoded) tag).length : format.sizeOf(tag);
+    }
+    return size;
+  }
+
+  /**
+   * writes the entries into the given stream.
+   * <p>
+   * copies the entries which have never been accessed verbatim if the stream's format is the same
+   * with {@code this}.
+   *
+   * @param stream the stream to write.
+   *
+   * @throws IOException if something went wrong when writing into the given stream.
+   */
+  public void write(@NotNull final NBTOutputStream stream) throws IOException {
+    final DataOutput output = stream.output();
+    final boolean verbatim = stream.format() == this.format;
+    for (final Map.Entry<String, Tag> entry : this.original.entrySet()) {
+      final Tag tag = verbatim ? entry.getValue() : this.resolve(entry);
+      output.writeByte(tag.getType().getId());
+      stream.writeKey(entry.getKey());
+      if (tag instanceof Encoded) {
+        this.copy((Encoded) tag, output);
+      } else {
+        stream.write(tag);
+      }
+    }
+    output.writeByte(TagTypes.END.getId());
+  }
+
+  /**
+   * resolves the given entry's value by decoding it if it is not decoded yet.
+   *
+   * @param entry the entry to decode.
+   *
+   * @return decoded value of the entry.
+   */
+  @NotNull
+  private Tag resolve(@NotNull final Map.Entry<String, Tag> entry) {
+    final Tag tag = entry.getValue();
+    if (!(tag instanceof Encoded)) {
+      return tag;
+    }
+    final Tag decoded = this.decode((Encoded) tag);
+    entry.setValue(decoded);
+    return decoded;
+  }
+
+  /**
+   * copies the bytes of the given encoded tag into the given output as they are.
+   *
+   * @param encoded the encoded to copy.
+   * @param output the output to copy.
+   *
+   * @throws IOException if something went wrong when writing into the given output.
+   */
+  private void copy(@NotNull final Encoded encoded, @NotNull final DataOutput output)
+    throws IOException {
+    if (this.data.hasArray()) {
+      output.write(this.data.array(), this.data.arrayOffset() + encoded.offset, encoded.length);
+      return;
+    }
+    final ByteBuffer view = this.view(encoded);
+    final byte[] buffer = new byte[Math.min(encoded.length, LazyCompoundTag.COPY_SIZE)];
+    while (view.hasRemaining()) {
+      final int length = Math.min(view.remaining(), buffer.length);
+      view.get(buffer, 0, length);
+      output.write(buffer, 0, length);
+    }
+  }
+
+  /**
+   * decodes the given encoded tag.
+   *
+   * @param encoded the encoded to decode.
+   *
+   * @return decoded tag.
+   */
+  @NotNull
+  private Tag decode(@NotNull final Encoded encoded) {
+    final DataInput input;
+    if (this.format != NBTFormat.NETWORK) {
+      input = new ByteBufferDataInput(this.view(encoded));
+    } else if (this.data.hasArray()) {
+      final ByteArrayInputStream bytes = new ByteArrayInputStream(
+        this.data.array(),
+        this.data.arrayOffset() + encoded.offset,
+        encoded.length
+      );
+      input = this.format.createInput(bytes);
+    } else {
+      final byte[] bytes = new byte[encoded.length];
+      this.view(encoded).get(bytes);
+      input = this.format.createInput(new ByteArrayInputStream(bytes));
+    }
+    try {
+      return new NBTInputStream(input, true).read(encoded.type.getId());
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * creates a view of the bytes of the given encoded tag in the byte order of the format.
+   *
+   * @param encoded the encoded to view.
+   *
+   * @return a new buffer that shares the bytes of the {@link #data}.
+   */
+  @NotNull
+  private ByteBuffer view(@NotNull final Encoded encoded) {
+    final ByteBuffer view = this.data.duplicate();
+    view.limit(encoded.offset + encoded.length);
+    view.position(encoded.offset);
+    return view.slice().order(this.format.order());
+  }
+
+  /**
+   * a class that represents the position of an entry which is not decoded yet.
+   */
+  private static final class Encoded implements Tag {
+
+    /**
+     * the length.
+     */
+    private final int length;
+
+    /**
+     * the offset.
+     */
+    private final int offset;
+
+    /**
+     * the type.
+     */
+    @NotNull
+    private final TagTypes type;
+
+    /**
+     * ctor.
+     *
+     * @param type the type.
+     * @param offset the offset.
+     * @param length the length.
+     */
+    private Encoded(@NotNull final TagTypes type, final int offset, final int length) {
+      this.type = type;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @NotNull
+    @Override
+    public TagTypes getType() {
+      return this.type;
+    }
+  }
+}
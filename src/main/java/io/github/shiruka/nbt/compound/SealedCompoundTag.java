@@ -0,0 +1,546 @@
+package io.github.shiruka.nbt.compound;
+
+import io.github.shiruka.nbt.CompoundTag;
+import io.github.shiruka.nbt.ListTag;
+import io.github.shiruka.nbt.Tag;
+import io.github.shiruka.nbt.TagTypes;
+import io.github.shiruka.nbt.stream.NBTFormat;
+import io.github.shiruka.nbt.stream.NBTOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Stream;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * an implementation for {@link CompoundTag} that cannot be changed and keeps its encoded entries
+ * for each {@link NBTFormat} once they are encoded.
+ * <p>
+ * the {@link NBTOutputStream}s copy the encoded entries instead of encoding the tag again, so a tag
+ * which is sent many times, such as an item or a block entity which is broadcast to the players,
+ * is encoded only once per format. the sealed tag can be written from multiple threads.
+ * <p>
+ * the tag is copied when it is sealed and its compound and list children are copied into tags
+ * which cannot be changed, so neither the original nor the values which are obtained from the
+ * sealed tag can change it. only the sealed tag itself keeps the encoded entries, its children are
+ * written into them as plain tags. the arrays of the array tags are not copied, so they must not
+ * be changed after sealing.
+ */
+public final class SealedCompoundTag implements CompoundTag {
+
+  /**
+   * the encoded entries of each format, by the ordinals of the formats.
+   */
+  @NotNull
+  private final AtomicReferenceArray<byte[]> encoded = new AtomicReferenceArray<>(
+    NBTFormat.values().length
+  );
+
+  /**
+   * the original.
+   */
+  @NotNull
+  private final CompoundTag original;
+
+  /**
+   * ctor.
+   *
+   * @param original the original.
+   */
+  private SealedCompoundTag(@NotNull final CompoundTag original) {
+    this.original = original;
+  }
+
+  /**
+   * seals the given tag.
+   * <p>
+   * the children are copied without recursion, so deeply nested tags do not overflow the stack.
+   *
+   * @param tag the tag to seal.
+   *
+   * @return the tag itself if it is already sealed, otherwise a new sealed compound tag instance.
+   */
+  @NotNull
+  public static SealedCompoundTag seal(@NotNull final CompoundTag tag) {
+    if (tag instanceof SealedCompoundTag) {
+      return (SealedCompoundTag) tag;
+    }
+    final Deque<Frame> frames = new ArrayDeque<>();
+    frames.push(new Frame(tag));
+    while (true) {
+      final Frame frame = frames.element();
+      final Tag child = frame.next();
+      if (child == null) {
+        frames.pop();
+        if (frames.isEmpty()) {
+          return new SealedCompoundTag(frame.root());
+        }
+        frames.element().add(frame.seal());
+      } else if (child.isList() || child.isCompound() && !(child instanceof SealedCompoundTag)) {
+        frames.push(new Frame(child));
+      } else {
+        frame.add(child);
+      }
+    }
+  }
+
+  @NotNull
+  @Override
+  public Map<String, Tag> all() {
+    return Collections.unmodifiableMap(this.original.all());
+  }
+
+  @Override
+  public boolean contains(@NotNull final Tag tag) {
+    return this.original.contains(tag);
+  }
+
+  @Override
+  public boolean containsKey(@NotNull final String key) {
+    return this.original.containsKey(key);
+  }
+
+  @NotNull
+  @Override
+  public Optional<Tag> get(@NotNull final String key) {
+    return this.original.get(key);
+  }
+
+  @NotNull
+  @Override
+  public CompoundTag remove(@NotNull final String key) {
+    throw new UnsupportedOperationException("Sealed compound tags cannot be changed!");
+  }
+
+  @NotNull
+  @Override
+  public CompoundTag set(@NotNull final String key, @NotNull final Tag tag) {
+    throw new UnsupportedOperationException("Sealed compound tags cannot be changed!");
+  }
+
+  @Override
+  public int size() {
+    return this.original.size();
+  }
+
+  @Override
+  public int hashCode() {
+    return this.original.hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof CompoundTag)) {
+      return false;
+    }
+    return this.all().equals(((CompoundTag) o).all());
+  }
+
+  @Override
+  public String toString() {
+    return "SealedCompoundTag{" + "original=" + this.original + '}';
+  }
+
+  /**
+   * obtains the encoded entries in the given format, encoding them if they have not been encoded
+   * yet.
+   * <p>
+   * the buffer is a read-only view of the cached bytes, so it can be wrapped by a network buffer
+   * without copying.
+   *
+   * @param format the format to obtain.
+   *
+   * @return encoded entries which end with the end tag.
+   */
+  @NotNull
+  public ByteBuffer encoded(@NotNull final NBTFormat format) {
+    return ByteBuffer.wrap(this.bytes(format)).asReadOnlyBuffer();
+  }
+
+  /**
+   * calculates the encoded size of the entries in the given format.
+   *
+   * @param format the format to calculate.
+   *
+   * @return encoded size in bytes.
+   */
+  public int sizeOf(@NotNull final NBTFormat format) {
+    return this.bytes(format).length;
+  }
+
+  /**
+   * writes the cached entries of the stream's format into the given stream.
+   *
+   * @param stream the stream to write.
+   *
+   * @throws IOException if something went wrong when writing into the given stream.
+   */
+  public void write(@NotNull final NBTOutputStream stream) throws IOException {
+    stream.output().write(this.bytes(stream.format()));
+  }
+
+  /**
+   * obtains the cached entries of the given format.
+   * <p>
+   * the entries are encoded under the lock, so a format is encoded only once even if the tag is
+   * written by many threads at once.
+   *
+   * @param format the format to obtain.
+   *
+   * @return encoded entries.
+   */
+  private byte@NotNull[] bytes(@NotNull final NBTFormat format) {
+    final byte[] cached = this.encoded.get(format.ordinal());
+    if (cached != null) {
+      return cached;
+    }
+    synchronized (this) {
+      byte[] bytes = this.encoded.get(format.ordinal());
+      if (bytes != null) {
+        return bytes;
+      }
+      final ByteArrayOutputStream output = new ByteArrayOutputStream();
+      try {
+        new NBTOutputStream(format.createOutput(output)).writeCompoundTag(this.original);
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      bytes = output.toByteArray();
+      this.encoded.set(format.ordinal(), bytes);
+      return bytes;
+    }
+  }
+
+  /**
+   * a class that represents compound and list tags which are being sealed.
+   */
+  private static final class Frame {
+
+    /**
+     * the entries of the compound.
+     */
+    @Nullable
+    private final Iterator<Map.Entry<String, Tag>> entries;
+
+    /**
+     * the elements of the list.
+     */
+    @Nullable
+    private final Iterator<Tag> elements;
+
+    /**
+     * the key of the current entry of the compound.
+     */
+    @Nullable
+    private String key;
+
+    /**
+     * the sealed entries of the compound.
+     */
+    @Nullable
+    private final Map<String, Tag> map;
+
+    /**
+     * the sealed elements of the list.
+     */
+    @Nullable
+    private final List<Tag> list;
+
+    /**
+     * the element type of the list.
+     */
+    @NotNull
+    private final TagTypes listType;
+
+    /**
+     * ctor.
+     *
+     * @param tag the compound or list tag to seal.
+     */
+    private Frame(@NotNull final Tag tag) {
+      if (tag.isCompound()) {
+        final Map<String, Tag> all = tag.asCompound().all();
+        this.entries = all.entrySet().iterator();
+        this.elements = null;
+        this.map = new LinkedHashMap<>(Math.max(16, (int) (all.size() / 0.75f) + 1));
+        this.list = null;
+        this.listType = TagTypes.END;
+      } else {
+        final ListTag listTag = tag.asList();
+        this.entries = null;
+        this.elements = listTag.iterator();
+        this.map = null;
+        this.list = new ArrayList<>(listTag.size());
+        this.listType = listTag.getListType();
+      }
+    }
+
+    /**
+     * adds the given sealed child into the container.
+     *
+     * @param tag the tag to add.
+     */
+    private void add(@NotNull final Tag tag) {
+      if (this.map != null) {
+        this.map.put(Objects.requireNonNull(this.key, "key"), tag);
+      } else {
+        Objects.requireNonNull(this.list, "list").add(tag);
+      }
+    }
+
+    /**
+     * obtains the next child of the container.
+     *
+     * @return next child, or {@code null} if the container has no more children.
+     */
+    @Nullable
+    private Tag next() {
+      if (this.entries != null) {
+        if (!this.entries.hasNext()) {
+          return null;
+        }
+        final Map.Entry<String, Tag> entry = this.entries.next();
+        this.key = entry.getKey();
+        return entry.getValue();
+      }
+      final Iterator<Tag> iterator = Objects.requireNonNull(this.elements, "elements");
+      return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /**
+     * creates the compound tag which is wrapped by the sealed root.
+     *
+     * @return compound tag of the sealed entries.
+     */
+    @NotNull
+    private CompoundTag root() {
+      return Tag.createCompound(Objects.requireNonNull(this.map, "map"));
+    }
+
+    /**
+     * creates the tag of the container which cannot be changed.
+     *
+     * @return sealed child tag.
+     */
+    @NotNull
+    private Tag seal() {
+      if (this.map != null) {
+        return new SealedChildCompoundTag(Collections.unmodifiableMap(this.map));
+      }
+      return new SealedListTag(
+        Collections.unmodifiableList(Objects.requireNonNull(this.list, "list")),
+        this.listType
+      );
+    }
+  }
+
+  /**
+   * an implementation for {@link CompoundTag} that cannot be changed, which keeps the compound
+   * children of the sealed compound tags.
+   * <p>
+   * unlike {@link SealedCompoundTag}, it does not keep its encoded entries, so the output streams
+   * walk into it without recursion when they write the sealed root.
+   */
+  private static final class SealedChildCompoundTag implements CompoundTag {
+
+    /**
+     * the original.
+     */
+    @NotNull
+    private final Map<String, Tag> original;
+
+    /**
+     * ctor.
+     *
+     * @param original the original.
+     */
+    private SealedChildCompoundTag(@NotNull final Map<String, Tag> original) {
+      this.original = original;
+    }
+
+    @NotNull
+    @Override
+    public Map<String, Tag> all() {
+      return this.original;
+    }
+
+    @Override
+    public boolean contains(@NotNull final Tag tag) {
+      return this.original.containsValue(tag);
+    }
+
+    @Override
+    public boolean containsKey(@NotNull final String key) {
+      return this.original.containsKey(key);
+    }
+
+    @NotNull
+    @Override
+    public Optional<Tag> get(@NotNull final String key) {
+      return Optional.ofNullable(this.original.get(key));
+    }
+
+    @NotNull
+    @Override
+    public CompoundTag remove(@NotNull final String key) {
+      throw new UnsupportedOperationException("Sealed compound tags cannot be changed!");
+    }
+
+    @NotNull
+    @Override
+    public CompoundTag set(@NotNull final String key, @NotNull final Tag tag) {
+      throw new UnsupportedOperationException("Sealed compound tags cannot be changed!");
+    }
+
+    @Override
+    public int size() {
+      return this.original.size();
+    }
+
+    @Override
+    public int hashCode() {
+      return this.original.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof CompoundTag)) {
+        return false;
+      }
+      return this.original.equals(((CompoundTag) o).all());
+    }
+
+    @Override
+    public String toString() {
+      return "SealedChildCompoundTag{" + "original=" + this.original + '}';
+    }
+  }
+
+  /**
+   * an implementation for {@link ListTag} that cannot be changed, which keeps the list children of
+   * the sealed compound tags.
+   */
+  private static final class SealedListTag implements ListTag {
+
+    /**
+     * the list type.
+     */
+    @NotNull
+    private final TagTypes listType;
+
+    /**
+     * the original.
+     */
+    @NotNull
+    private final List<Tag> original;
+
+    /**
+     * ctor.
+     *
+     * @param original the original.
+     * @param listType the list type.
+     */
+    private SealedListTag(@NotNull final List<Tag> original, @NotNull final TagTypes listType) {
+      this.original = original;
+      this.listType = listType;
+    }
+
+    @NotNull
+    @Override
+    public ListTag add(@NotNull final Tag tag) {
+      throw new UnsupportedOperationException("Sealed list tags cannot be changed!");
+    }
+
+    @NotNull
+    @Override
+    public List<Tag> all() {
+      return this.original;
+    }
+
+    @NotNull
+    @Override
+    public TagTypes getListType() {
+      return this.listType;
+    }
+
+    @NotNull
+    @Override
+    public Stream<Tag> stream() {
+      return this.original.stream();
+    }
+
+    @Override
+    public boolean contains(@NotNull final Tag tag) {
+      return this.original.contains(tag);
+    }
+
+    @Override
+    public boolean containsKey(@NotNull final Integer key) {
+      return key >= 0 && key < this.original.size();
+    }
+
+    @NotNull
+    @Override
+    public Optional<Tag> get(@NotNull final Integer key) {
+      return Optional.ofNullable(this.original.get(key));
+    }
+
+    @NotNull
+    @Override
+    public ListTag remove(@NotNull final Integer key) {
+      throw new UnsupportedOperationException("Sealed list tags cannot be changed!");
+    }
+
+    @NotNull
+    @Override
+    public ListTag set(@NotNull final Integer key, @NotNull final Tag tag) {
+      throw new UnsupportedOperationException("Sealed list tags cannot be changed!");
+    }
+
+    @NotNull
+    @Override
+    public Iterator<Tag> iterator() {
+      return this.original.iterator();
+    }
+
+    @Override
+    public int hashCode() {
+      return this.original.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ListTag)) {
+        return false;
+      }
+      return this.original.equals(((ListTag) o).all());
+    }
+
+    @Override
+    public String toString() {
+      return "SealedListTag{" + "original=" + this.original + '}';
+    }
+  }
+}
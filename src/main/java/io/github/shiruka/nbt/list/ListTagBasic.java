@@ -12,7 +12,6 @@ import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
-import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.jetbrains.annotations.NotNull;
 
@@ -20,7 +19,6 @@ import org.jetbrains.annotations.NotNull;
  * an implementation for {@link ListTag}.
  */
 @ToString(onlyExplicitlyIncluded = true)
-@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public final class ListTagBasic implements ListTag {
 
   /**
@@ -34,7 +32,6 @@ public final class ListTagBasic implements ListTag {
    */
   @NotNull
   @ToString.Include
-  @EqualsAndHashCode.Include
   private List<Tag> original;
 
   /**
@@ -142,6 +139,22 @@ public final class ListTagBasic implements ListTag {
     return Spliterators.spliterator(this.original, Spliterator.ORDERED | Spliterator.IMMUTABLE);
   }
 
+  @Override
+  public int hashCode() {
+    return this.original.hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof ListTag)) {
+      return false;
+    }
+    return this.original.equals(((ListTag) o).all());
+  }
+
   /**
    * edits with the given consumer.
    *
@@ -8,13 +8,30 @@ import org.jetbrains.annotations.NotNull;
  */
 public final class ByteTag extends NumberTagEnvelope {
 
+  /**
+   * the number.
+   */
+  private final byte number;
+
   /**
    * ctor.
    *
    * @param number the number.
    */
   public ByteTag(final byte number) {
-    super(number);
+    this.number = number;
+  }
+
+  /**
+   * obtains the shared byte tag of the given number.
+   *
+   * @param number the number to obtain.
+   *
+   * @return byte tag.
+   */
+  @NotNull
+  public static ByteTag valueOf(final byte number) {
+    return Cache.VALUES[number - Cache.LOW];
   }
 
   @NotNull
@@ -33,4 +50,83 @@ public final class ByteTag extends NumberTagEnvelope {
   public boolean isByte() {
     return true;
   }
+
+  @Override
+  public byte byteValue() {
+    return this.number;
+  }
+
+  @Override
+  public double doubleValue() {
+    return this.number;
+  }
+
+  @Override
+  public float floatValue() {
+    return this.number;
+  }
+
+  @Override
+  public int intValue() {
+    return this.number;
+  }
+
+  @Override
+  public long longValue() {
+    return this.number;
+  }
+
+  @Override
+  public short shortValue() {
+    return this.number;
+  }
+
+  @Override
+  public int hashCode() {
+    return Byte.hashCode(this.number);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || this.getClass() != o.getClass()) {
+      return false;
+    }
+    final ByteTag that = (ByteTag) o;
+    return this.number == that.number;
+  }
+
+  @Override
+  public String toString() {
+    return "ByteTag{" + "number=" + this.number + '}';
+  }
+
+  /**
+   * a class that contains the shared instances.
+   */
+  private static final class Cache {
+
+    /**
+     * the lowest cached number.
+     */
+    private static final int LOW = Byte.MIN_VALUE;
+
+    /**
+     * the highest cached number.
+     */
+    private static final int HIGH = Byte.MAX_VALUE;
+
+    /**
+     * the cached values.
+     */
+    private static final ByteTag[] VALUES = new ByteTag[Cache.HIGH - Cache.LOW + 1];
+
+    static {
+      for (int i = 0; i < Cache.VALUES.length; i++) {
+        Cache.VALUES[i] = new ByteTag((byte) (Cache.LOW + i));
+      }
+    }
+  }
 }
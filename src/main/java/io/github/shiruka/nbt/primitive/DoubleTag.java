@@ -8,13 +8,35 @@ import org.jetbrains.annotations.NotNull;
  */
 public final class DoubleTag extends NumberTagEnvelope {
 
+  /**
+   * the shared instance of the positive zero.
+   */
+  private static final DoubleTag ZERO = new DoubleTag(0.0d);
+
+  /**
+   * the number.
+   */
+  private final double number;
+
   /**
    * ctor.
    *
    * @param number the number.
    */
   public DoubleTag(final double number) {
-    super(number);
+    this.number = number;
+  }
+
+  /**
+   * obtains the double tag of the given number, which is a shared instance for the positive zero.
+   *
+   * @param number the number to obtain.
+   *
+   * @return double tag.
+   */
+  @NotNull
+  public static DoubleTag valueOf(final double number) {
+    return Double.doubleToRawLongBits(number) == 0L ? DoubleTag.ZERO : new DoubleTag(number);
   }
 
   @NotNull
@@ -33,4 +55,56 @@ public final class DoubleTag extends NumberTagEnvelope {
   public boolean isDouble() {
     return true;
   }
+
+  @Override
+  public byte byteValue() {
+    return (byte) this.number;
+  }
+
+  @Override
+  public double doubleValue() {
+    return this.number;
+  }
+
+  @Override
+  public float floatValue() {
+    return (float) this.number;
+  }
+
+  @Override
+  public int intValue() {
+    return (int) this.number;
+  }
+
+  @Override
+  public long longValue() {
+    return (long) this.number;
+  }
+
+  @Override
+  public short shortValue() {
+    return (short) this.number;
+  }
+
+  @Override
+  public int hashCode() {
+    return Double.hashCode(this.number);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || this.getClass() != o.getClass()) {
+      return false;
+    }
+    final DoubleTag that = (DoubleTag) o;
+    return Double.doubleToLongBits(this.number) == Double.doubleToLongBits(that.number);
+  }
+
+  @Override
+  public String toString() {
+    return "DoubleTag{" + "number=" + this.number + '}';
+  }
 }
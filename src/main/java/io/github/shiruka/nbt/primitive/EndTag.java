@@ -9,6 +9,11 @@ import org.jetbrains.annotations.NotNull;
  */
 public final class EndTag implements Tag {
 
+  /**
+   * the shared instance.
+   */
+  public static final EndTag INSTANCE = new EndTag();
+
   @NotNull
   @Override
   public TagTypes getType() {
@@ -8,13 +8,35 @@ import org.jetbrains.annotations.NotNull;
  */
 public final class FloatTag extends NumberTagEnvelope {
 
+  /**
+   * the shared instance of the positive zero.
+   */
+  private static final FloatTag ZERO = new FloatTag(0.0f);
+
+  /**
+   * the number.
+   */
+  private final float number;
+
   /**
    * ctor.
    *
    * @param number the number.
    */
   public FloatTag(final float number) {
-    super(number);
+    this.number = number;
+  }
+
+  /**
+   * obtains the float tag of the given number, which is a shared instance for the positive zero.
+   *
+   * @param number the number to obtain.
+   *
+   * @return float tag.
+   */
+  @NotNull
+  public static FloatTag valueOf(final float number) {
+    return Float.floatToRawIntBits(number) == 0 ? FloatTag.ZERO : new FloatTag(number);
   }
 
   @NotNull
@@ -33,4 +55,56 @@ public final class FloatTag extends NumberTagEnvelope {
   public boolean isFloat() {
     return true;
   }
+
+  @Override
+  public byte byteValue() {
+    return (byte) this.number;
+  }
+
+  @Override
+  public double doubleValue() {
+    return this.number;
+  }
+
+  @Override
+  public float floatValue() {
+    return this.number;
+  }
+
+  @Override
+  public int intValue() {
+    return (int) this.number;
+  }
+
+  @Override
+  public long longValue() {
+    return (long) this.number;
+  }
+
+  @Override
+  public short shortValue() {
+    return (short) this.number;
+  }
+
+  @Override
+  public int hashCode() {
+    return Float.hashCode(this.number);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || this.getClass() != o.getClass()) {
+      return false;
+    }
+    final FloatTag that = (FloatTag) o;
+    return Float.floatToIntBits(this.number) == Float.floatToIntBits(that.number);
+  }
+
+  @Override
+  public String toString() {
+    return "FloatTag{" + "number=" + this.number + '}';
+  }
 }
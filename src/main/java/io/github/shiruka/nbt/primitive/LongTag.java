@@ -8,13 +8,33 @@ import org.jetbrains.annotations.NotNull;
  */
 public final class LongTag extends NumberTagEnvelope {
 
+  /**
+   * the number.
+   */
+  private final long number;
+
   /**
    * ctor.
    *
    * @param number the number.
    */
   public LongTag(final long number) {
-    super(number);
+    this.number = number;
+  }
+
+  /**
+   * obtains the long tag of the given number, which may be a shared instance.
+   *
+   * @param number the number to obtain.
+   *
+   * @return long tag.
+   */
+  @NotNull
+  public static LongTag valueOf(final long number) {
+    if (number >= Cache.LOW && number <= Cache.HIGH) {
+      return Cache.VALUES[(int) (number - Cache.LOW)];
+    }
+    return new LongTag(number);
   }
 
   @NotNull
@@ -33,4 +53,88 @@ public final class LongTag extends NumberTagEnvelope {
   public boolean isLong() {
     return true;
   }
+
+  @Override
+  public byte byteValue() {
+    return (byte) this.number;
+  }
+
+  @Override
+  public double doubleValue() {
+    return this.number;
+  }
+
+  @Override
+  public float floatValue() {
+    return this.number;
+  }
+
+  @Override
+  public int intValue() {
+    return (int) this.number;
+  }
+
+  @Override
+  public long longValue() {
+    return this.number;
+  }
+
+  @Override
+  public short shortValue() {
+    return (short) this.number;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(this.number);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || this.getClass() != o.getClass()) {
+      return false;
+    }
+    final LongTag that = (LongTag) o;
+    return this.number == that.number;
+  }
+
+  @Override
+  public String toString() {
+    return "LongTag{" + "number=" + this.number + '}';
+  }
+
+  /**
+   * a class that contains the shared instances.
+   */
+  private static final class Cache {
+
+    /**
+     * the lowest cached number.
+     */
+    private static final int LOW = NumberTagEnvelope.CACHE_LOW;
+
+    /**
+     * the highest cached number.
+     */
+    private static final int HIGH = NumberTagEnvelope.CACHE_HIGH;
+
+    /**
+     * the count of the cached numbers, {@code 0} if the range is empty.
+     */
+    private static final int SIZE = NumberTagEnvelope.cacheSize(Cache.LOW, Cache.HIGH);
+
+    /**
+     * the cached values.
+     */
+    private static final LongTag[] VALUES = new LongTag[Cache.SIZE];
+
+    static {
+      for (int i = 0; i < Cache.VALUES.length; i++) {
+        Cache.VALUES[i] = new LongTag(Cache.LOW + i);
+      }
+    }
+  }
 }
@@ -1,25 +1,51 @@
 package io.github.shiruka.nbt.primitive;
 
 import io.github.shiruka.nbt.NumberTag;
-import lombok.AccessLevel;
-import lombok.EqualsAndHashCode;
-import lombok.RequiredArgsConstructor;
-import lombok.ToString;
-import lombok.experimental.Delegate;
-import org.jetbrains.annotations.NotNull;
 
 /**
  * an implementation for {@link NumberTag}.
+ * <p>
+ * the implementations keep their numbers in primitive fields. {@link ShortTag#valueOf(short)},
+ * {@link IntTag#valueOf(int)} and {@link LongTag#valueOf(long)} return shared instances for the
+ * numbers between the {@code shiruka.nbt.cache.low} and {@code shiruka.nbt.cache.high} system
+ * properties, which are {@code -128} and {@code 1024} by default. at most
+ * {@value #MAX_CACHE_SIZE} numbers are cached, and nothing is cached if the high property is less
+ * than the low one.
  */
-@ToString(doNotUseGetters = true)
-@EqualsAndHashCode(doNotUseGetters = true)
-@RequiredArgsConstructor(access = AccessLevel.PROTECTED)
 public abstract class NumberTagEnvelope implements NumberTag {
 
   /**
-   * the number.
+   * the max count of the cached numbers of a type.
    */
-  @NotNull
-  @Delegate
-  private final Number number;
+  static final int MAX_CACHE_SIZE = 1 << 16;
+
+  /**
+   * the lowest number of the cached short, int and long tags.
+   */
+  static final int CACHE_LOW = Integer.getInteger("shiruka.nbt.cache.low", -128);
+
+  /**
+   * the highest number of the cached short, int and long tags.
+   */
+  static final int CACHE_HIGH = (int) Math.min(
+    Integer.getInteger("shiruka.nbt.cache.high", 1024),
+    (long) NumberTagEnvelope.CACHE_LOW + NumberTagEnvelope.MAX_CACHE_SIZE - 1
+  );
+
+  /**
+   * ctor.
+   */
+  protected NumberTagEnvelope() {}
+
+  /**
+   * calculates the count of the cached numbers in the given range.
+   *
+   * @param low the lowest cached number.
+   * @param high the highest cached number.
+   *
+   * @return count of the numbers, or {@code 0} if the range is empty.
+   */
+  static int cacheSize(final int low, final int high) {
+    return (int) Math.max(0L, (long) high - low + 1);
+  }
 }
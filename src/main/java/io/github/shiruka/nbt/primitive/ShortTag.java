@@ -8,13 +8,33 @@ import org.jetbrains.annotations.NotNull;
  */
 public final class ShortTag extends NumberTagEnvelope {
 
+  /**
+   * the number.
+   */
+  private final short number;
+
   /**
    * ctor.
    *
    * @param number the number.
    */
   public ShortTag(final short number) {
-    super(number);
+    this.number = number;
+  }
+
+  /**
+   * obtains the short tag of the given number, which may be a shared instance.
+   *
+   * @param number the number to obtain.
+   *
+   * @return short tag.
+   */
+  @NotNull
+  public static ShortTag valueOf(final short number) {
+    if (number >= Cache.LOW && number <= Cache.HIGH) {
+      return Cache.VALUES[number - Cache.LOW];
+    }
+    return new ShortTag(number);
   }
 
   @NotNull
@@ -33,4 +53,88 @@ public final class ShortTag extends NumberTagEnvelope {
   public boolean isShort() {
     return true;
   }
+
+  @Override
+  public byte byteValue() {
+    return (byte) this.number;
+  }
+
+  @Override
+  public double doubleValue() {
+    return this.number;
+  }
+
+  @Override
+  public float floatValue() {
+    return this.number;
+  }
+
+  @Override
+  public int intValue() {
+    return this.number;
+  }
+
+  @Override
+  public long longValue() {
+    return this.number;
+  }
+
+  @Override
+  public short shortValue() {
+    return this.number;
+  }
+
+  @Override
+  public int hashCode() {
+    return Short.hashCode(this.number);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || this.getClass() != o.getClass()) {
+      return false;
+    }
+    final ShortTag that = (ShortTag) o;
+    return this.number == that.number;
+  }
+
+  @Override
+  public String toString() {
+    return "ShortTag{" + "number=" + this.number + '}';
+  }
+
+  /**
+   * a class that contains the shared instances.
+   */
+  private static final class Cache {
+
+    /**
+     * the lowest cached number.
+     */
+    private static final int LOW = Math.max(NumberTagEnvelope.CACHE_LOW, Short.MIN_VALUE);
+
+    /**
+     * the highest cached number.
+     */
+    private static final int HIGH = Math.min(NumberTagEnvelope.CACHE_HIGH, Short.MAX_VALUE);
+
+    /**
+     * the count of the cached numbers, {@code 0} if the range is empty.
+     */
+    private static final int SIZE = NumberTagEnvelope.cacheSize(Cache.LOW, Cache.HIGH);
+
+    /**
+     * the cached values.
+     */
+    private static final ShortTag[] VALUES = new ShortTag[Cache.SIZE];
+
+    static {
+      for (int i = 0; i < Cache.VALUES.length; i++) {
+        Cache.VALUES[i] = new ShortTag((short) (Cache.LOW + i));
+      }
+    }
+  }
 }
@@ -2,27 +2,68 @@ package io.github.shiruka.nbt.primitive;
 
 import io.github.shiruka.nbt.PrimitiveTag;
 import io.github.shiruka.nbt.TagTypes;
-import lombok.EqualsAndHashCode;
-import lombok.Getter;
-import lombok.ToString;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * an implementation for {@link PrimitiveTag}.
+ * <p>
+ * the tags which are created by {@link #adopt(byte[])} keep their utf-8 bytes and decode them only
+ * when {@link #value()} is called, so the tags which are only forwarded are neither decoded nor
+ * encoded again.
  */
-@Getter
-@ToString
-@EqualsAndHashCode
 public final class StringTag implements PrimitiveTag<String> {
 
-  @NotNull
-  private final String original;
+  /**
+   * the shared instance of the empty string.
+   */
+  public static final StringTag EMPTY = new StringTag("");
+
+  /**
+   * the utf-8 bytes of the original, if the tag is created from its bytes.
+   */
+  private final byte@Nullable[] utf8;
+
+  /**
+   * the original, decoded lazily if the tag is created from its bytes.
+   */
+  @Nullable
+  private String original;
 
   /**
+   * ctor.
+   *
    * @param original the original.
    */
   public StringTag(@NotNull final String original) {
     this.original = original;
+    this.utf8 = null;
+  }
+
+  /**
+   * ctor.
+   *
+   * @param utf8 the utf-8 bytes of the original.
+   */
+  private StringTag(final byte@NotNull[] utf8) {
+    this.utf8 = utf8;
+  }
+
+  /**
+   * creates a string tag that uses the given utf-8 bytes without copying nor decoding them.
+   * <p>
+   * the array must not be modified after, so it is meant for the arrays which are owned by the
+   * decoders.
+   *
+   * @param utf8 the utf-8 bytes to adopt.
+   *
+   * @return a new string tag instance.
+   */
+  @NotNull
+  public static StringTag adopt(final byte@NotNull[] utf8) {
+    return utf8.length == 0 ? StringTag.EMPTY : new StringTag(utf8);
   }
 
   @NotNull
@@ -45,6 +86,57 @@ public final class StringTag implements PrimitiveTag<String> {
   @NotNull
   @Override
   public String value() {
-    return this.original;
+    String original = this.original;
+    if (original == null) {
+      original = new String(this.utf8, StandardCharsets.UTF_8);
+      this.original = original;
+    }
+    return original;
+  }
+
+  @Override
+  public int hashCode() {
+    return this.value().hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || this.getClass() != o.getClass()) {
+      return false;
+    }
+    final StringTag that = (StringTag) o;
+    if (this.utf8 != null && that.utf8 != null) {
+      return Arrays.equals(this.utf8, that.utf8);
+    }
+    return this.value().equals(that.value());
+  }
+
+  @Override
+  public String toString() {
+    return "StringTag(original=" + this.value() + ")";
+  }
+
+  /**
+   * obtains the original.
+   *
+   * @return original.
+   */
+  @NotNull
+  public String getOriginal() {
+    return this.value();
+  }
+
+  /**
+   * obtains the utf-8 bytes of the original without copying them.
+   * <p>
+   * the array must not be modified.
+   *
+   * @return utf-8 bytes, or {@code null} if the tag is not created by {@link #adopt(byte[])}.
+   */
+  public byte@Nullable[] utf8() {
+    return this.utf8;
   }
 }
@@ -0,0 +1,93 @@
+package io.github.shiruka.nbt.stream;
+
+import io.netty.buffer.ByteBuf;
+import java.io.EOFException;
+import java.io.IOException;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * an implementation for {@link ByteBufDataInput} that reads the big-endian format.
+ * <p>
+ * unlike a plain {@link io.netty.buffer.ByteBufInputStream}, the int and long arrays are read at
+ * once since the stream tells its format to {@link NBTInputStream}, and the strings are decoded
+ * directly from the buffer, or from the scratch buffer of the stream if the buffer is direct.
+ */
+public final class BigEndianByteBufInputStream extends ByteBufDataInput {
+
+  /**
+   * ctor.
+   *
+   * @param buffer the buffer.
+   */
+  public BigEndianByteBufInputStream(@NotNull final ByteBuf buffer) {
+    super(buffer);
+  }
+
+  @NotNull
+  @Override
+  public NBTFormat format() {
+    return NBTFormat.BIG_ENDIAN;
+  }
+
+  @Override
+  public char readChar() throws IOException {
+    this.require(Character.BYTES);
+    return this.buffer.readChar();
+  }
+
+  @Override
+  public double readDouble() throws IOException {
+    this.require(Double.BYTES);
+    return this.buffer.readDouble();
+  }
+
+  @Override
+  public float readFloat() throws IOException {
+    this.require(Float.BYTES);
+    return this.buffer.readFloat();
+  }
+
+  @Override
+  public int readInt() throws IOException {
+    this.require(Integer.BYTES);
+    return this.buffer.readInt();
+  }
+
+  @Override
+  public long readLong() throws IOException {
+    this.require(Long.BYTES);
+    return this.buffer.readLong();
+  }
+
+  @Override
+  public short readShort() throws IOException {
+    this.require(Short.BYTES);
+    return this.buffer.readShort();
+  }
+
+  @Override
+  public int readUnsignedShort() throws IOException {
+    this.require(Short.BYTES);
+    return this.buffer.readUnsignedShort();
+  }
+
+  @NotNull
+  @Override
+  public String readUTF() throws IOException {
+    final int length = this.readUnsignedShort();
+    if (!this.buffer.isReadable(length)) {
+      throw new EOFException();
+    }
+    final int index = this.buffer.readerIndex();
+    final String value;
+    if (this.buffer.hasArray()) {
+      value = ModifiedUtf8.decode(this.buffer.array(), this.buffer.arrayOffset() + index, length);
+    } else {
+      final byte[] bytes = this.scratch(length);
+      this.buffer.getBytes(index, bytes, 0, length);
+      value = ModifiedUtf8.decode(bytes, 0, length);
+    }
+    this.buffer.skipBytes(length);
+    return value;
+  }
+}
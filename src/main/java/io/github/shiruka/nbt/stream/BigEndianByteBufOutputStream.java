@@ -0,0 +1,79 @@
+package io.github.shiruka.nbt.stream;
+
+import io.netty.buffer.ByteBuf;
+import java.io.UTFDataFormatException;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * an implementation for {@link ByteBufDataOutput} that writes the big-endian format.
+ * <p>
+ * unlike a plain {@link io.netty.buffer.ByteBufOutputStream}, the int and long arrays are written
+ * at once since the stream tells its format to {@link NBTOutputStream}, and the strings are encoded
+ * directly into the buffer, or into the scratch buffer of the stream if the buffer is direct.
+ */
+public final class BigEndianByteBufOutputStream extends ByteBufDataOutput {
+
+  /**
+   * ctor.
+   *
+   * @param buffer the buffer.
+   */
+  public BigEndianByteBufOutputStream(@NotNull final ByteBuf buffer) {
+    super(buffer);
+  }
+
+  @NotNull
+  @Override
+  public NBTFormat format() {
+    return NBTFormat.BIG_ENDIAN;
+  }
+
+  @Override
+  public void writeChar(final int v) {
+    this.buffer.writeChar(v);
+  }
+
+  @Override
+  public void writeDouble(final double v) {
+    this.buffer.writeDouble(v);
+  }
+
+  @Override
+  public void writeFloat(final float v) {
+    this.buffer.writeFloat(v);
+  }
+
+  @Override
+  public void writeInt(final int v) {
+    this.buffer.writeInt(v);
+  }
+
+  @Override
+  public void writeLong(final long v) {
+    this.buffer.writeLong(v);
+  }
+
+  @Override
+  public void writeShort(final int v) {
+    this.buffer.writeShort(v);
+  }
+
+  @Override
+  public void writeUTF(@NotNull final String s) throws UTFDataFormatException {
+    final int length = ModifiedUtf8.length(s);
+    if (length > 65535) {
+      throw new UTFDataFormatException(String.format("Encoded string too long: %s bytes", length));
+    }
+    this.buffer.writeShort(length);
+    this.buffer.ensureWritable(length);
+    if (!this.buffer.hasArray()) {
+      final byte[] bytes = this.scratch(length);
+      ModifiedUtf8.encode(s, bytes, 0);
+      this.buffer.writeBytes(bytes, 0, length);
+      return;
+    }
+    final int index = this.buffer.writerIndex();
+    ModifiedUtf8.encode(s, this.buffer.array(), this.buffer.arrayOffset() + index);
+    this.buffer.writerIndex(index + length);
+  }
+}
@@ -0,0 +1,232 @@
+package io.github.shiruka.nbt.stream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * an implementation for {@link DataInput} that reads directly from a {@link ByteBuf}.
+ * <p>
+ * unlike {@link io.netty.buffer.ByteBufInputStream}, the input can be moved to another buffer with
+ * {@link #reset(ByteBuf)}, so a single instance reads many buffers, such as the packets of a
+ * connection, without creating a new input for each of them. closing the input drops its buffer,
+ * so a long-living input does not keep the last buffer reachable.
+ */
+public abstract class ByteBufDataInput extends InputStream implements DataInput, FormatAware {
+
+  /**
+   * the empty scratch buffer.
+   */
+  private static final byte@NotNull[] EMPTY = new byte[0];
+
+  /**
+   * the buffer.
+   */
+  @NotNull
+  protected ByteBuf buffer;
+
+  /**
+   * the scratch buffer to copy the strings of the buffers which do not have an accessible array.
+   */
+  private byte@NotNull[] scratch = ByteBufDataInput.EMPTY;
+
+  /**
+   * ctor.
+   *
+   * @param buffer the buffer.
+   */
+  protected ByteBufDataInput(@NotNull final ByteBuf buffer) {
+    this.buffer = buffer;
+  }
+
+  /**
+   * creates an input that reads the given format from the given buffer.
+   *
+   * @param format the format to read.
+   * @param buffer the buffer to read.
+   *
+   * @return a new input instance.
+   */
+  @NotNull
+  public static ByteBufDataInput of(
+    @NotNull final NBTFormat format,
+    @NotNull final ByteBuf buffer
+  ) {
+    switch (format) {
+      case LITTLE_ENDIAN:
+        return new LittleEndianByteBufInputStream(buffer);
+      case NETWORK:
+        return new NetworkByteBufInputStream(buffer);
+      default:
+        return new BigEndianByteBufInputStream(buffer);
+    }
+  }
+
+  /**
+   * creates an input that reads the given format and has no buffer to read until it is reset.
+   *
+   * @param format the format to read.
+   *
+   * @return a new input instance.
+   */
+  @NotNull
+  public static ByteBufDataInput of(@NotNull final NBTFormat format) {
+    return ByteBufDataInput.of(format, Unpooled.EMPTY_BUFFER);
+  }
+
+  @Override
+  public final int available() {
+    return this.buffer.readableBytes();
+  }
+
+  /**
+   * obtains the buffer.
+   *
+   * @return buffer.
+   */
+  @NotNull
+  public final ByteBuf buffer() {
+    return this.buffer;
+  }
+
+  /**
+   * drops the buffer, so the input reads nothing until it is reset.
+   * <p>
+   * the buffer is not released.
+   */
+  @Override
+  public final void close() {
+    this.buffer = Unpooled.EMPTY_BUFFER;
+  }
+
+  @Override
+  public final int read() {
+    return this.buffer.isReadable() ? this.buffer.readUnsignedByte() : -1;
+  }
+
+  @Override
+  public final int read(final byte@NotNull[] b, final int off, final int len) {
+    if (len == 0) {
+      return 0;
+    }
+    final int count = Math.min(len, this.buffer.readableBytes());
+    if (count == 0) {
+      return -1;
+    }
+    this.buffer.readBytes(b, off, count);
+    return count;
+  }
+
+  @Override
+  public final boolean readBoolean() throws IOException {
+    return this.readByte() != 0;
+  }
+
+  @Override
+  public final byte readByte() throws IOException {
+    this.require(Byte.BYTES);
+    return this.buffer.readByte();
+  }
+
+  @Override
+  public final void readFully(final byte@NotNull[] b) throws IOException {
+    this.readFully(b, 0, b.length);
+  }
+
+  @Override
+  public final void readFully(final byte@NotNull[] b, final int off, final int len)
+    throws IOException {
+    this.require(len);
+    this.buffer.readBytes(b, off, len);
+  }
+
+  @Nullable
+  @Override
+  public final String readLine() {
+    if (!this.buffer.isReadable()) {
+      return null;
+    }
+    final StringBuilder line = new StringBuilder();
+    while (this.buffer.isReadable()) {
+      final int c = this.buffer.readUnsignedByte();
+      if (c == '\n') {
+        break;
+      }
+      if (c == '\r') {
+        if (this.buffer.isReadable() && this.buffer.getByte(this.buffer.readerIndex()) == '\n') {
+          this.buffer.skipBytes(1);
+        }
+        break;
+      }
+      line.append((char) c);
+    }
+    return line.toString();
+  }
+
+  @Override
+  public final int readUnsignedByte() throws IOException {
+    return Byte.toUnsignedInt(this.readByte());
+  }
+
+  /**
+   * moves the input to the given buffer, so the next reads start at its reader index.
+   * <p>
+   * the input keeps the buffer until the next reset or close, it does not retain or release it.
+   *
+   * @param buffer the buffer to read.
+   */
+  public final void reset(@NotNull final ByteBuf buffer) {
+    this.buffer = buffer;
+  }
+
+  @Override
+  public final long skip(final long n) {
+    return this.skipBytes((int) Math.min(n, Integer.MAX_VALUE));
+  }
+
+  @Override
+  public final int skipBytes(final int n) {
+    final int skipped = Math.max(0, Math.min(n, this.buffer.readableBytes()));
+    this.buffer.skipBytes(skipped);
+    return skipped;
+  }
+
+  /**
+   * checks if the buffer has the given count of readable bytes.
+   *
+   * @param length the length to check.
+   *
+   * @throws EOFException if the buffer does not have enough bytes.
+   */
+  protected final void require(final int length) throws EOFException {
+    if (length < 0 || !this.buffer.isReadable(length)) {
+      throw new EOFException();
+    }
+  }
+
+  /**
+   * obtains the scratch buffer which has at least the given length.
+   * <p>
+   * the buffer grows up to {@link Utf8#MAX_SCRATCH_SIZE} and is kept by the input, longer
+   * lengths use a temporary array.
+   *
+   * @param length the length to obtain.
+   *
+   * @return scratch buffer.
+   */
+  protected final byte@NotNull[] scratch(final int length) {
+    byte[] bytes = this.scratch;
+    if (bytes.length < length) {
+      bytes = new byte[Math.max(length, Utf8.SCRATCH_SIZE)];
+      if (length <= Utf8.MAX_SCRATCH_SIZE) {
+        this.scratch = bytes;
+      }
+    }
+    return bytes;
+  }
+}
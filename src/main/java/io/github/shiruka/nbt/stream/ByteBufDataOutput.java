@@ -0,0 +1,166 @@
+package io.github.shiruka.nbt.stream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * an implementation for {@link DataOutput} that writes directly into a {@link ByteBuf}.
+ * <p>
+ * unlike {@link io.netty.buffer.ByteBufOutputStream}, the output can be moved to another buffer
+ * with {@link #reset(ByteBuf)}, so a single instance writes many buffers, such as the packets of a
+ * connection, without creating a new output for each of them. closing the output drops its
+ * buffer, so a long-living output does not keep the last buffer reachable.
+ */
+public abstract class ByteBufDataOutput extends OutputStream implements DataOutput, FormatAware {
+
+  /**
+   * the empty scratch buffer.
+   */
+  private static final byte@NotNull[] EMPTY = new byte[0];
+
+  /**
+   * the buffer.
+   */
+  @NotNull
+  protected ByteBuf buffer;
+
+  /**
+   * the scratch buffer to encode the strings for the buffers which do not have an accessible
+   * array.
+   */
+  private byte@NotNull[] scratch = ByteBufDataOutput.EMPTY;
+
+  /**
+   * ctor.
+   *
+   * @param buffer the buffer.
+   */
+  protected ByteBufDataOutput(@NotNull final ByteBuf buffer) {
+    this.buffer = buffer;
+  }
+
+  /**
+   * creates an output that writes the given format into the given buffer.
+   *
+   * @param format the format to write.
+   * @param buffer the buffer to write.
+   *
+   * @return a new output instance.
+   */
+  @NotNull
+  public static ByteBufDataOutput of(
+    @NotNull final NBTFormat format,
+    @NotNull final ByteBuf buffer
+  ) {
+    switch (format) {
+      case LITTLE_ENDIAN:
+        return new LittleEndianByteBufOutputStream(buffer);
+      case NETWORK:
+        return new NetworkByteBufOutputStream(buffer);
+      default:
+        return new BigEndianByteBufOutputStream(buffer);
+    }
+  }
+
+  /**
+   * creates an output that writes the given format and has no buffer to write until it is reset.
+   *
+   * @param format the format to write.
+   *
+   * @return a new output instance.
+   */
+  @NotNull
+  public static ByteBufDataOutput of(@NotNull final NBTFormat format) {
+    return ByteBufDataOutput.of(format, Unpooled.EMPTY_BUFFER);
+  }
+
+  /**
+   * obtains the buffer.
+   *
+   * @return buffer.
+   */
+  @NotNull
+  public final ByteBuf buffer() {
+    return this.buffer;
+  }
+
+  /**
+   * drops the buffer, so the output writes nothing until it is reset.
+   * <p>
+   * the buffer is not released.
+   */
+  @Override
+  public final void close() {
+    this.buffer = Unpooled.EMPTY_BUFFER;
+  }
+
+  /**
+   * moves the output to the given buffer, so the next writes start at its writer index.
+   * <p>
+   * the output keeps the buffer until the next reset or close, it does not retain or release it.
+   *
+   * @param buffer the buffer to write.
+   */
+  public final void reset(@NotNull final ByteBuf buffer) {
+    this.buffer = buffer;
+  }
+
+  @Override
+  public final void write(final int b) {
+    this.buffer.writeByte(b);
+  }
+
+  @Override
+  public final void write(final byte@NotNull[] b, final int off, final int len) {
+    this.buffer.writeBytes(b, off, len);
+  }
+
+  @Override
+  public final void writeBoolean(final boolean v) {
+    this.buffer.writeBoolean(v);
+  }
+
+  @Override
+  public final void writeByte(final int v) {
+    this.buffer.writeByte(v);
+  }
+
+  @Override
+  public final void writeBytes(@NotNull final String s) {
+    for (int i = 0, length = s.length(); i < length; i++) {
+      this.buffer.writeByte(s.charAt(i));
+    }
+  }
+
+  @Override
+  public final void writeChars(@NotNull final String s) throws IOException {
+    for (int i = 0, length = s.length(); i < length; i++) {
+      this.writeChar(s.charAt(i));
+    }
+  }
+
+  /**
+   * obtains the scratch buffer which has at least the given length.
+   * <p>
+   * the buffer grows up to {@link Utf8#MAX_SCRATCH_SIZE} and is kept by the output, longer
+   * lengths use a temporary array.
+   *
+   * @param length the length to obtain.
+   *
+   * @return scratch buffer.
+   */
+  protected final byte@NotNull[] scratch(final int length) {
+    byte[] bytes = this.scratch;
+    if (bytes.length < length) {
+      bytes = new byte[Math.max(length, Utf8.SCRATCH_SIZE)];
+      if (length <= Utf8.MAX_SCRATCH_SIZE) {
+        this.scratch = bytes;
+      }
+    }
+    return bytes;
+  }
+}
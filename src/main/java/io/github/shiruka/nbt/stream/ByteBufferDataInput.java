@@ -0,0 +1,215 @@
+package io.github.shiruka.nbt.stream;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * an implementation for {@link DataInput} that reads directly from a {@link ByteBuffer}, such as a
+ * {@link java.nio.MappedByteBuffer} from {@link java.nio.channels.FileChannel#map}.
+ * <p>
+ * the buffer's {@link ByteBuffer#order()} determines the format, {@link ByteOrder#BIG_ENDIAN} reads
+ * {@link NBTFormat#BIG_ENDIAN} and {@link ByteOrder#LITTLE_ENDIAN} reads
+ * {@link NBTFormat#LITTLE_ENDIAN}.
+ */
+public final class ByteBufferDataInput implements DataInput, FormatAware {
+
+  /**
+   * the buffer.
+   */
+  @NotNull
+  private final ByteBuffer buffer;
+
+  /**
+   * if the buffer is little-endian.
+   */
+  private final boolean littleEndian;
+
+  /**
+   * ctor.
+   *
+   * @param buffer the buffer.
+   */
+  public ByteBufferDataInput(@NotNull final ByteBuffer buffer) {
+    this.buffer = buffer;
+    this.littleEndian = buffer.order() == ByteOrder.LITTLE_ENDIAN;
+  }
+
+  /**
+   * obtains the buffer.
+   *
+   * @return buffer.
+   */
+  @NotNull
+  public ByteBuffer buffer() {
+    return this.buffer;
+  }
+
+  @NotNull
+  @Override
+  public NBTFormat format() {
+    return this.littleEndian ? NBTFormat.LITTLE_ENDIAN : NBTFormat.BIG_ENDIAN;
+  }
+
+  @Override
+  public void readFully(final byte@NotNull[] b) throws IOException {
+    this.readFully(b, 0, b.length);
+  }
+
+  @Override
+  public void readFully(final byte@NotNull[] b, final int off, final int len) throws IOException {
+    this.require(len);
+    this.buffer.get(b, off, len);
+  }
+
+  @Override
+  public int skipBytes(final int n) {
+    final int skipped = Math.max(0, Math.min(n, this.buffer.remaining()));
+    this.buffer.position(this.buffer.position() + skipped);
+    return skipped;
+  }
+
+  @Override
+  public boolean readBoolean() throws IOException {
+    return this.readByte() != 0;
+  }
+
+  @Override
+  public byte readByte() throws IOException {
+    this.require(Byte.BYTES);
+    return this.buffer.get();
+  }
+
+  @Override
+  public int readUnsignedByte() throws IOException {
+    return Byte.toUnsignedInt(this.readByte());
+  }
+
+  @Override
+  public short readShort() throws IOException {
+    this.require(Short.BYTES);
+    return this.buffer.getShort();
+  }
+
+  @Override
+  public int readUnsignedShort() throws IOException {
+    return Short.toUnsignedInt(this.readShort());
+  }
+
+  @Override
+  public char readChar() throws IOException {
+    this.require(Character.BYTES);
+    return this.buffer.getChar();
+  }
+
+  @Override
+  public int readInt() throws IOException {
+    this.require(Integer.BYTES);
+    return this.buffer.getInt();
+  }
+
+  @Override
+  public long readLong() throws IOException {
+    this.require(Long.BYTES);
+    return this.buffer.getLong();
+  }
+
+  @Override
+  public float readFloat() throws IOException {
+    this.require(Float.BYTES);
+    return this.buffer.getFloat();
+  }
+
+  @Override
+  public double readDouble() throws IOException {
+    this.require(Double.BYTES);
+    return this.buffer.getDouble();
+  }
+
+  @Nullable
+  @Override
+  public String readLine() {
+    if (!this.buffer.hasRemaining()) {
+      return null;
+    }
+    final StringBuilder line = new StringBuilder();
+    while (this.buffer.hasRemaining()) {
+      final int c = this.buffer.get() & 0xFF;
+      if (c == '\n') {
+        break;
+      }
+      if (c == '\r') {
+        if (this.buffer.hasRemaining() && this.buffer.get(this.buffer.position()) == '\n') {
+          this.buffer.get();
+        }
+        break;
+      }
+      line.append((char) c);
+    }
+    return line.toString();
+  }
+
+  @NotNull
+  @Override
+  public String readUTF() throws IOException {
+    if (!this.littleEndian) {
+      return DataInputStream.readUTF(this);
+    }
+    final int length = this.readUnsignedShort();
+    this.require(length);
+    if (this.buffer.hasArray()) {
+      final int offset = this.buffer.arrayOffset() + this.buffer.position();
+      this.buffer.position(this.buffer.position() + length);
+      return Utf8.decode(this.buffer.array(), offset, length);
+    }
+    final byte[] bytes = new byte[length];
+    this.buffer.get(bytes);
+    return Utf8.decode(bytes, 0, length);
+  }
+
+  /**
+   * reads the given array's length of ints at once.
+   *
+   * @param values the values to read.
+   *
+   * @throws IOException if the buffer does not have enough bytes.
+   */
+  public void readInts(final int@NotNull[] values) throws IOException {
+    final int length = values.length * Integer.BYTES;
+    this.require(length);
+    this.buffer.asIntBuffer().get(values);
+    this.buffer.position(this.buffer.position() + length);
+  }
+
+  /**
+   * reads the given array's length of longs at once.
+   *
+   * @param values the values to read.
+   *
+   * @throws IOException if the buffer does not have enough bytes.
+   */
+  public void readLongs(final long@NotNull[] values) throws IOException {
+    final int length = values.length * Long.BYTES;
+    this.require(length);
+    this.buffer.asLongBuffer().get(values);
+    this.buffer.position(this.buffer.position() + length);
+  }
+
+  /**
+   * checks if the buffer has the given count of bytes.
+   *
+   * @param length the length to check.
+   *
+   * @throws EOFException if the buffer does not have enough bytes.
+   */
+  private void require(final int length) throws EOFException {
+    if (length < 0 || this.buffer.remaining() < length) {
+      throw new EOFException();
+    }
+  }
+}
@@ -0,0 +1,241 @@
+package io.github.shiruka.nbt.stream;
+
+import io.github.shiruka.nbt.VarInts;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * an implementation for {@link DataInput} that copies every byte it reads from the wrapped input
+ * into an output stream as it is, so the bytes of a tag which is skipped can be kept without
+ * decoding them.
+ * <p>
+ * the values are assembled from the raw bytes in the given {@link NBTFormat}. an instance is kept
+ * by its {@link NBTInputStream} and reset for each skipped tag, so skipping many tags does not
+ * create a new input or scratch buffer for each of them.
+ */
+final class CapturingDataInput implements DataInput, FormatAware {
+
+  /**
+   * the empty scratch buffer.
+   */
+  private static final byte@NotNull[] EMPTY = new byte[0];
+
+  /**
+   * the format.
+   */
+  @NotNull
+  private final NBTFormat format;
+
+  /**
+   * the input.
+   */
+  @NotNull
+  private DataInput input;
+
+  /**
+   * the output to copy the bytes.
+   */
+  @NotNull
+  private OutputStream output;
+
+  /**
+   * the scratch buffer to read the values, which grows with the lengths of the values up to
+   * {@link Utf8#MAX_SCRATCH_SIZE}.
+   */
+  private byte@NotNull[] scratch = CapturingDataInput.EMPTY;
+
+  /**
+   * ctor.
+   *
+   * @param input the input.
+   * @param format the format.
+   * @param output the output.
+   */
+  CapturingDataInput(
+    @NotNull final DataInput input,
+    @NotNull final NBTFormat format,
+    @NotNull final OutputStream output
+  ) {
+    this.input = input;
+    this.format = format;
+    this.output = output;
+  }
+
+  @NotNull
+  @Override
+  public NBTFormat format() {
+    return this.format;
+  }
+
+  @Override
+  public void readFully(final byte@NotNull[] b) throws IOException {
+    this.readFully(b, 0, b.length);
+  }
+
+  @Override
+  public void readFully(final byte@NotNull[] b, final int off, final int len) throws IOException {
+    this.input.readFully(b, off, len);
+    this.output.write(b, off, len);
+  }
+
+  @Override
+  public int skipBytes(final int n) throws IOException {
+    for (int remaining = n, count; remaining > 0; remaining -= count) {
+      count = Math.min(remaining, Utf8.MAX_SCRATCH_SIZE);
+      this.readFully(this.scratch(count), 0, count);
+    }
+    return Math.max(n, 0);
+  }
+
+  @Override
+  public boolean readBoolean() throws IOException {
+    return this.readByte() != 0;
+  }
+
+  @Override
+  public byte readByte() throws IOException {
+    final byte value = this.input.readByte();
+    this.output.write(value);
+    return value;
+  }
+
+  @Override
+  public int readUnsignedByte() throws IOException {
+    return Byte.toUnsignedInt(this.readByte());
+  }
+
+  @Override
+  public short readShort() throws IOException {
+    return (short) this.readFixed(Short.BYTES);
+  }
+
+  @Override
+  public int readUnsignedShort() throws IOException {
+    return Short.toUnsignedInt(this.readShort());
+  }
+
+  @Override
+  public char readChar() throws IOException {
+    return (char) this.readShort();
+  }
+
+  @Override
+  public int readInt() throws IOException {
+    if (this.format == NBTFormat.NETWORK) {
+      return VarInts.readInt(this);
+    }
+    return (int) this.readFixed(Integer.BYTES);
+  }
+
+  @Override
+  public long readLong() throws IOException {
+    if (this.format == NBTFormat.NETWORK) {
+      return VarInts.readLong(this);
+    }
+    return this.readFixed(Long.BYTES);
+  }
+
+  @Override
+  public float readFloat() throws IOException {
+    return Float.intBitsToFloat((int) this.readFixed(Integer.BYTES));
+  }
+
+  @Override
+  public double readDouble() throws IOException {
+    return Double.longBitsToDouble(this.readFixed(Long.BYTES));
+  }
+
+  @Nullable
+  @Override
+  public String readLine() throws IOException {
+    final StringBuilder builder = new StringBuilder();
+    while (true) {
+      final int c;
+      try {
+        c = this.readUnsignedByte();
+      } catch (final EOFException e) {
+        return builder.length() == 0 ? null : builder.toString();
+      }
+      if (c == '\n') {
+        final int last = builder.length() - 1;
+        if (last >= 0 && builder.charAt(last) == '\r') {
+          builder.setLength(last);
+        }
+        return builder.toString();
+      }
+      builder.append((char) c);
+    }
+  }
+
+  @NotNull
+  @Override
+  public String readUTF() throws IOException {
+    if (this.format == NBTFormat.BIG_ENDIAN) {
+      return DataInputStream.readUTF(this);
+    }
+    final int length = this.format == NBTFormat.NETWORK
+      ? VarInts.readUnsignedInt(this)
+      : this.readUnsignedShort();
+    final byte[] bytes = length <= Utf8.MAX_SCRATCH_SIZE
+      ? this.scratch(length)
+      : new byte[length];
+    this.readFully(bytes, 0, length);
+    return Utf8.decode(bytes, 0, length);
+  }
+
+  /**
+   * moves the input to the given input and output, keeping the scratch buffer.
+   *
+   * @param input the input to read.
+   * @param output the output to copy the bytes.
+   */
+  void reset(@NotNull final DataInput input, @NotNull final OutputStream output) {
+    this.input = input;
+    this.output = output;
+  }
+
+  /**
+   * reads a fixed-width value of the given size in the byte order of the format.
+   *
+   * @param size the size to read.
+   *
+   * @return value.
+   *
+   * @throws IOException if something went wrong when reading the input.
+   */
+  private long readFixed(final int size) throws IOException {
+    final byte[] bytes = this.scratch(size);
+    this.readFully(bytes, 0, size);
+    long value = 0;
+    if (this.format == NBTFormat.BIG_ENDIAN) {
+      for (int i = 0; i < size; i++) {
+        value = value << 8 | bytes[i] & 0xFF;
+      }
+    } else {
+      for (int i = size - 1; i >= 0; i--) {
+        value = value << 8 | bytes[i] & 0xFF;
+      }
+    }
+    return value;
+  }
+
+  /**
+   * obtains the scratch buffer which has at least the given length.
+   *
+   * @param length the length to obtain, which is not greater than {@link Utf8#MAX_SCRATCH_SIZE}.
+   *
+   * @return scratch buffer.
+   */
+  private byte@NotNull[] scratch(final int length) {
+    if (this.scratch.length < length) {
+      final int doubled = Math.min(this.scratch.length << 1, Utf8.MAX_SCRATCH_SIZE);
+      this.scratch = new byte[Math.max(length, doubled)];
+    }
+    return this.scratch;
+  }
+}
@@ -0,0 +1,19 @@
+package io.github.shiruka.nbt.stream;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * an interface to determine the {@link NBTFormat} of the data inputs and outputs in this package.
+ * <p>
+ * the implementations encode ints and longs as fixed-width values in their format's byte order,
+ * except {@link NBTFormat#NETWORK}.
+ */
+interface FormatAware {
+  /**
+   * obtains the format.
+   *
+   * @return format.
+   */
+  @NotNull
+  NBTFormat format();
+}
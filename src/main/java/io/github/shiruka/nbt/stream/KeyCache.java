@@ -0,0 +1,177 @@
+package io.github.shiruka.nbt.stream;
+
+import io.github.shiruka.nbt.VarInts;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a cache that keeps the compound keys encoded with their length prefixes in each
+ * {@link NBTFormat}, so the writers copy the bytes of a key at once instead of encoding it again.
+ * <p>
+ * only the keys up to {@value #MAX_LENGTH} chars are cached. the cache has a fixed capacity and
+ * replaces an entry when a key does not find an empty slot in a few probes.
+ * <p>
+ * the entries are immutable, so a cache can be shared by the writers in different threads, such as
+ * {@link #global()}, at the cost of occasional misses while they insert new keys.
+ */
+public final class KeyCache {
+
+  /**
+   * the max length of the cached keys.
+   */
+  public static final int MAX_LENGTH = 64;
+
+  /**
+   * the global cache.
+   */
+  private static final KeyCache GLOBAL = new KeyCache(4096);
+
+  /**
+   * the max count of the slots to look up for a key.
+   */
+  private static final int MAX_PROBES = 4;
+
+  /**
+   * the entries.
+   */
+  @Nullable
+  private final Entry@NotNull[] entries;
+
+  /**
+   * the mask to obtain the index of a hash.
+   */
+  private final int mask;
+
+  /**
+   * ctor.
+   *
+   * @param capacity the capacity, rounded up to a power of two.
+   */
+  public KeyCache(final int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException(String.format("Capacity %s must be positive", capacity));
+    }
+    final int size = Math.max(16, Integer.highestOneBit(Math.min(capacity, 1 << 30) - 1) << 1);
+    this.entries = new Entry[size];
+    this.mask = size - 1;
+  }
+
+  /**
+   * obtains the global cache that is shared by all the writers which use it.
+   *
+   * @return global cache.
+   */
+  @NotNull
+  public static KeyCache global() {
+    return KeyCache.GLOBAL;
+  }
+
+  /**
+   * encodes the given key with its length prefix in the given format.
+   *
+   * @param key the key to encode.
+   * @param format the format to encode.
+   *
+   * @return encoded key.
+   */
+  private static byte@NotNull[] encode(@NotNull final String key, @NotNull final NBTFormat format) {
+    final byte[] bytes;
+    switch (format) {
+      case BIG_ENDIAN:
+        final int modified = ModifiedUtf8.length(key);
+        bytes = new byte[Short.BYTES + modified];
+        bytes[0] = (byte) (modified >>> 8);
+        bytes[1] = (byte) modified;
+        ModifiedUtf8.encode(key, bytes, Short.BYTES);
+        return bytes;
+      case LITTLE_ENDIAN:
+        final int length = Utf8.length(key);
+        bytes = new byte[Short.BYTES + length];
+        bytes[0] = (byte) length;
+        bytes[1] = (byte) (length >>> 8);
+        Utf8.encode(key, bytes, Short.BYTES);
+        return bytes;
+      default:
+        final int size = Utf8.length(key);
+        bytes = new byte[VarInts.varIntSize(size) + size];
+        Utf8.encode(key, bytes, VarInts.writeUnsignedInt(bytes, 0, size));
+        return bytes;
+    }
+  }
+
+  /**
+   * obtains the encoded bytes of the given key with its length prefix in the given format.
+   * <p>
+   * the returned array is shared, so it must not be changed.
+   *
+   * @param key the key to obtain.
+   * @param format the format to obtain.
+   *
+   * @return encoded key, or {@code null} if the key is longer than {@value #MAX_LENGTH} chars.
+   */
+  byte@Nullable[] get(@NotNull final String key, @NotNull final NBTFormat format) {
+    if (key.length() > KeyCache.MAX_LENGTH) {
+      return null;
+    }
+    final int hash = key.hashCode() * 31 + format.ordinal();
+    final Entry[] entries = this.entries;
+    final int home = (hash ^ hash >>> 16) & this.mask;
+    int free = home;
+    for (int probe = 0; probe < KeyCache.MAX_PROBES; probe++) {
+      final int slot = home + probe & this.mask;
+      final Entry entry = entries[slot];
+      if (entry == null) {
+        free = slot;
+        break;
+      }
+      if (entry.hash == hash && entry.format == format && entry.key.equals(key)) {
+        return entry.bytes;
+      }
+    }
+    final Entry entry = new Entry(key, format, hash);
+    entries[free] = entry;
+    return entry.bytes;
+  }
+
+  /**
+   * a class that represents cached keys.
+   */
+  private static final class Entry {
+
+    /**
+     * the encoded key.
+     */
+    private final byte@NotNull[] bytes;
+
+    /**
+     * the format.
+     */
+    @NotNull
+    private final NBTFormat format;
+
+    /**
+     * the hash.
+     */
+    private final int hash;
+
+    /**
+     * the key.
+     */
+    @NotNull
+    private final String key;
+
+    /**
+     * ctor.
+     *
+     * @param key the key.
+     * @param format the format.
+     * @param hash the hash.
+     */
+    private Entry(@NotNull final String key, @NotNull final NBTFormat format, final int hash) {
+      this.bytes = KeyCache.encode(key, format);
+      this.format = format;
+      this.hash = hash;
+      this.key = key;
+    }
+  }
+}
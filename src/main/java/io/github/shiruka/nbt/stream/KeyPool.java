@@ -0,0 +1,172 @@
+package io.github.shiruka.nbt.stream;
+
+import java.nio.charset.StandardCharsets;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a pool that shares the strings of the compound keys by looking up their encoded bytes, so the
+ * keys which are already in the pool are neither decoded nor allocated again.
+ * <p>
+ * only the ascii keys up to {@value #MAX_LENGTH} bytes are pooled since they decode to the same
+ * string in all {@link NBTFormat}s. the pool has a fixed capacity and replaces an entry when a key
+ * does not find an empty slot in a few probes.
+ * <p>
+ * the entries are immutable, so a pool can be shared by the decoders in different threads, such as
+ * {@link #global()}, at the cost of occasional misses while they insert new keys.
+ */
+public final class KeyPool {
+
+  /**
+   * the max length of the pooled keys.
+   */
+  public static final int MAX_LENGTH = 64;
+
+  /**
+   * the global pool.
+   */
+  private static final KeyPool GLOBAL = new KeyPool(4096);
+
+  /**
+   * the max count of the slots to look up for a key.
+   */
+  private static final int MAX_PROBES = 4;
+
+  /**
+   * the entries.
+   */
+  @Nullable
+  private final Entry@NotNull[] entries;
+
+  /**
+   * the mask to obtain the index of a hash.
+   */
+  private final int mask;
+
+  /**
+   * ctor.
+   *
+   * @param capacity the capacity, rounded up to a power of two.
+   */
+  public KeyPool(final int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException(String.format("Capacity %s must be positive", capacity));
+    }
+    final int size = Math.max(16, Integer.highestOneBit(Math.min(capacity, 1 << 30) - 1) << 1);
+    this.entries = new Entry[size];
+    this.mask = size - 1;
+  }
+
+  /**
+   * obtains the global pool that is shared by all the decoders which use it.
+   *
+   * @return global pool.
+   */
+  @NotNull
+  public static KeyPool global() {
+    return KeyPool.GLOBAL;
+  }
+
+  /**
+   * obtains the shared string of the given encoded key.
+   *
+   * @param bytes the bytes to obtain.
+   * @param offset the offset of the key.
+   * @param length the length of the key.
+   *
+   * @return shared string of the key, or {@code null} if the key is not ascii or longer than
+   *   {@value #MAX_LENGTH} bytes.
+   */
+  @Nullable
+  public String intern(final byte@NotNull[] bytes, final int offset, final int length) {
+    if (length > KeyPool.MAX_LENGTH) {
+      return null;
+    }
+    int hash = 0;
+    int bits = 0;
+    for (int i = offset, end = offset + length; i < end; i++) {
+      final byte b = bytes[i];
+      hash = 31 * hash + b;
+      bits |= b;
+    }
+    if (bits < 0) {
+      return null;
+    }
+    final Entry[] entries = this.entries;
+    final int home = (hash ^ hash >>> 16) & this.mask;
+    int free = home;
+    for (int probe = 0; probe < KeyPool.MAX_PROBES; probe++) {
+      final int slot = home + probe & this.mask;
+      final Entry entry = entries[slot];
+      if (entry == null) {
+        free = slot;
+        break;
+      }
+      if (entry.hash == hash && entry.matches(bytes, offset, length)) {
+        return entry.value;
+      }
+    }
+    final Entry entry = new Entry(bytes, offset, length, hash);
+    entries[free] = entry;
+    return entry.value;
+  }
+
+  /**
+   * a class that represents pooled keys.
+   */
+  private static final class Entry {
+
+    /**
+     * the bytes.
+     */
+    private final byte@NotNull[] bytes;
+
+    /**
+     * the hash.
+     */
+    private final int hash;
+
+    /**
+     * the value.
+     */
+    @NotNull
+    private final String value;
+
+    /**
+     * ctor.
+     *
+     * @param bytes the bytes.
+     * @param offset the offset.
+     * @param length the length.
+     * @param hash the hash.
+     */
+    private Entry(final byte@NotNull[] bytes, final int offset, final int length, final int hash) {
+      this.bytes = new byte[length];
+      System.arraycopy(bytes, offset, this.bytes, 0, length);
+      this.hash = hash;
+      this.value = new String(this.bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * checks if the given bytes are the same with the entry's bytes.
+     *
+     * @param bytes the bytes to check.
+     * @param offset the offset to check.
+     * @param length the length to check.
+     *
+     * @return {@code true} if the bytes match.
+     */
+    private boolean matches(final byte@NotNull[] bytes, final int offset, final int length) {
+      final byte[] own = this.bytes;
+      if (own.length != length) {
+        return false;
+      }
+      for (int i = 0; i < length; i++) {
+        if (own[i] != bytes[offset + i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
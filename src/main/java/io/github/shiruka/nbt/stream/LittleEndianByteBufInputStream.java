@@ -1,19 +1,14 @@
 package io.github.shiruka.nbt.stream;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.ByteBufInputStream;
+import java.io.EOFException;
+import java.io.IOException;
 import org.jetbrains.annotations.NotNull;
 
 /**
- * an implementation for {@link ByteBufInputStream}.
+ * an implementation for {@link ByteBufDataInput} that reads the little-endian format.
  */
-public final class LittleEndianByteBufInputStream extends ByteBufInputStream {
-
-  /**
-   * the buffer.
-   */
-  @NotNull
-  private final ByteBuf buffer;
+public class LittleEndianByteBufInputStream extends ByteBufDataInput {
 
   /**
    * ctor.
@@ -22,21 +17,26 @@ public final class LittleEndianByteBufInputStream extends ByteBufInputStream {
    */
   public LittleEndianByteBufInputStream(@NotNull final ByteBuf buffer) {
     super(buffer);
-    this.buffer = buffer;
+  }
+
+  @NotNull
+  @Override
+  public NBTFormat format() {
+    return NBTFormat.LITTLE_ENDIAN;
   }
 
   @Override
-  public char readChar() {
+  public final char readChar() {
     return Character.reverseBytes(this.buffer.readChar());
   }
 
   @Override
-  public double readDouble() {
+  public final double readDouble() {
     return this.buffer.readDoubleLE();
   }
 
   @Override
-  public float readFloat() {
+  public final float readFloat() {
     return this.buffer.readFloatLE();
   }
 
@@ -51,12 +51,46 @@ public final class LittleEndianByteBufInputStream extends ByteBufInputStream {
   }
 
   @Override
-  public short readShort() {
+  public final short readShort() {
     return this.buffer.readShortLE();
   }
 
   @Override
-  public int readUnsignedShort() {
+  public final int readUnsignedShort() {
     return this.buffer.readUnsignedShortLE();
   }
+
+  @NotNull
+  @Override
+  public String readUTF() throws IOException {
+    return this.readUTF(this.readUnsignedShort());
+  }
+
+  /**
+   * reads a utf-8 string of the given length directly from the buffer, or from the
+   * {@link #scratch(int)} buffer if the buffer does not have an accessible array.
+   *
+   * @param length the length to read.
+   *
+   * @return string.
+   *
+   * @throws IOException if the buffer does not have enough bytes.
+   */
+  @NotNull
+  protected final String readUTF(final int length) throws IOException {
+    if (length < 0 || !this.buffer.isReadable(length)) {
+      throw new EOFException();
+    }
+    final int index = this.buffer.readerIndex();
+    final String value;
+    if (this.buffer.hasArray()) {
+      value = Utf8.decode(this.buffer.array(), this.buffer.arrayOffset() + index, length);
+    } else {
+      final byte[] bytes = this.scratch(length);
+      this.buffer.getBytes(index, bytes, 0, length);
+      value = Utf8.decode(bytes, 0, length);
+    }
+    this.buffer.skipBytes(length);
+    return value;
+  }
 }
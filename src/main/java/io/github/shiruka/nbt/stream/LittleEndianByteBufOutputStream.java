@@ -1,21 +1,13 @@
 package io.github.shiruka.nbt.stream;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.ByteBufOutputStream;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.UTFDataFormatException;
 import org.jetbrains.annotations.NotNull;
 
 /**
- * an implementation for {@link ByteBufOutputStream}.
+ * an implementation for {@link ByteBufDataOutput} that writes the little-endian format.
  */
-public final class LittleEndianByteBufOutputStream extends ByteBufOutputStream {
-
-  /**
-   * the buffer.
-   */
-  @NotNull
-  private final ByteBuf buffer;
+public class LittleEndianByteBufOutputStream extends ByteBufDataOutput {
 
   /**
    * ctor.
@@ -24,21 +16,26 @@ public final class LittleEndianByteBufOutputStream extends ByteBufOutputStream {
    */
   public LittleEndianByteBufOutputStream(@NotNull final ByteBuf buffer) {
     super(buffer);
-    this.buffer = buffer;
   }
 
+  @NotNull
   @Override
-  public void writeChar(final int v) {
+  public NBTFormat format() {
+    return NBTFormat.LITTLE_ENDIAN;
+  }
+
+  @Override
+  public final void writeChar(final int v) {
     this.buffer.writeChar(Character.reverseBytes((char) v));
   }
 
   @Override
-  public void writeDouble(final double v) {
+  public final void writeDouble(final double v) {
     this.buffer.writeDoubleLE(v);
   }
 
   @Override
-  public void writeFloat(final float v) {
+  public final void writeFloat(final float v) {
     this.buffer.writeFloatLE(v);
   }
 
@@ -53,14 +50,35 @@ public final class LittleEndianByteBufOutputStream extends ByteBufOutputStream {
   }
 
   @Override
-  public void writeShort(final int v) {
+  public final void writeShort(final int v) {
     this.buffer.writeShortLE(v);
   }
 
   @Override
-  public void writeUTF(@NotNull final String s) throws IOException {
-    final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
-    this.writeShort(bytes.length);
-    this.write(bytes);
+  public void writeUTF(@NotNull final String s) throws UTFDataFormatException {
+    final int length = Utf8.length(s);
+    Utf8.checkLength(length);
+    this.buffer.writeShortLE(length);
+    this.writeUTF(s, length);
+  }
+
+  /**
+   * encodes the given string directly into the buffer without its length, or into the
+   * {@link #scratch(int)} buffer if the buffer does not have an accessible array.
+   *
+   * @param s the string to write.
+   * @param length the encoded length of the string.
+   */
+  protected final void writeUTF(@NotNull final String s, final int length) {
+    this.buffer.ensureWritable(length);
+    if (!this.buffer.hasArray()) {
+      final byte[] bytes = this.scratch(length);
+      Utf8.encode(s, bytes, 0);
+      this.buffer.writeBytes(bytes, 0, length);
+      return;
+    }
+    final int index = this.buffer.writerIndex();
+    Utf8.encode(s, this.buffer.array(), this.buffer.arrayOffset() + index);
+    this.buffer.writerIndex(index + length);
   }
 }
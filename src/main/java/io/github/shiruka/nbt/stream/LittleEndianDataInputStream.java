@@ -5,13 +5,12 @@ import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import org.jetbrains.annotations.NotNull;
 
 /**
  * an implementation for {@link DataInput}.
  */
-public class LittleEndianDataInputStream implements DataInput, Closeable {
+public class LittleEndianDataInputStream implements DataInput, Closeable, FormatAware {
 
   /**
    * the stream.
@@ -19,6 +18,11 @@ public class LittleEndianDataInputStream implements DataInput, Closeable {
   @NotNull
   protected final DataInputStream stream;
 
+  /**
+   * the scratch buffer to read strings.
+   */
+  private byte@NotNull[] scratch = new byte[Utf8.SCRATCH_SIZE];
+
   /**
    * ctor.
    *
@@ -42,6 +46,12 @@ public class LittleEndianDataInputStream implements DataInput, Closeable {
     this.stream.close();
   }
 
+  @NotNull
+  @Override
+  public NBTFormat format() {
+    return NBTFormat.LITTLE_ENDIAN;
+  }
+
   @Override
   public final void readFully(final byte@NotNull[] b) throws IOException {
     this.stream.readFully(b);
@@ -117,8 +127,28 @@ public class LittleEndianDataInputStream implements DataInput, Closeable {
   @NotNull
   @Override
   public String readUTF() throws IOException {
-    final byte[] bytes = new byte[this.readUnsignedShort()];
-    this.readFully(bytes);
-    return new String(bytes, StandardCharsets.UTF_8);
+    return this.readUTF(this.readUnsignedShort());
+  }
+
+  /**
+   * reads a utf-8 string of the given length into the scratch buffer and decodes it.
+   *
+   * @param length the length to read.
+   *
+   * @return string.
+   *
+   * @throws IOException if something went wrong when reading the stream.
+   */
+  @NotNull
+  protected final String readUTF(final int length) throws IOException {
+    byte[] bytes = this.scratch;
+    if (bytes.length < length) {
+      bytes = new byte[length];
+      if (length <= Utf8.MAX_SCRATCH_SIZE) {
+        this.scratch = bytes;
+      }
+    }
+    this.readFully(bytes, 0, length);
+    return Utf8.decode(bytes, 0, length);
   }
 }
@@ -5,13 +5,12 @@ import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
 import org.jetbrains.annotations.NotNull;
 
 /**
  * an implementation for {@link DataOutput}.
  */
-public class LittleEndianDataOutputStream implements DataOutput, Closeable {
+public class LittleEndianDataOutputStream implements DataOutput, Closeable, FormatAware {
 
   /**
    * the stream.
@@ -19,6 +18,11 @@ public class LittleEndianDataOutputStream implements DataOutput, Closeable {
   @NotNull
   protected final DataOutputStream stream;
 
+  /**
+   * the scratch buffer to write strings.
+   */
+  private byte@NotNull[] scratch = new byte[Utf8.SCRATCH_SIZE];
+
   /**
    * ctor.
    *
@@ -42,6 +46,12 @@ public class LittleEndianDataOutputStream implements DataOutput, Closeable {
     this.stream.close();
   }
 
+  @NotNull
+  @Override
+  public NBTFormat format() {
+    return NBTFormat.LITTLE_ENDIAN;
+  }
+
   @Override
   public final void write(final int b) throws IOException {
     this.stream.write(b);
@@ -109,8 +119,29 @@ public class LittleEndianDataOutputStream implements DataOutput, Closeable {
 
   @Override
   public void writeUTF(@NotNull final String s) throws IOException {
-    final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
-    this.writeShort(bytes.length);
-    this.write(bytes);
+    final int length = Utf8.length(s);
+    Utf8.checkLength(length);
+    this.writeShort(length);
+    this.writeUTF(s, length);
+  }
+
+  /**
+   * encodes the given string into the scratch buffer and writes it without its length.
+   *
+   * @param s the string to write.
+   * @param length the encoded length of the string.
+   *
+   * @throws IOException if something went wrong when writing the stream.
+   */
+  protected final void writeUTF(@NotNull final String s, final int length) throws IOException {
+    byte[] bytes = this.scratch;
+    if (bytes.length < length) {
+      bytes = new byte[length];
+      if (length <= Utf8.MAX_SCRATCH_SIZE) {
+        this.scratch = bytes;
+      }
+    }
+    Utf8.encode(s, bytes, 0);
+    this.write(bytes, 0, length);
   }
 }
@@ -0,0 +1,104 @@
+package io.github.shiruka.nbt.stream;
+
+import java.io.UTFDataFormatException;
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that contains utility methods for modified utf-8 which is used by the big-endian format.
+ */
+@UtilityClass
+class ModifiedUtf8 {
+
+  /**
+   * decodes the given range of modified utf-8 bytes which are written by
+   * {@link java.io.DataOutput#writeUTF(String)}.
+   *
+   * @param data the data to decode.
+   * @param offset the offset to decode.
+   * @param length the length to decode.
+   *
+   * @return decoded string.
+   *
+   * @throws UTFDataFormatException if the bytes are malformed.
+   */
+  @NotNull
+  String decode(final byte@NotNull[] data, final int offset, final int length)
+    throws UTFDataFormatException {
+    final char[] chars = new char[length];
+    final int end = offset + length;
+    int index = offset;
+    int count = 0;
+    while (index < end && data[index] >= 0) {
+      chars[count++] = (char) data[index++];
+    }
+    while (index < end) {
+      final int a = data[index++] & 0xFF;
+      if (a < 0x80) {
+        chars[count++] = (char) a;
+      } else if ((a & 0xE0) == 0xC0 && index < end) {
+        final int b = data[index++];
+        if ((b & 0xC0) != 0x80) {
+          throw new UTFDataFormatException("Malformed input around byte " + index);
+        }
+        chars[count++] = (char) ((a & 0x1F) << 6 | b & 0x3F);
+      } else if ((a & 0xF0) == 0xE0 && index + 1 < end) {
+        final int b = data[index++];
+        final int c = data[index++];
+        if ((b & 0xC0) != 0x80 || (c & 0xC0) != 0x80) {
+          throw new UTFDataFormatException("Malformed input around byte " + index);
+        }
+        chars[count++] = (char) ((a & 0x0F) << 12 | (b & 0x3F) << 6 | c & 0x3F);
+      } else {
+        throw new UTFDataFormatException("Malformed input around byte " + index);
+      }
+    }
+    return new String(chars, 0, count);
+  }
+
+  /**
+   * encodes the given string into the given array which has at least {@link #length(String)} bytes
+   * from the offset.
+   *
+   * @param value the value to encode.
+   * @param bytes the bytes to encode into.
+   * @param offset the offset to encode into.
+   */
+  void encode(@NotNull final String value, final byte@NotNull[] bytes, final int offset) {
+    int index = offset;
+    for (int i = 0, size = value.length(); i < size; i++) {
+      final char c = value.charAt(i);
+      if (c >= 0x800) {
+        bytes[index++] = (byte) (0xE0 | c >> 12);
+        bytes[index++] = (byte) (0x80 | c >> 6 & 0x3F);
+        bytes[index++] = (byte) (0x80 | c & 0x3F);
+      } else if (c >= 0x80 || c == 0) {
+        bytes[index++] = (byte) (0xC0 | c >> 6);
+        bytes[index++] = (byte) (0x80 | c & 0x3F);
+      } else {
+        bytes[index++] = (byte) c;
+      }
+    }
+  }
+
+  /**
+   * calculates the encoded length of the given string.
+   *
+   * @param value the value to calculate.
+   *
+   * @return encoded length, without the length prefix.
+   */
+  int length(@NotNull final String value) {
+    final int length = value.length();
+    int result = length;
+    for (int i = 0; i < length; i++) {
+      final char c = value.charAt(i);
+      if (c >= 0x800) {
+        result += 2;
+      } else if (c >= 0x80 || c == 0) {
+        result++;
+      }
+    }
+    return result;
+  }
+}
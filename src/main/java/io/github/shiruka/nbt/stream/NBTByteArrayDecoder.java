@@ -0,0 +1,624 @@
+package io.github.shiruka.nbt.stream;
+
+import io.github.shiruka.nbt.CompoundTag;
+import io.github.shiruka.nbt.ListTag;
+import io.github.shiruka.nbt.Tag;
+import io.github.shiruka.nbt.TagTypes;
+import io.github.shiruka.nbt.array.ByteArrayTag;
+import io.github.shiruka.nbt.array.IntArrayTag;
+import io.github.shiruka.nbt.array.LongArrayTag;
+import io.netty.buffer.ByteBuf;
+import java.io.EOFException;
+import java.io.IOException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a decoder to read named binary tags directly from a byte array.
+ * <p>
+ * reads the primitives by assembling the bytes at its own cursor, so it avoids the
+ * {@link java.io.DataInput} and {@link java.io.InputStream} layers of {@link NBTInputStream} when
+ * the whole payload is already in memory.
+ */
+public final class NBTByteArrayDecoder {
+
+  /**
+   * the empty data.
+   */
+  private static final byte@NotNull[] EMPTY = new byte[0];
+
+  /**
+   * the decoders of the current thread by the ordinals of their formats, see
+   * {@link #local(NBTFormat)}.
+   */
+  private static final ThreadLocal<NBTByteArrayDecoder[]> LOCAL = ThreadLocal.withInitial(() ->
+    new NBTByteArrayDecoder[NBTFormat.values().length]
+  );
+
+  /**
+   * the data.
+   */
+  private byte@NotNull[] data;
+
+  /**
+   * the format.
+   */
+  @NotNull
+  private final NBTFormat format;
+
+  /**
+   * the pool to share the compound keys.
+   */
+  @Nullable
+  private final KeyPool keys;
+
+  /**
+   * the frames of the compound and list tags which are being read, see {@link #readTree(byte)}.
+   */
+  @NotNull
+  private final TagFrames frames = new TagFrames();
+
+  /**
+   * the end of the data to read.
+   */
+  private int limit;
+
+  /**
+   * if the format is little-endian.
+   */
+  private final boolean littleEndian;
+
+  /**
+   * if the format uses var ints.
+   */
+  private final boolean network;
+
+  /**
+   * the position of the next byte to read.
+   */
+  private int position;
+
+  /**
+   * the array to copy the buffers which do not have an accessible array, see
+   * {@link #reset(ByteBuf)}.
+   */
+  private byte@NotNull[] scratch = NBTByteArrayDecoder.EMPTY;
+
+  /**
+   * the source of the {@link #frames}, which reads the data.
+   */
+  @NotNull
+  private final TagFrames.Source source = new TagFrames.Source() {
+    @NotNull
+    @Override
+    public Tag read(final byte id) throws IOException {
+      return NBTByteArrayDecoder.this.read(id);
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+      return NBTByteArrayDecoder.this.readByte();
+    }
+
+    @Override
+    public byte readId() {
+      final NBTByteArrayDecoder decoder = NBTByteArrayDecoder.this;
+      return decoder.position < decoder.limit
+        ? decoder.data[decoder.position++]
+        : TagTypes.END.getId();
+    }
+
+    @Override
+    public int readInt() throws IOException {
+      return NBTByteArrayDecoder.this.readInt();
+    }
+
+    @NotNull
+    @Override
+    public String readKey() throws IOException {
+      return NBTByteArrayDecoder.this.readKey();
+    }
+  };
+
+  /**
+   * ctor.
+   *
+   * @param data the data.
+   * @param format the format.
+   */
+  public NBTByteArrayDecoder(final byte@NotNull[] data, @NotNull final NBTFormat format) {
+    this(data, 0, data.length, format);
+  }
+
+  /**
+   * ctor.
+   *
+   * @param data the data.
+   * @param offset the offset to start reading.
+   * @param length the length to read.
+   * @param format the format.
+   */
+  public NBTByteArrayDecoder(
+    final byte@NotNull[] data,
+    final int offset,
+    final int length,
+    @NotNull final NBTFormat format
+  ) {
+    this(data, offset, length, format, null);
+  }
+
+  /**
+   * ctor.
+   *
+   * @param data the data.
+   * @param offset the offset to start reading.
+   * @param length the length to read.
+   * @param format the format.
+   * @param keys the pool to share the compound keys.
+   */
+  public NBTByteArrayDecoder(
+    final byte@NotNull[] data,
+    final int offset,
+    final int length,
+    @NotNull final NBTFormat format,
+    @Nullable final KeyPool keys
+  ) {
+    this.format = format;
+    this.keys = keys;
+    this.littleEndian = format != NBTFormat.BIG_ENDIAN;
+    this.network = format == NBTFormat.NETWORK;
+    this.reset(data, offset, length);
+  }
+
+  /**
+   * obtains the decoder of the current thread which reads the given format.
+   * <p>
+   * the decoder has no data to read until it is reset, and it keeps its scratch array between the
+   * resets, so reading a buffer does not create any object except the tags. the decoder should be
+   * cleared with {@link #clear()} after reading each buffer, so it does not keep the buffer's array
+   * reachable. the decoder must not be passed to another thread.
+   *
+   * @param format the format to obtain.
+   *
+   * @return the decoder of the current thread.
+   */
+  @NotNull
+  public static NBTByteArrayDecoder local(@NotNull final NBTFormat format) {
+    final NBTByteArrayDecoder[] decoders = NBTByteArrayDecoder.LOCAL.get();
+    NBTByteArrayDecoder decoder = decoders[format.ordinal()];
+    if (decoder == null) {
+      decoder = new NBTByteArrayDecoder(NBTByteArrayDecoder.EMPTY, format);
+      decoders[format.ordinal()] = decoder;
+    }
+    return decoder;
+  }
+
+  /**
+   * drops the data, so the decoder reads nothing until it is reset.
+   * <p>
+   * the scratch array of the decoder is kept.
+   */
+  public void clear() {
+    this.reset(NBTByteArrayDecoder.EMPTY, 0, 0);
+  }
+
+  /**
+   * obtains the format.
+   *
+   * @return format.
+   */
+  @NotNull
+  public NBTFormat format() {
+    return this.format;
+  }
+
+  /**
+   * obtains the position of the next byte to read.
+   *
+   * @return position.
+   */
+  public int position() {
+    return this.position;
+  }
+
+  /**
+   * reads the data using the id.
+   *
+   * @param id the id to read.
+   *
+   * @return a new tag instance depends on the given id.
+   *
+   * @throws IOException if the data ends before the tag.
+   */
+  @NotNull
+  public Tag read(final byte id) throws IOException {
+    switch (id) {
+      case 1:
+        return Tag.createByte(this.readByte());
+      case 2:
+        return Tag.createShort(this.readShort());
+      case 3:
+        return Tag.createInt(this.readInt());
+      case 4:
+        return Tag.createLong(this.readLong());
+      case 5:
+        return Tag.createFloat(Float.intBitsToFloat(this.readFixedInt()));
+      case 6:
+        return Tag.createDouble(Double.longBitsToDouble(this.readFixedLong()));
+      case 7:
+        return ByteArrayTag.adopt(this.readBytes());
+      case 8:
+        return Tag.createString(this.readString());
+      case 9:
+        return this.readListTag();
+      case 10:
+        return this.readCompoundTag();
+      case 11:
+        return IntArrayTag.adopt(this.readInts());
+      case 12:
+        return LongArrayTag.adopt(this.readLongs());
+      default:
+        throw new IllegalArgumentException("Unknown type " + id);
+    }
+  }
+
+  /**
+   * reads the data as a compound tag's entries until an end tag or the end of the data.
+   *
+   * @return an instance of {@link CompoundTag}.
+   *
+   * @throws IOException if the data ends before an entry.
+   */
+  @NotNull
+  public CompoundTag readCompoundTag() throws IOException {
+    return this.readTree(TagTypes.COMPOUND.getId()).asCompound();
+  }
+
+  /**
+   * reads the data as a list tag.
+   *
+   * @return an instance of {@link ListTag}.
+   *
+   * @throws IOException if the data ends before the list.
+   */
+  @NotNull
+  public ListTag readListTag() throws IOException {
+    return this.readTree(TagTypes.LIST.getId()).asList();
+  }
+
+  /**
+   * obtains the count of the bytes which are not read yet.
+   *
+   * @return remaining bytes.
+   */
+  public int remaining() {
+    return this.limit - this.position;
+  }
+
+  /**
+   * moves the decoder to the readable bytes of the given buffer.
+   * <p>
+   * the bytes are read from the buffer's array if it has one, otherwise they are copied into the
+   * scratch array of the decoder. the reader index of the buffer is not moved, the bytes which are
+   * read can be skipped with {@code buffer.skipBytes(buffer.readableBytes() - remaining())}.
+   *
+   * @param buffer the buffer to read.
+   */
+  public void reset(@NotNull final ByteBuf buffer) {
+    final int length = buffer.readableBytes();
+    if (buffer.hasArray()) {
+      this.reset(buffer.array(), buffer.arrayOffset() + buffer.readerIndex(), length);
+      return;
+    }
+    if (this.scratch.length < length) {
+      this.scratch = new byte[Math.max(length, this.scratch.length << 1)];
+    }
+    buffer.getBytes(buffer.readerIndex(), this.scratch, 0, length);
+    this.reset(this.scratch, 0, length);
+  }
+
+  /**
+   * moves the decoder to the given range of the given data.
+   *
+   * @param data the data to read.
+   * @param offset the offset to start reading.
+   * @param length the length to read.
+   */
+  public void reset(final byte@NotNull[] data, final int offset, final int length) {
+    if (offset < 0 || length < 0 || offset > data.length - length) {
+      throw new IndexOutOfBoundsException(
+        String.format("Offset %s and length %s out of bounds for %s", offset, length, data.length)
+      );
+    }
+    this.data = data;
+    this.position = offset;
+    this.limit = offset + length;
+  }
+
+  /**
+   * checks if the data has the given count of bytes.
+   *
+   * @param length the length to check.
+   *
+   * @throws EOFException if the data does not have enough bytes.
+   */
+  private void ensure(final long length) throws EOFException {
+    if (length < 0 || this.limit - this.position < length) {
+      throw new EOFException();
+    }
+  }
+
+  /**
+   * reads a byte.
+   *
+   * @return byte.
+   *
+   * @throws EOFException if the data ends.
+   */
+  private byte readByte() throws EOFException {
+    this.ensure(1);
+    return this.data[this.position++];
+  }
+
+  /**
+   * reads a length-prefixed byte array.
+   *
+   * @return byte array.
+   *
+   * @throws EOFException if the data ends.
+   */
+  private byte@NotNull[] readBytes() throws EOFException {
+    final int length = this.readInt();
+    this.ensure(length);
+    final byte[] value = new byte[length];
+    System.arraycopy(this.data, this.position, value, 0, length);
+    this.position += length;
+    return value;
+  }
+
+  /**
+   * reads a fixed-width int.
+   *
+   * @return int.
+   *
+   * @throws EOFException if the data ends.
+   */
+  private int readFixedInt() throws EOFException {
+    this.ensure(Integer.BYTES);
+    final byte[] data = this.data;
+    final int p = this.position;
+    this.position = p + Integer.BYTES;
+    if (this.littleEndian) {
+      return (
+        data[p] & 0xFF | (data[p + 1] & 0xFF) << 8 | (data[p + 2] & 0xFF) << 16 | data[p + 3] << 24
+      );
+    }
+    return (
+      data[p] << 24 | (data[p + 1] & 0xFF) << 16 | (data[p + 2] & 0xFF) << 8 | data[p + 3] & 0xFF
+    );
+  }
+
+  /**
+   * reads a fixed-width long.
+   *
+   * @return long.
+   *
+   * @throws EOFException if the data ends.
+   */
+  private long readFixedLong() throws EOFException {
+    final long first = this.readFixedInt() & 0xFFFFFFFFL;
+    final long second = this.readFixedInt() & 0xFFFFFFFFL;
+    return this.littleEndian ? second << 32 | first : first << 32 | second;
+  }
+
+  /**
+   * reads an int which is a var int in the network format.
+   *
+   * @return int.
+   *
+   * @throws EOFException if the data ends.
+   */
+  private int readInt() throws EOFException {
+    if (!this.network) {
+      return this.readFixedInt();
+    }
+    final int n = (int) this.readVarLong();
+    return n >>> 1 ^ -(n & 1);
+  }
+
+  /**
+   * reads a length-prefixed int array.
+   * <p>
+   * every element takes at least a byte, so the data must have the length of bytes even for the var
+   * ints before the array is allocated.
+   *
+   * @return int array.
+   *
+   * @throws EOFException if the length is negative or the data ends.
+   */
+  private int@NotNull[] readInts() throws EOFException {
+    final int length = this.readInt();
+    this.ensure(this.network ? length : (long) length * Integer.BYTES);
+    final int[] value = new int[length];
+    for (int i = 0; i < length; i++) {
+      value[i] = this.readInt();
+    }
+    return value;
+  }
+
+  /**
+   * reads a compound key, using the {@link #keys} pool if there is one.
+   *
+   * @return key.
+   *
+   * @throws IOException if the data ends or the key is malformed.
+   */
+  @NotNull
+  private String readKey() throws IOException {
+    final int length = this.readStringLength();
+    final int start = this.position;
+    this.position += length;
+    if (this.keys != null) {
+      final String key = this.keys.intern(this.data, start, length);
+      if (key != null) {
+        return key;
+      }
+    }
+    return this.decodeString(start, length);
+  }
+
+  /**
+   * reads a long which is a var long in the network format.
+   *
+   * @return long.
+   *
+   * @throws EOFException if the data ends.
+   */
+  private long readLong() throws EOFException {
+    if (!this.network) {
+      return this.readFixedLong();
+    }
+    final long n = this.readVarLong();
+    return n >>> 1 ^ -(n & 1);
+  }
+
+  /**
+   * reads a length-prefixed long array.
+   *
+   * @return long array.
+   *
+   * @throws EOFException if the length is negative or the data ends.
+   */
+  private long@NotNull[] readLongs() throws EOFException {
+    final int length = this.readInt();
+    this.ensure(this.network ? length : (long) length * Long.BYTES);
+    final long[] value = new long[length];
+    for (int i = 0; i < length; i++) {
+      value[i] = this.readLong();
+    }
+    return value;
+  }
+
+  /**
+   * reads a short.
+   *
+   * @return short.
+   *
+   * @throws EOFException if the data ends.
+   */
+  private short readShort() throws EOFException {
+    this.ensure(Short.BYTES);
+    final byte[] data = this.data;
+    final int p = this.position;
+    this.position = p + Short.BYTES;
+    if (this.littleEndian) {
+      return (short) (data[p] & 0xFF | data[p + 1] << 8);
+    }
+    return (short) (data[p] << 8 | data[p + 1] & 0xFF);
+  }
+
+  /**
+   * reads a length-prefixed string.
+   * <p>
+   * the big-endian format uses modified utf-8, the others use utf-8.
+   *
+   * @return string.
+   *
+   * @throws IOException if the data ends or the string is malformed.
+   */
+  @NotNull
+  private String readString() throws IOException {
+    final int length = this.readStringLength();
+    final int start = this.position;
+    this.position += length;
+    return this.decodeString(start, length);
+  }
+
+  /**
+   * reads the length of a string and checks if the data has the string.
+   *
+   * @return length of the string.
+   *
+   * @throws EOFException if the data ends.
+   */
+  private int readStringLength() throws EOFException {
+    final int length = this.network
+      ? (int) this.readVarLong()
+      : Short.toUnsignedInt(this.readShort());
+    this.ensure(length);
+    return length;
+  }
+
+  /**
+   * decodes the string in the given range of the data.
+   *
+   * @param start the start of the string.
+   * @param length the length of the string.
+   *
+   * @return string.
+   *
+   * @throws IOException if the string is malformed.
+   */
+  @NotNull
+  private String decodeString(final int start, final int length) throws IOException {
+    if (this.littleEndian) {
+      return Utf8.decode(this.data, start, length);
+    }
+    return ModifiedUtf8.decode(this.data, start, length);
+  }
+
+  /**
+   * reads the compound or list tag of the given id without recursion.
+   * <p>
+   * the containers which are being read are kept in {@link #frames} instead of the call stack, so
+   * deeply nested tags do not overflow the stack and the frames are reused by the next reads.
+   *
+   * @param id the id of the container to read.
+   *
+   * @return container tag.
+   *
+   * @throws IOException if the data ends before the container.
+   */
+  @NotNull
+  private Tag readTree(final byte id) throws IOException {
+    return this.frames.read(id, this.source, false);
+  }
+
+  /**
+   * reads an unsigned var long.
+   * <p>
+   * one and two byte var longs are read without a loop.
+   *
+   * @return var long.
+   *
+   * @throws EOFException if the data ends.
+   */
+  private long readVarLong() throws EOFException {
+    final byte[] data = this.data;
+    final int position = this.position;
+    if (position + 1 < this.limit) {
+      final byte first = data[position];
+      if (first >= 0) {
+        this.position = position + 1;
+        return first;
+      }
+      final byte second = data[position + 1];
+      if (second >= 0) {
+        this.position = position + 2;
+        return first & 0x7F | second << 7;
+      }
+    }
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      if (this.position >= this.limit) {
+        throw new EOFException();
+      }
+      final byte b = data[this.position++];
+      result |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return result;
+      }
+    }
+    throw new ArithmeticException("VarInt was too large");
+  }
+}
@@ -0,0 +1,161 @@
+package io.github.shiruka.nbt.stream;
+
+import io.github.shiruka.nbt.Tag;
+import io.github.shiruka.nbt.TagTypes;
+import io.github.shiruka.nbt.VarInts;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.TooLongFrameException;
+import java.io.IOException;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * an implementation for {@link ByteToMessageDecoder} that decodes {@link Tag}s.
+ * <p>
+ * the tags are read by {@link NBTIncrementalDecoder}, so the bytes which arrive are parsed once and
+ * are not kept in the cumulation buffer until the whole tag arrives. if the decoder is framed, each
+ * tag is prefixed with its length as an unsigned var int, which {@link NBTEncoder} writes, and the
+ * frames which are longer than the max frame length are rejected with a
+ * {@link TooLongFrameException} before their bytes arrive. a frame which cannot be decoded resets
+ * the decoder, so the next frame is decoded from scratch.
+ * <p>
+ * the unframed tags have no size bound, the decoder keeps reading a tag as long as its bytes
+ * arrive, so the unframed mode should only be used with trusted peers.
+ */
+public final class NBTDecoder extends ByteToMessageDecoder {
+
+  /**
+   * the default max length of the frames.
+   */
+  public static final int DEFAULT_MAX_FRAME_LENGTH = 2 * 1024 * 1024;
+
+  /**
+   * the decoder.
+   */
+  @NotNull
+  private final NBTIncrementalDecoder decoder;
+
+  /**
+   * if the tags are prefixed with their lengths.
+   */
+  private final boolean framed;
+
+  /**
+   * the max length of the frames.
+   */
+  private final int maxFrameLength;
+
+  /**
+   * ctor.
+   *
+   * @param format the format.
+   */
+  public NBTDecoder(@NotNull final NBTFormat format) {
+    this(format, false);
+  }
+
+  /**
+   * ctor.
+   *
+   * @param format the format.
+   * @param framed if the tags are prefixed with their lengths.
+   */
+  public NBTDecoder(@NotNull final NBTFormat format, final boolean framed) {
+    this(format, TagTypes.COMPOUND, framed);
+  }
+
+  /**
+   * ctor.
+   *
+   * @param format the format.
+   * @param root the type of the root tags.
+   * @param framed if the tags are prefixed with their lengths.
+   */
+  public NBTDecoder(
+    @NotNull final NBTFormat format,
+    @NotNull final TagTypes root,
+    final boolean framed
+  ) {
+    this(format, root, framed, NBTDecoder.DEFAULT_MAX_FRAME_LENGTH);
+  }
+
+  /**
+   * ctor.
+   *
+   * @param format the format.
+   * @param root the type of the root tags.
+   * @param framed if the tags are prefixed with their lengths.
+   * @param maxFrameLength the max length of the frames, if the tags are prefixed with their
+   *   lengths.
+   */
+  public NBTDecoder(
+    @NotNull final NBTFormat format,
+    @NotNull final TagTypes root,
+    final boolean framed,
+    final int maxFrameLength
+  ) {
+    if (maxFrameLength <= 0) {
+      throw new IllegalArgumentException("Max frame length must be positive " + maxFrameLength);
+    }
+    this.decoder = new NBTIncrementalDecoder(format, root);
+    this.framed = framed;
+    this.maxFrameLength = maxFrameLength;
+  }
+
+  @Override
+  protected void decode(
+    final ChannelHandlerContext ctx,
+    final ByteBuf in,
+    final List<Object> out
+  ) throws IOException {
+    if (!this.framed) {
+      while (in.isReadable()) {
+        final Tag tag = this.decoder.decode(in);
+        if (tag == null) {
+          return;
+        }
+        out.add(tag);
+      }
+      return;
+    }
+    while (NBTIncrementalDecoder.isVarIntReadable(in, 5)) {
+      final int start = in.readerIndex();
+      final int length = VarInts.readUnsignedInt(in);
+      if (length < 0) {
+        throw new CorruptedFrameException("Negative frame length " + length);
+      }
+      if (length > this.maxFrameLength) {
+        throw new TooLongFrameException(
+          String.format("Frame of %s bytes exceeds %s bytes", length, this.maxFrameLength)
+        );
+      }
+      if (!in.isReadable(length)) {
+        in.readerIndex(start);
+        return;
+      }
+      final ByteBuf frame = in.readSlice(length);
+      final Tag tag;
+      try {
+        tag = this.decoder.decode(frame);
+      } catch (final IOException | RuntimeException e) {
+        this.decoder.reset();
+        throw e;
+      }
+      if (tag == null || frame.isReadable()) {
+        this.decoder.reset();
+        throw new CorruptedFrameException(
+          String.format("Frame of %s bytes does not contain a single tag", length)
+        );
+      }
+      out.add(tag);
+    }
+  }
+
+  @Override
+  protected void handlerRemoved0(final ChannelHandlerContext ctx) {
+    this.decoder.reset();
+  }
+}
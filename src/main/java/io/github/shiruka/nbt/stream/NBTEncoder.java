@@ -0,0 +1,133 @@
+package io.github.shiruka.nbt.stream;
+
+import io.github.shiruka.nbt.Tag;
+import io.github.shiruka.nbt.VarInts;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToByteEncoder;
+import java.io.IOException;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * an implementation for {@link MessageToByteEncoder} that encodes {@link Tag}s.
+ * <p>
+ * the output buffers are allocated from the channel's allocator with the size of the recent tags,
+ * which grows to a larger tag at once and shrinks slowly, so the buffers are rarely expanded while
+ * writing. if the encoder is framed, each tag is prefixed with its length as an unsigned var int,
+ * which {@link NBTDecoder} reads. the length is calculated by {@link NBTFormat#sizeOf(Tag)}
+ * before writing, so the tag is written into the output buffer directly. the compound keys are
+ * copied from {@link KeyCache#global()}, and a single {@link NBTOutputStream} is reset onto each
+ * output buffer.
+ */
+public final class NBTEncoder extends MessageToByteEncoder<Tag> {
+
+  /**
+   * the min size estimate of the tags.
+   */
+  private static final int MIN_ESTIMATE = 64;
+
+  /**
+   * the format.
+   */
+  @NotNull
+  private final NBTFormat format;
+
+  /**
+   * if the tags are prefixed with their lengths.
+   */
+  private final boolean framed;
+
+  /**
+   * the stream which is reset onto each output buffer.
+   */
+  @NotNull
+  private final NBTOutputStream stream;
+
+  /**
+   * the size estimate of the next tag.
+   */
+  private int estimate = 256;
+
+  /**
+   * ctor.
+   *
+   * @param format the format.
+   */
+  public NBTEncoder(@NotNull final NBTFormat format) {
+    this(format, false);
+  }
+
+  /**
+   * ctor.
+   *
+   * @param format the format.
+   * @param framed if the tags are prefixed with their lengths.
+   */
+  public NBTEncoder(@NotNull final NBTFormat format, final boolean framed) {
+    super(Tag.class);
+    this.format = format;
+    this.framed = framed;
+    this.stream = new NBTOutputStream(ByteBufDataOutput.of(format), KeyCache.global());
+  }
+
+  @Override
+  protected ByteBuf allocateBuffer(
+    final ChannelHandlerContext ctx,
+    final Tag msg,
+    final boolean preferDirect
+  ) {
+    final int capacity = this.framed ? this.estimate + 5 : this.estimate;
+    return preferDirect ? ctx.alloc().ioBuffer(capacity) : ctx.alloc().heapBuffer(capacity);
+  }
+
+  @Override
+  protected void encode(final ChannelHandlerContext ctx, final Tag msg, final ByteBuf out)
+    throws IOException {
+    if (!this.framed) {
+      final int start = out.writerIndex();
+      this.write(msg, out);
+      this.update(out.writerIndex() - start);
+      return;
+    }
+    final int length = this.format.sizeOf(msg);
+    VarInts.writeUnsignedInt(out, length);
+    out.ensureWritable(length);
+    final int start = out.writerIndex();
+    this.write(msg, out);
+    if (out.writerIndex() - start != length) {
+      throw new IllegalStateException(
+        String.format("Expected %s bytes but %s were written", length, out.writerIndex() - start)
+      );
+    }
+    this.update(length);
+  }
+
+  /**
+   * updates the size estimate with the given size of the last tag.
+   *
+   * @param size the size of the last tag.
+   */
+  private void update(final int size) {
+    final int decayed = this.estimate - (this.estimate >>> 3);
+    this.estimate = Math.max(NBTEncoder.MIN_ESTIMATE, Math.max(size, decayed));
+  }
+
+  /**
+   * writes the given tag into the given buffer.
+   * <p>
+   * the stream is closed after writing, so the encoder does not keep the buffer.
+   *
+   * @param tag the tag to write.
+   * @param buffer the buffer to write.
+   *
+   * @throws IOException if something went wrong when writing the tag.
+   */
+  private void write(@NotNull final Tag tag, @NotNull final ByteBuf buffer) throws IOException {
+    this.stream.reset(buffer);
+    try {
+      this.stream.write(tag);
+    } finally {
+      this.stream.close();
+    }
+  }
+}
@@ -0,0 +1,306 @@
+package io.github.shiruka.nbt.stream;
+
+import io.github.shiruka.nbt.CompoundTag;
+import io.github.shiruka.nbt.ListTag;
+import io.github.shiruka.nbt.Tag;
+import io.github.shiruka.nbt.TagTypes;
+import io.github.shiruka.nbt.VarInts;
+import io.github.shiruka.nbt.array.ByteArrayTag;
+import io.github.shiruka.nbt.array.IntArrayTag;
+import io.github.shiruka.nbt.array.LongArrayTag;
+import io.github.shiruka.nbt.compound.LazyCompoundTag;
+import io.github.shiruka.nbt.compound.SealedCompoundTag;
+import io.github.shiruka.nbt.primitive.IntTag;
+import io.github.shiruka.nbt.primitive.LongTag;
+import io.github.shiruka.nbt.primitive.StringTag;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * an enum class that contains binary encodings of named binary tags.
+ */
+@RequiredArgsConstructor
+public enum NBTFormat {
+  /**
+   * the big-endian format which is used by java edition.
+   */
+  BIG_ENDIAN(DataInputStream::new, DataOutputStream::new, ByteOrder.BIG_ENDIAN),
+  /**
+   * the little-endian format which is used by bedrock edition's files.
+   */
+  LITTLE_ENDIAN(
+    LittleEndianDataInputStream::new,
+    LittleEndianDataOutputStream::new,
+    ByteOrder.LITTLE_ENDIAN
+  ),
+  /**
+   * the little-endian format with var ints which is used by bedrock edition's network.
+   */
+  NETWORK(
+    NetworkDataInputStream::new,
+    NetworkDataOutputStream::new,
+    ByteOrder.LITTLE_ENDIAN
+  );
+
+  /**
+   * the input factory.
+   */
+  @NotNull
+  private final Function<InputStream, DataInput> inputFactory;
+
+  /**
+   * the output factory.
+   */
+  @NotNull
+  private final Function<OutputStream, DataOutput> outputFactory;
+
+  /**
+   * the byte order of the fixed-width values.
+   */
+  @NotNull
+  private final ByteOrder order;
+
+  /**
+   * obtains the format of the given input.
+   *
+   * @param input the input to obtain.
+   *
+   * @return format of the input.
+   */
+  @NotNull
+  public static NBTFormat of(@NotNull final DataInput input) {
+    if (input instanceof FormatAware) {
+      return ((FormatAware) input).format();
+    }
+    return NBTFormat.BIG_ENDIAN;
+  }
+
+  /**
+   * obtains the format of the given output.
+   *
+   * @param output the output to obtain.
+   *
+   * @return format of the output.
+   */
+  @NotNull
+  public static NBTFormat of(@NotNull final DataOutput output) {
+    if (output instanceof FormatAware) {
+      return ((FormatAware) output).format();
+    }
+    return NBTFormat.BIG_ENDIAN;
+  }
+
+  /**
+   * creates an input that reads {@code this} format from the given stream.
+   *
+   * @param stream the stream to create.
+   *
+   * @return a new data input instance.
+   */
+  @NotNull
+  public DataInput createInput(@NotNull final InputStream stream) {
+    return this.inputFactory.apply(stream);
+  }
+
+  /**
+   * creates an output that writes {@code this} format into the given stream.
+   *
+   * @param stream the stream to create.
+   *
+   * @return a new data output instance.
+   */
+  @NotNull
+  public DataOutput createOutput(@NotNull final OutputStream stream) {
+    return this.outputFactory.apply(stream);
+  }
+
+  /**
+   * obtains the byte order of the fixed-width values.
+   *
+   * @return byte order.
+   */
+  @NotNull
+  public ByteOrder order() {
+    return this.order;
+  }
+
+  /**
+   * calculates the encoded size of the given string with its length prefix in {@code this} format,
+   * the same as the {@link DataOutput#writeUTF(String)} of the format writes.
+   *
+   * @param value the value to calculate.
+   *
+   * @return encoded size in bytes.
+   */
+  public int sizeOf(@NotNull final String value) {
+    switch (this) {
+      case BIG_ENDIAN:
+        return Short.BYTES + ModifiedUtf8.length(value);
+      case LITTLE_ENDIAN:
+        return Short.BYTES + Utf8.length(value);
+      default:
+        final int length = Utf8.length(value);
+        return VarInts.varIntSize(length) + length;
+    }
+  }
+
+  /**
+   * calculates the exact encoded size of the given tag in {@code this} format without writing it.
+   * <p>
+   * the size is of the tag's payload, which is written by {@link NBTOutputStream#write(Tag)}, so it
+   * does not contain the type and the name of a root tag. the nested tags are walked without
+   * recursion, the same as the {@link NBTOutputStream} writes them.
+   *
+   * @param tag the tag to calculate.
+   *
+   * @return encoded size in bytes.
+   *
+   * @throws ArithmeticException if the size does not fit into an int.
+   */
+  public int sizeOf(@NotNull final Tag tag) {
+    final Deque<Iterator<?>> containers = new ArrayDeque<>();
+    long size = this.payloadSize(tag, containers);
+    while (!containers.isEmpty()) {
+      final Iterator<?> iterator = containers.peek();
+      if (!iterator.hasNext()) {
+        containers.pop();
+        continue;
+      }
+      final Object next = iterator.next();
+      if (!(next instanceof Map.Entry<?, ?>)) {
+        size += this.payloadSize((Tag) next, containers);
+        continue;
+      }
+      final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) next;
+      final Tag value = (Tag) entry.getValue();
+      size++;
+      if (value.getType() != TagTypes.END) {
+        size += this.sizeOf((String) entry.getKey()) + this.payloadSize(value, containers);
+      }
+    }
+    return Math.toIntExact(size);
+  }
+
+  /**
+   * calculates the encoded size of the given int in {@code this} format.
+   *
+   * @param value the value to calculate.
+   *
+   * @return encoded size in bytes.
+   */
+  private int intSize(final int value) {
+    return this == NBTFormat.NETWORK ? VarInts.varIntSize(value << 1 ^ value >> 31) : Integer.BYTES;
+  }
+
+  /**
+   * calculates the encoded size of the given long in {@code this} format.
+   *
+   * @param value the value to calculate.
+   *
+   * @return encoded size in bytes.
+   */
+  private int longSize(final long value) {
+    return this == NBTFormat.NETWORK ? VarInts.varLongSize(value << 1 ^ value >> 63) : Long.BYTES;
+  }
+
+  /**
+   * calculates the encoded size of the given tag's payload.
+   * <p>
+   * the entries of the compound and the list tags are not counted, their iterators are pushed into
+   * the given containers instead.
+   *
+   * @param tag the tag to calculate.
+   * @param containers the containers to push.
+   *
+   * @return encoded size in bytes.
+   */
+  private long payloadSize(@NotNull final Tag tag, @NotNull final Deque<Iterator<?>> containers) {
+    switch (tag.getType()) {
+      case BYTE:
+        return Byte.BYTES;
+      case SHORT:
+        return Short.BYTES;
+      case INT:
+        return this.intSize(((IntTag) tag).intValue());
+      case LONG:
+        return this.longSize(((LongTag) tag).longValue());
+      case FLOAT:
+        return Float.BYTES;
+      case DOUBLE:
+        return Double.BYTES;
+      case BYTE_ARRAY:
+        final int bytes = ((ByteArrayTag) tag).primitiveValue().length;
+        return (long) this.intSize(bytes) + bytes;
+      case STRING:
+        return this.stringSize((StringTag) tag);
+      case LIST:
+        final ListTag list = (ListTag) tag;
+        containers.push(list.iterator());
+        return Byte.BYTES + this.intSize(list.size());
+      case COMPOUND:
+        if (tag instanceof LazyCompoundTag) {
+          return ((LazyCompoundTag) tag).sizeOf(this);
+        }
+        if (tag instanceof SealedCompoundTag) {
+          return ((SealedCompoundTag) tag).sizeOf(this);
+        }
+        containers.push(((CompoundTag) tag).all().entrySet().iterator());
+        return Byte.BYTES;
+      case INT_ARRAY:
+        final int[] ints = ((IntArrayTag) tag).primitiveValue();
+        long intsSize = this.intSize(ints.length);
+        if (this != NBTFormat.NETWORK) {
+          return intsSize + (long) ints.length * Integer.BYTES;
+        }
+        for (final int value : ints) {
+          intsSize += this.intSize(value);
+        }
+        return intsSize;
+      case LONG_ARRAY:
+        final long[] longs = ((LongArrayTag) tag).primitiveValue();
+        long longsSize = this.intSize(longs.length);
+        if (this != NBTFormat.NETWORK) {
+          return longsSize + (long) longs.length * Long.BYTES;
+        }
+        for (final long value : longs) {
+          longsSize += this.longSize(value);
+        }
+        return longsSize;
+      default:
+        return 0;
+    }
+  }
+
+  /**
+   * calculates the encoded size of the given string tag.
+   * <p>
+   * the utf-8 bytes of the tags which are created by {@link StringTag#adopt(byte[])} are counted as
+   * they are, since {@link NBTOutputStream} writes them without encoding.
+   *
+   * @param tag the tag to calculate.
+   *
+   * @return encoded size in bytes.
+   */
+  private int stringSize(@NotNull final StringTag tag) {
+    final byte[] utf8 = tag.utf8();
+    if (utf8 == null || this == NBTFormat.BIG_ENDIAN) {
+      return this.sizeOf(tag.value());
+    }
+    if (this == NBTFormat.NETWORK) {
+      return VarInts.varIntSize(utf8.length) + utf8.length;
+    }
+    return Short.BYTES + utf8.length;
+  }
+}
@@ -0,0 +1,513 @@
+package io.github.shiruka.nbt.stream;
+
+import io.github.shiruka.nbt.Tag;
+import io.github.shiruka.nbt.TagTypes;
+import io.github.shiruka.nbt.VarInts;
+import io.github.shiruka.nbt.array.ByteArrayTag;
+import io.github.shiruka.nbt.array.IntArrayTag;
+import io.github.shiruka.nbt.array.LongArrayTag;
+import io.netty.buffer.ByteBuf;
+import java.io.IOException;
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a decoder to read named binary tags from the {@link ByteBuf}s which arrive in parts, such as the
+ * tcp segments in a netty pipeline.
+ * <p>
+ * {@link #decode(ByteBuf)} reads as much as the buffer has, keeps its position and the containers
+ * which are being read between the calls, and returns the tag once it is complete. so a large tag
+ * is parsed once, while its bytes arrive, instead of being parsed again from the start each time.
+ * <p>
+ * the arrays are read in parts, the other values are read only when all of their bytes are
+ * readable and otherwise are left in the buffer, so the callers have to keep the unread bytes for
+ * the next call as {@code ByteToMessageDecoder} does.
+ */
+public final class NBTIncrementalDecoder {
+
+  /**
+   * the max initial length of the arrays, so a corrupted length does not allocate a huge array
+   * before its elements arrive.
+   */
+  private static final int MAX_INITIAL_ARRAY_LENGTH = 8192;
+
+  /**
+   * the id that represents no value is being read.
+   */
+  private static final byte NONE = -1;
+
+  /**
+   * the format.
+   */
+  @NotNull
+  private final NBTFormat format;
+
+  /**
+   * if the format is little-endian.
+   */
+  private final boolean littleEndian;
+
+  /**
+   * if the format uses var ints.
+   */
+  private final boolean network;
+
+  /**
+   * the id of the root tag.
+   */
+  private final byte rootId;
+
+  /**
+   * the frames of the compound and list tags which are being read.
+   */
+  @NotNull
+  private final TagFrames frames = new TagFrames();
+
+  /**
+   * the array which is being read.
+   */
+  @Nullable
+  private Object array;
+
+  /**
+   * the count of the elements of {@link #array} which are read.
+   */
+  private int arrayIndex;
+
+  /**
+   * the length of the array which is being read, {@link #array} grows up to it as the elements
+   * arrive.
+   */
+  private int arrayLength;
+
+  /**
+   * the id of the value which is being read, or {@link #NONE}.
+   */
+  private byte id = NBTIncrementalDecoder.NONE;
+
+  /**
+   * the key of the value which is being read, if its container is a compound.
+   */
+  @Nullable
+  private String key;
+
+  /**
+   * if the root tag started.
+   */
+  private boolean started;
+
+  /**
+   * ctor.
+   *
+   * @param format the format.
+   */
+  public NBTIncrementalDecoder(@NotNull final NBTFormat format) {
+    this(format, TagTypes.COMPOUND);
+  }
+
+  /**
+   * ctor.
+   *
+   * @param format the format.
+   * @param root the type of the root tag.
+   */
+  public NBTIncrementalDecoder(@NotNull final NBTFormat format, @NotNull final TagTypes root) {
+    if (root == TagTypes.END) {
+      throw new IllegalArgumentException("Unknown type " + root.getId());
+    }
+    this.format = format;
+    this.littleEndian = format != NBTFormat.BIG_ENDIAN;
+    this.network = format == NBTFormat.NETWORK;
+    this.rootId = root.getId();
+  }
+
+  /**
+   * reads the given buffer as much as it can.
+   *
+   * @param buffer the buffer to read.
+   *
+   * @return the root tag if it is complete, or {@code null} if more input is needed.
+   *
+   * @throws IOException if the input is malformed.
+   */
+  @Nullable
+  public Tag decode(@NotNull final ByteBuf buffer) throws IOException {
+    if (!this.started) {
+      this.started = true;
+      this.id = this.rootId;
+    }
+    while (true) {
+      final boolean root = this.frames.depth() == 0;
+      final boolean compound = !root && this.frames.isCompound();
+      if (this.id == NBTIncrementalDecoder.NONE) {
+        if (root) {
+          throw new IllegalStateException("The decoder has no value to read!");
+        }
+        if (compound) {
+          if (!buffer.isReadable()) {
+            return null;
+          }
+          this.id = buffer.readByte();
+        } else {
+          this.id = this.frames.nextElementId();
+        }
+        if (this.id == TagTypes.END.getId()) {
+          final Tag tag = this.pop();
+          if (tag != null) {
+            return tag;
+          }
+          continue;
+        }
+      }
+      if (compound && this.key == null) {
+        this.key = this.readString(buffer);
+        if (this.key == null) {
+          return null;
+        }
+      }
+      final Tag tag;
+      switch (this.id) {
+        case 1:
+          tag = buffer.isReadable() ? Tag.createByte(buffer.readByte()) : null;
+          break;
+        case 2:
+          tag = buffer.isReadable(Short.BYTES)
+            ? Tag.createShort(this.littleEndian ? buffer.readShortLE() : buffer.readShort())
+            : null;
+          break;
+        case 3:
+          tag = this.isIntReadable(buffer) ? Tag.createInt(this.readInt(buffer)) : null;
+          break;
+        case 4:
+          tag = this.isLongReadable(buffer) ? Tag.createLong(this.readLong(buffer)) : null;
+          break;
+        case 5:
+          tag = buffer.isReadable(Float.BYTES)
+            ? Tag.createFloat(this.littleEndian ? buffer.readFloatLE() : buffer.readFloat())
+            : null;
+          break;
+        case 6:
+          tag = buffer.isReadable(Double.BYTES)
+            ? Tag.createDouble(this.littleEndian ? buffer.readDoubleLE() : buffer.readDouble())
+            : null;
+          break;
+        case 7:
+        case 11:
+        case 12:
+          tag = this.readArray(buffer);
+          break;
+        case 8:
+          final String value = this.readString(buffer);
+          tag = value == null ? null : Tag.createString(value);
+          break;
+        case 9:
+          if (!this.pushList(buffer)) {
+            return null;
+          }
+          continue;
+        case 10:
+          this.push(TagTypes.COMPOUND.getId(), TagTypes.END.getId(), 0);
+          continue;
+        default:
+          throw new IllegalArgumentException("Unknown type " + this.id);
+      }
+      if (tag == null) {
+        return null;
+      }
+      this.id = NBTIncrementalDecoder.NONE;
+      if (root) {
+        this.reset();
+        return tag;
+      }
+      this.frames.add(this.key, tag);
+      this.key = null;
+    }
+  }
+
+  /**
+   * obtains the format.
+   *
+   * @return format.
+   */
+  @NotNull
+  public NBTFormat format() {
+    return this.format;
+  }
+
+  /**
+   * checks if the decoder has read a part of a tag.
+   *
+   * @return {@code true} if a tag is being decoded.
+   */
+  public boolean isDecoding() {
+    return this.started;
+  }
+
+  /**
+   * discards the tag which is being decoded, so the next {@link #decode(ByteBuf)} starts a new tag.
+   */
+  public void reset() {
+    this.frames.clear(0);
+    this.array = null;
+    this.arrayIndex = 0;
+    this.arrayLength = 0;
+    this.id = NBTIncrementalDecoder.NONE;
+    this.key = null;
+    this.started = false;
+  }
+
+  /**
+   * checks if the buffer has a complete var int at its reader index.
+   *
+   * @param buffer the buffer to check.
+   * @param maxBytes the max bytes of the var int.
+   *
+   * @return {@code true} if the var int is readable.
+   */
+  static boolean isVarIntReadable(@NotNull final ByteBuf buffer, final int maxBytes) {
+    final int start = buffer.readerIndex();
+    final int end = start + Math.min(buffer.readableBytes(), maxBytes);
+    for (int index = start; index < end; index++) {
+      if ((buffer.getByte(index) & 0x80) == 0) {
+        return true;
+      }
+    }
+    if (end - start == maxBytes) {
+      throw new ArithmeticException("VarInt was too large");
+    }
+    return false;
+  }
+
+  /**
+   * calculates the new length of the array which is being read.
+   *
+   * @param current the current length of the array.
+   * @param required the length which is required.
+   *
+   * @return new length, doubled if possible but not more than {@link #arrayLength}.
+   */
+  private int grow(final int current, final int required) {
+    return (int) Math.min(this.arrayLength, Math.max(required, (long) current << 1));
+  }
+
+  /**
+   * checks if the buffer has a complete int.
+   *
+   * @param buffer the buffer to check.
+   *
+   * @return {@code true} if the int is readable.
+   */
+  private boolean isIntReadable(@NotNull final ByteBuf buffer) {
+    return this.network
+      ? NBTIncrementalDecoder.isVarIntReadable(buffer, 5)
+      : buffer.isReadable(Integer.BYTES);
+  }
+
+  /**
+   * checks if the buffer has a complete long.
+   *
+   * @param buffer the buffer to check.
+   *
+   * @return {@code true} if the long is readable.
+   */
+  private boolean isLongReadable(@NotNull final ByteBuf buffer) {
+    return this.network
+      ? NBTIncrementalDecoder.isVarIntReadable(buffer, 10)
+      : buffer.isReadable(Long.BYTES);
+  }
+
+  /**
+   * completes the top frame and adds its tag into its parent.
+   *
+   * @return the root tag if the top frame is the root, otherwise {@code null}.
+   */
+  @Nullable
+  private Tag pop() {
+    final Tag tag = this.frames.pop(0);
+    this.id = NBTIncrementalDecoder.NONE;
+    if (tag != null) {
+      this.reset();
+    }
+    return tag;
+  }
+
+  /**
+   * pushes a frame of the given container id for the value which is being read.
+   *
+   * @param id the id of the container.
+   * @param elementId the element id of the list.
+   * @param length the length of the list.
+   */
+  private void push(final byte id, final byte elementId, final int length) {
+    this.frames.push(id, this.key, elementId, length);
+    this.id = NBTIncrementalDecoder.NONE;
+    this.key = null;
+  }
+
+  /**
+   * reads the header of a list tag and pushes its frame.
+   *
+   * @param buffer the buffer to read.
+   *
+   * @return {@code true} if the header is read.
+   *
+   * @throws IllegalArgumentException if the header is invalid, see
+   *   {@link TagFrames#checkList(byte, int)}.
+   */
+  private boolean pushList(@NotNull final ByteBuf buffer) {
+    if (!buffer.isReadable()) {
+      return false;
+    }
+    final int start = buffer.readerIndex();
+    final byte elementId = buffer.readByte();
+    if (!this.isIntReadable(buffer)) {
+      buffer.readerIndex(start);
+      return false;
+    }
+    this.push(TagTypes.LIST.getId(), elementId, this.readInt(buffer));
+    return true;
+  }
+
+  /**
+   * reads the length of an array, or continues the array which is being read.
+   * <p>
+   * the array is allocated up to {@link #MAX_INITIAL_ARRAY_LENGTH} and grows as its elements
+   * arrive, so the memory is bounded by the bytes which are received, not by the length.
+   *
+   * @param buffer the buffer to read.
+   *
+   * @return the array tag if it is complete, otherwise {@code null}.
+   */
+  @Nullable
+  private Tag readArray(@NotNull final ByteBuf buffer) {
+    if (this.array == null) {
+      if (!this.isIntReadable(buffer)) {
+        return null;
+      }
+      final int length = this.readInt(buffer);
+      if (length < 0) {
+        throw new IllegalArgumentException("Negative array length " + length);
+      }
+      final int initial = Math.min(length, NBTIncrementalDecoder.MAX_INITIAL_ARRAY_LENGTH);
+      this.array =
+        this.id == TagTypes.BYTE_ARRAY.getId()
+          ? new byte[initial]
+          : this.id == TagTypes.INT_ARRAY.getId() ? new int[initial] : new long[initial];
+      this.arrayIndex = 0;
+      this.arrayLength = length;
+    }
+    final Tag tag;
+    if (this.array instanceof byte[]) {
+      byte[] values = (byte[]) this.array;
+      final int count = Math.min(this.arrayLength - this.arrayIndex, buffer.readableBytes());
+      if (this.arrayIndex + count > values.length) {
+        values = Arrays.copyOf(values, this.grow(values.length, this.arrayIndex + count));
+        this.array = values;
+      }
+      buffer.readBytes(values, this.arrayIndex, count);
+      this.arrayIndex += count;
+      tag = this.arrayIndex == this.arrayLength ? ByteArrayTag.adopt(values) : null;
+    } else if (this.array instanceof int[]) {
+      int[] values = (int[]) this.array;
+      while (this.arrayIndex < this.arrayLength && this.isIntReadable(buffer)) {
+        if (this.arrayIndex == values.length) {
+          values = Arrays.copyOf(values, this.grow(values.length, this.arrayIndex + 1));
+          this.array = values;
+        }
+        values[this.arrayIndex++] = this.readInt(buffer);
+      }
+      tag = this.arrayIndex == this.arrayLength ? IntArrayTag.adopt(values) : null;
+    } else {
+      long[] values = (long[]) this.array;
+      while (this.arrayIndex < this.arrayLength && this.isLongReadable(buffer)) {
+        if (this.arrayIndex == values.length) {
+          values = Arrays.copyOf(values, this.grow(values.length, this.arrayIndex + 1));
+          this.array = values;
+        }
+        values[this.arrayIndex++] = this.readLong(buffer);
+      }
+      tag = this.arrayIndex == this.arrayLength ? LongArrayTag.adopt(values) : null;
+    }
+    if (tag != null) {
+      this.array = null;
+      this.arrayIndex = 0;
+      this.arrayLength = 0;
+    }
+    return tag;
+  }
+
+  /**
+   * reads an int from the buffer which has a complete int.
+   *
+   * @param buffer the buffer to read.
+   *
+   * @return int.
+   */
+  private int readInt(@NotNull final ByteBuf buffer) {
+    if (this.network) {
+      final int n = VarInts.readUnsignedInt(buffer);
+      return n >>> 1 ^ -(n & 1);
+    }
+    return this.littleEndian ? buffer.readIntLE() : buffer.readInt();
+  }
+
+  /**
+   * reads a long from the buffer which has a complete long.
+   *
+   * @param buffer the buffer to read.
+   *
+   * @return long.
+   */
+  private long readLong(@NotNull final ByteBuf buffer) {
+    if (this.network) {
+      final long n = VarInts.readUnsignedLong(buffer);
+      return n >>> 1 ^ -(n & 1);
+    }
+    return this.littleEndian ? buffer.readLongLE() : buffer.readLong();
+  }
+
+  /**
+   * reads a string if all of its bytes are readable.
+   *
+   * @param buffer the buffer to read.
+   *
+   * @return string, or {@code null} if the buffer does not have the whole string.
+   *
+   * @throws IOException if the string is malformed.
+   */
+  @Nullable
+  private String readString(@NotNull final ByteBuf buffer) throws IOException {
+    final int start = buffer.readerIndex();
+    final int length;
+    if (this.network) {
+      if (!NBTIncrementalDecoder.isVarIntReadable(buffer, 5)) {
+        return null;
+      }
+      length = VarInts.readUnsignedInt(buffer);
+    } else {
+      if (!buffer.isReadable(Short.BYTES)) {
+        return null;
+      }
+      length = this.littleEndian ? buffer.readUnsignedShortLE() : buffer.readUnsignedShort();
+    }
+    if (!buffer.isReadable(length)) {
+      buffer.readerIndex(start);
+      return null;
+    }
+    final byte[] bytes;
+    final int offset;
+    if (buffer.hasArray()) {
+      bytes = buffer.array();
+      offset = buffer.arrayOffset() + buffer.readerIndex();
+    } else {
+      bytes = new byte[length];
+      offset = 0;
+      buffer.getBytes(buffer.readerIndex(), bytes);
+    }
+    buffer.skipBytes(length);
+    return this.littleEndian
+      ? Utf8.decode(bytes, offset, length)
+      : ModifiedUtf8.decode(bytes, offset, length);
+  }
+}
@@ -4,9 +4,11 @@ import io.github.shiruka.nbt.CompoundTag;
 import io.github.shiruka.nbt.ListTag;
 import io.github.shiruka.nbt.Tag;
 import io.github.shiruka.nbt.TagTypes;
+import io.github.shiruka.nbt.VarInts;
 import io.github.shiruka.nbt.array.ByteArrayTag;
 import io.github.shiruka.nbt.array.IntArrayTag;
 import io.github.shiruka.nbt.array.LongArrayTag;
+import io.github.shiruka.nbt.compound.LazyCompoundTag;
 import io.github.shiruka.nbt.primitive.ByteTag;
 import io.github.shiruka.nbt.primitive.DoubleTag;
 import io.github.shiruka.nbt.primitive.FloatTag;
@@ -14,14 +16,21 @@ import io.github.shiruka.nbt.primitive.IntTag;
 import io.github.shiruka.nbt.primitive.LongTag;
 import io.github.shiruka.nbt.primitive.ShortTag;
 import io.github.shiruka.nbt.primitive.StringTag;
+import io.netty.buffer.ByteBuf;
 import java.io.Closeable;
 import java.io.DataInput;
+import java.io.DataInputStream;
 import java.io.EOFException;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.experimental.Accessors;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * an input stream to read named binary tags.
@@ -30,11 +39,125 @@ import org.jetbrains.annotations.NotNull;
 @Accessors(fluent = true)
 public final class NBTInputStream implements Closeable {
 
+  /**
+   * the scope count of the compounds.
+   */
+  private static final int COMPOUND_SCOPE = -1;
+
+  /**
+   * the streams of the current thread by the ordinals of their formats, see
+   * {@link #local(NBTFormat)}.
+   */
+  private static final ThreadLocal<NBTInputStream[]> LOCAL = ThreadLocal.withInitial(() ->
+    new NBTInputStream[NBTFormat.values().length]
+  );
+
   /**
    * the input.
    */
   @NotNull
-  private final DataInput input;
+  private DataInput input;
+
+  /**
+   * the format of the input.
+   */
+  @NotNull
+  private final NBTFormat format;
+
+  /**
+   * the pool to share the compound keys.
+   */
+  @Nullable
+  private final KeyPool keys;
+
+  /**
+   * if the compound tags and strings are decoded lazily.
+   */
+  private final boolean lazy;
+
+  /**
+   * if the int and long arrays are read as bytes at once.
+   */
+  @Getter(AccessLevel.NONE)
+  private boolean bulk;
+
+  /**
+   * the buffer to read int and long arrays at once.
+   */
+  @Nullable
+  @Getter(AccessLevel.NONE)
+  private ByteBuffer buffer;
+
+  /**
+   * the input to copy the bytes of the skipped tags, see {@link #skip(byte, OutputStream)}.
+   */
+  @Nullable
+  @Getter(AccessLevel.NONE)
+  private CapturingDataInput capturing;
+
+  /**
+   * the frames of the compound and list tags which are being read, see {@link #readTree(byte)}.
+   */
+  @NotNull
+  @Getter(AccessLevel.NONE)
+  private final TagFrames frames = new TagFrames();
+
+  /**
+   * the source of the {@link #frames}, which reads the input.
+   */
+  @NotNull
+  @Getter(AccessLevel.NONE)
+  private final TagFrames.Source source = new TagFrames.Source() {
+    @NotNull
+    @Override
+    public Tag read(final byte id) throws IOException {
+      return NBTInputStream.this.read(id);
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+      return NBTInputStream.this.input.readByte();
+    }
+
+    @Override
+    public byte readId() throws IOException {
+      try {
+        return NBTInputStream.this.input.readByte();
+      } catch (final EOFException e) {
+        return TagTypes.END.getId();
+      }
+    }
+
+    @Override
+    public int readInt() throws IOException {
+      return NBTInputStream.this.input.readInt();
+    }
+
+    @NotNull
+    @Override
+    public String readKey() throws IOException {
+      return NBTInputStream.this.readKey();
+    }
+  };
+
+  /**
+   * the remaining element counts of the lists which are being skipped or visited, or
+   * {@link #COMPOUND_SCOPE} for the compounds, see {@link #skip(byte)}.
+   */
+  @Getter(AccessLevel.NONE)
+  private int@NotNull[] scopeCounts = new int[16];
+
+  /**
+   * the element ids of the lists which are being skipped or visited.
+   */
+  @Getter(AccessLevel.NONE)
+  private byte@NotNull[] scopeIds = new byte[16];
+
+  /**
+   * the count of the scopes in use.
+   */
+  @Getter(AccessLevel.NONE)
+  private int scopes;
 
   /**
    * if the stream closed.
@@ -47,7 +170,78 @@ public final class NBTInputStream implements Closeable {
    * @param input the input.
    */
   public NBTInputStream(@NotNull final DataInput input) {
+    this(input, false);
+  }
+
+  /**
+   * ctor.
+   *
+   * @param input the input.
+   * @param lazy if the compound tags and strings are decoded lazily, see {@link LazyCompoundTag}.
+   */
+  public NBTInputStream(@NotNull final DataInput input, final boolean lazy) {
+    this(input, lazy, null);
+  }
+
+  /**
+   * ctor.
+   *
+   * @param input the input.
+   * @param lazy if the compound tags and strings are decoded lazily, see {@link LazyCompoundTag}.
+   * @param keys the pool to share the compound keys, the input has to encode the strings as its
+   *   {@link #format()} does.
+   */
+  public NBTInputStream(
+    @NotNull final DataInput input,
+    final boolean lazy,
+    @Nullable final KeyPool keys
+  ) {
     this.input = input;
+    this.format = NBTFormat.of(input);
+    this.lazy = lazy;
+    this.keys = keys;
+    this.bulk = NBTInputStream.isBulk(input);
+  }
+
+  /**
+   * obtains the stream of the current thread which reads the given format from a {@link ByteBuf}.
+   * <p>
+   * the stream has no buffer to read until it is reset with {@link #reset(ByteBuf)}, and it keeps
+   * its scratch buffers between the resets, so reading a buffer does not create any object except
+   * the tags. the stream should be closed after reading each buffer, which drops the buffer, so the
+   * stream does not keep it reachable after it is released. the stream must not be passed to
+   * another thread.
+   *
+   * @param format the format to obtain.
+   *
+   * @return the stream of the current thread.
+   */
+  @NotNull
+  public static NBTInputStream local(@NotNull final NBTFormat format) {
+    final NBTInputStream[] streams = NBTInputStream.LOCAL.get();
+    NBTInputStream stream = streams[format.ordinal()];
+    if (stream == null) {
+      stream = new NBTInputStream(ByteBufDataInput.of(format));
+      streams[format.ordinal()] = stream;
+    }
+    return stream;
+  }
+
+  /**
+   * checks if the int and long arrays can be read from the given input as bytes at once.
+   * <p>
+   * only the exact {@link DataInputStream} class is trusted, since its subclasses may override
+   * {@code readInt} to encode the values differently.
+   *
+   * @param input the input to check.
+   *
+   * @return {@code true} if the arrays are read at once.
+   */
+  private static boolean isBulk(@NotNull final DataInput input) {
+    return (
+      NBTFormat.of(input) != NBTFormat.NETWORK &&
+      (input instanceof FormatAware || input.getClass() == DataInputStream.class)
+    );
   }
 
   @Override
@@ -61,6 +255,49 @@ public final class NBTInputStream implements Closeable {
     }
   }
 
+  /**
+   * reads the tag of the given id from the input and passes its values to the given visitor without
+   * creating any tag.
+   * <p>
+   * the containers are visited without recursion, the same as {@link #skip(byte)} skips them.
+   *
+   * @param id the id to read.
+   * @param visitor the visitor to accept.
+   *
+   * @throws IOException if something went wrong when reading the given input.
+   */
+  public void accept(final byte id, @NotNull final TagVisitor visitor) throws IOException {
+    if (this.closed) {
+      throw new IllegalStateException("Trying to read from a closed reader!");
+    }
+    if (id != TagTypes.LIST.getId() && id != TagTypes.COMPOUND.getId()) {
+      this.visit(id, visitor);
+      return;
+    }
+    final int base = this.scopes;
+    try {
+      this.acceptContainer(id, visitor);
+      while (this.scopes > base) {
+        final boolean compound = this.scopeCounts[this.scopes - 1] == NBTInputStream.COMPOUND_SCOPE;
+        final byte childId = this.nextId();
+        if (childId == TagTypes.END.getId()) {
+          this.scopes--;
+          visitor.visitEnd();
+        } else if (
+          compound && visitor.visitKey(this.readKey(), TagTypes.byId(childId)) == VisitResult.SKIP
+        ) {
+          this.skip(childId);
+        } else if (childId == TagTypes.LIST.getId() || childId == TagTypes.COMPOUND.getId()) {
+          this.acceptContainer(childId, visitor);
+        } else {
+          this.visit(childId, visitor);
+        }
+      }
+    } finally {
+      this.scopes = base;
+    }
+  }
+
   /**
    * reads the given input using the id.
    *
@@ -126,14 +363,13 @@ public final class NBTInputStream implements Closeable {
    */
   @NotNull
   public ByteArrayTag readByteArray() throws IOException {
-    final int length = this.input.readInt();
-    final byte[] value = new byte[length];
-    this.input.readFully(value);
-    return Tag.createByteArray(value);
+    return ByteArrayTag.adopt(this.readBytes());
   }
 
   /**
    * reads the given input and converts it into the {@link CompoundTag}.
+   * <p>
+   * if the stream is {@link #lazy()}, returns a {@link LazyCompoundTag}.
    *
    * @return an instance of {@link CompoundTag}.
    *
@@ -141,22 +377,10 @@ public final class NBTInputStream implements Closeable {
    */
   @NotNull
   public CompoundTag readCompoundTag() throws IOException {
-    final CompoundTag compoundTag = Tag.createCompound();
-    while (true) {
-      final byte id;
-      try {
-        id = this.input.readByte();
-      } catch (final EOFException e) {
-        break;
-      }
-      if (id == TagTypes.END.getId()) {
-        break;
-      }
-      final String key = this.input.readUTF();
-      final Tag tag = this.read(id);
-      compoundTag.set(key, tag);
+    if (this.lazy) {
+      return LazyCompoundTag.read(this);
     }
-    return compoundTag;
+    return this.readTree(TagTypes.COMPOUND.getId()).asCompound();
   }
 
   /**
@@ -204,12 +428,37 @@ public final class NBTInputStream implements Closeable {
    */
   @NotNull
   public IntArrayTag readIntArray() throws IOException {
-    final int length = this.input.readInt();
-    final int[] value = new int[length];
-    for (int i = 0; i < length; i++) {
-      value[i] = this.input.readInt();
+    return IntArrayTag.adopt(this.readInts());
+  }
+
+  /**
+   * reads a compound key from the input, using the {@link #keys()} pool if there is one.
+   * <p>
+   * the key is looked up in the pool by its encoded bytes, so the keys which are in the pool are
+   * not decoded again.
+   *
+   * @return key.
+   *
+   * @throws IOException if something went wrong when reading the given input.
+   */
+  @NotNull
+  public String readKey() throws IOException {
+    if (this.keys == null) {
+      return this.input.readUTF();
     }
-    return Tag.createIntArray(value);
+    final int length = this.format == NBTFormat.NETWORK
+      ? VarInts.readUnsignedInt(this.input)
+      : this.input.readUnsignedShort();
+    final byte[] bytes = length <= 8192 ? this.buffer().array() : new byte[length];
+    this.input.readFully(bytes, 0, length);
+    final String key = this.keys.intern(bytes, 0, length);
+    if (key != null) {
+      return key;
+    }
+    if (this.format == NBTFormat.BIG_ENDIAN) {
+      return ModifiedUtf8.decode(bytes, 0, length);
+    }
+    return Utf8.decode(bytes, 0, length);
   }
 
   /**
@@ -221,14 +470,7 @@ public final class NBTInputStream implements Closeable {
    */
   @NotNull
   public ListTag readListTag() throws IOException {
-    final byte id = this.input.readByte();
-    final int length = this.input.readInt();
-    final ArrayList<Tag> tags = new ArrayList<Tag>(length);
-    for (int i = 0; i < length; i++) {
-      final Tag read = this.read(id);
-      tags.add(read);
-    }
-    return Tag.createList(tags);
+    return this.readTree(TagTypes.LIST.getId()).asList();
   }
 
   /**
@@ -252,12 +494,39 @@ public final class NBTInputStream implements Closeable {
    */
   @NotNull
   public LongArrayTag readLongArray() throws IOException {
-    final int length = this.input.readInt();
-    final long[] value = new long[length];
-    for (int i = 0; i < length; i++) {
-      value[i] = this.input.readLong();
-    }
-    return Tag.createLongArray(value);
+    return LongArrayTag.adopt(this.readLongs());
+  }
+
+  /**
+   * reads the given input as a compound tag's entries and collects only the selected values,
+   * skipping everything else.
+   *
+   * @param selector the selector to read.
+   *
+   * @return selected values by their paths.
+   *
+   * @throws IOException if something went wrong when reading the given input.
+   * @see TagSelector
+   */
+  @NotNull
+  public Map<String, Tag> readPaths(@NotNull final TagSelector selector) throws IOException {
+    return selector.select(this);
+  }
+
+  /**
+   * reads the given input as a compound tag's entries and collects only the values of the given
+   * paths, skipping everything else.
+   *
+   * @param paths the paths to read.
+   *
+   * @return selected values by their paths.
+   *
+   * @throws IOException if something went wrong when reading the given input.
+   * @see TagSelector
+   */
+  @NotNull
+  public Map<String, Tag> readPaths(@NotNull final String... paths) throws IOException {
+    return this.readPaths(TagSelector.of(paths));
   }
 
   /**
@@ -274,6 +543,9 @@ public final class NBTInputStream implements Closeable {
 
   /**
    * reads the given input and converts it into the {@link StringTag}.
+   * <p>
+   * if the stream is {@link #lazy()} and the format uses standard utf-8, returns a tag that keeps
+   * the bytes and decodes them when they are needed, see {@link StringTag#adopt(byte[])}.
    *
    * @return an instance of {@link StringTag}.
    *
@@ -281,6 +553,464 @@ public final class NBTInputStream implements Closeable {
    */
   @NotNull
   public StringTag readString() throws IOException {
-    return Tag.createString(this.input.readUTF());
+    if (!this.lazy || this.format == NBTFormat.BIG_ENDIAN) {
+      return Tag.createString(this.input.readUTF());
+    }
+    final int length = this.format == NBTFormat.NETWORK
+      ? VarInts.readUnsignedInt(this.input)
+      : this.input.readUnsignedShort();
+    final byte[] bytes = new byte[length];
+    this.input.readFully(bytes);
+    return StringTag.adopt(bytes);
+  }
+
+  /**
+   * moves the stream to the given buffer and reopens it if it is closed.
+   *
+   * @param buffer the buffer to read.
+   *
+   * @throws IllegalStateException if the input is not a {@link ByteBufDataInput}.
+   */
+  public void reset(@NotNull final ByteBuf buffer) {
+    if (!(this.input instanceof ByteBufDataInput)) {
+      throw new IllegalStateException("The input does not read from a buffer!");
+    }
+    ((ByteBufDataInput) this.input).reset(buffer);
+    this.closed = false;
+  }
+
+  /**
+   * moves the stream to the given input and reopens it if it is closed.
+   * <p>
+   * the scratch buffers of the stream are kept, so a stream can be reused for many inputs.
+   *
+   * @param input the input to read, which has to read the same {@link #format()}.
+   */
+  public void reset(@NotNull final DataInput input) {
+    final NBTFormat format = NBTFormat.of(input);
+    if (format != this.format) {
+      throw new IllegalArgumentException(
+        String.format("Expected an input of %s but was %s", this.format, format)
+      );
+    }
+    this.input = input;
+    this.bulk = NBTInputStream.isBulk(input);
+    this.closed = false;
+  }
+
+  /**
+   * skips the tag of the given id in the input without building it.
+   * <p>
+   * the compound and list tags which are being skipped are kept in a reusable stack instead of the
+   * call stack, so deeply nested tags do not overflow the stack.
+   *
+   * @param id the id to skip.
+   *
+   * @throws IOException if something went wrong when reading the given input.
+   */
+  public void skip(final byte id) throws IOException {
+    if (this.closed) {
+      throw new IllegalStateException("Trying to read from a closed reader!");
+    }
+    if (id != TagTypes.LIST.getId() && id != TagTypes.COMPOUND.getId()) {
+      this.skipValue(id);
+      return;
+    }
+    final int base = this.scopes;
+    try {
+      this.enterScope(id);
+      while (this.scopes > base) {
+        final boolean compound = this.scopeCounts[this.scopes - 1] == NBTInputStream.COMPOUND_SCOPE;
+        final byte childId = this.nextId();
+        if (childId == TagTypes.END.getId()) {
+          this.scopes--;
+          continue;
+        }
+        if (compound) {
+          this.skipString();
+        }
+        if (childId == TagTypes.LIST.getId() || childId == TagTypes.COMPOUND.getId()) {
+          this.enterScope(childId);
+        } else {
+          this.skipValue(childId);
+        }
+      }
+    } finally {
+      this.scopes = base;
+    }
+  }
+
+  /**
+   * skips the tag of the given id in the input and copies its encoded bytes into the given output
+   * as they are, without decoding or building it.
+   *
+   * @param id the id to skip.
+   * @param output the output to copy the bytes of the tag.
+   *
+   * @throws IOException if something went wrong when reading the input or writing the output.
+   */
+  public void skip(final byte id, @NotNull final OutputStream output) throws IOException {
+    final DataInput input = this.input;
+    if (this.capturing == null) {
+      this.capturing = new CapturingDataInput(input, this.format, output);
+    } else {
+      this.capturing.reset(input, output);
+    }
+    this.input = this.capturing;
+    try {
+      this.skip(id);
+    } finally {
+      this.input = input;
+    }
+  }
+
+  /**
+   * starts visiting the compound or list tag of the given id, reading the header of the list tags.
+   * <p>
+   * pushes a scope for the container unless the visitor skips it.
+   *
+   * @param id the id of the container.
+   * @param visitor the visitor to accept.
+   *
+   * @throws IOException if something went wrong when reading the given input.
+   */
+  private void acceptContainer(final byte id, @NotNull final TagVisitor visitor)
+    throws IOException {
+    if (id == TagTypes.COMPOUND.getId()) {
+      if (visitor.visitCompoundStart() == VisitResult.SKIP) {
+        this.skip(id);
+      } else {
+        this.pushScope(NBTInputStream.COMPOUND_SCOPE, TagTypes.END.getId());
+      }
+      return;
+    }
+    final byte elementId = this.input.readByte();
+    final int length = this.input.readInt();
+    TagFrames.checkList(elementId, length);
+    if (visitor.visitListStart(TagTypes.byId(elementId), length) == VisitResult.SKIP) {
+      this.skipElements(elementId, length);
+    } else {
+      this.pushScope(length, elementId);
+    }
+  }
+
+  /**
+   * reads a length-prefixed byte array from the input.
+   *
+   * @return byte array.
+   *
+   * @throws IOException if something went wrong when reading the given input.
+   */
+  byte@NotNull[] readBytes() throws IOException {
+    final int length = this.input.readInt();
+    final byte[] value = new byte[length];
+    this.input.readFully(value);
+    return value;
+  }
+
+  /**
+   * reads a length-prefixed int array from the input.
+   *
+   * @return int array.
+   *
+   * @throws IOException if something went wrong when reading the given input.
+   */
+  int@NotNull[] readInts() throws IOException {
+    final int length = this.input.readInt();
+    final int[] value = new int[length];
+    if (this.input instanceof ByteBufferDataInput) {
+      ((ByteBufferDataInput) this.input).readInts(value);
+      return value;
+    }
+    if (this.bulk) {
+      final ByteBuffer buffer = this.buffer();
+      for (int offset = 0, count; offset < length; offset += count) {
+        count = Math.min(length - offset, buffer.capacity() / Integer.BYTES);
+        this.input.readFully(buffer.array(), 0, count * Integer.BYTES);
+        buffer.asIntBuffer().get(value, offset, count);
+      }
+      return value;
+    }
+    for (int i = 0; i < length; i++) {
+      value[i] = this.input.readInt();
+    }
+    return value;
+  }
+
+  /**
+   * reads a length-prefixed long array from the input.
+   *
+   * @return long array.
+   *
+   * @throws IOException if something went wrong when reading the given input.
+   */
+  long@NotNull[] readLongs() throws IOException {
+    final int length = this.input.readInt();
+    final long[] value = new long[length];
+    if (this.input instanceof ByteBufferDataInput) {
+      ((ByteBufferDataInput) this.input).readLongs(value);
+      return value;
+    }
+    if (this.bulk) {
+      final ByteBuffer buffer = this.buffer();
+      for (int offset = 0, count; offset < length; offset += count) {
+        count = Math.min(length - offset, buffer.capacity() / Long.BYTES);
+        this.input.readFully(buffer.array(), 0, count * Long.BYTES);
+        buffer.asLongBuffer().get(value, offset, count);
+      }
+      return value;
+    }
+    for (int i = 0; i < length; i++) {
+      value[i] = this.input.readLong();
+    }
+    return value;
+  }
+
+  /**
+   * obtains the buffer to read int and long arrays at once.
+   *
+   * @return buffer.
+   */
+  @NotNull
+  private ByteBuffer buffer() {
+    if (this.buffer == null) {
+      this.buffer = ByteBuffer.allocate(8192).order(this.format.order());
+    }
+    return this.buffer;
+  }
+
+  /**
+   * starts skipping the compound or list tag of the given id, reading the header of the list tags.
+   * <p>
+   * the lists of the other tags are skipped at once, a scope is pushed for the others.
+   *
+   * @param id the id of the container.
+   *
+   * @throws IOException if something went wrong when reading the given input.
+   */
+  private void enterScope(final byte id) throws IOException {
+    if (id == TagTypes.COMPOUND.getId()) {
+      this.pushScope(NBTInputStream.COMPOUND_SCOPE, TagTypes.END.getId());
+      return;
+    }
+    final byte elementId = this.input.readByte();
+    final int length = this.input.readInt();
+    TagFrames.checkList(elementId, length);
+    if (elementId == TagTypes.LIST.getId() || elementId == TagTypes.COMPOUND.getId()) {
+      this.pushScope(length, elementId);
+    } else {
+      this.skipElements(elementId, length);
+    }
+  }
+
+  /**
+   * reads the id of the next child in the current scope.
+   * <p>
+   * the key of a compound's child is not read.
+   *
+   * @return id of the next child, or {@link TagTypes#END} if the scope has no more children.
+   *
+   * @throws IOException if something went wrong when reading the given input.
+   */
+  private byte nextId() throws IOException {
+    final int scope = this.scopes - 1;
+    final int count = this.scopeCounts[scope];
+    if (count == NBTInputStream.COMPOUND_SCOPE) {
+      try {
+        return this.input.readByte();
+      } catch (final EOFException e) {
+        return TagTypes.END.getId();
+      }
+    }
+    if (count == 0) {
+      return TagTypes.END.getId();
+    }
+    this.scopeCounts[scope] = count - 1;
+    return this.scopeIds[scope];
+  }
+
+  /**
+   * pushes a scope to skip or visit a container.
+   *
+   * @param count the element count of the list, or {@link #COMPOUND_SCOPE} for a compound.
+   * @param elementId the element id of the list.
+   */
+  private void pushScope(final int count, final byte elementId) {
+    if (this.scopes == this.scopeCounts.length) {
+      this.scopeCounts = Arrays.copyOf(this.scopeCounts, this.scopes << 1);
+      this.scopeIds = Arrays.copyOf(this.scopeIds, this.scopes << 1);
+    }
+    this.scopeCounts[this.scopes] = count;
+    this.scopeIds[this.scopes] = elementId;
+    this.scopes++;
+  }
+
+  /**
+   * reads the compound or list tag of the given id without recursion.
+   * <p>
+   * the containers which are being read are kept in {@link #frames} instead of the call stack, so
+   * deeply nested tags do not overflow the stack and the frames are reused by the next reads.
+   *
+   * @param id the id of the container to read.
+   *
+   * @return container tag.
+   *
+   * @throws IOException if something went wrong when reading the given input.
+   */
+  @NotNull
+  private Tag readTree(final byte id) throws IOException {
+    if (this.closed) {
+      throw new IllegalStateException("Trying to read from a closed reader!");
+    }
+    return this.frames.read(id, this.source, this.lazy);
+  }
+
+  /**
+   * skips the given count of tags of the given id in the input.
+   * <p>
+   * the fixed-width tags are skipped at once, except the ints and longs in the network format which
+   * are var ints.
+   *
+   * @param id the id to skip.
+   * @param length the length to skip.
+   *
+   * @throws IOException if something went wrong when reading the given input.
+   */
+  private void skipElements(final byte id, final int length) throws IOException {
+    final boolean network = this.format == NBTFormat.NETWORK;
+    if (id == TagTypes.BYTE.getId()) {
+      this.skipFully(length);
+    } else if (id == TagTypes.SHORT.getId()) {
+      this.skipFully(length * 2L);
+    } else if (id == TagTypes.FLOAT.getId() || id == TagTypes.INT.getId() && !network) {
+      this.skipFully(length * 4L);
+    } else if (id == TagTypes.DOUBLE.getId() || id == TagTypes.LONG.getId() && !network) {
+      this.skipFully(length * 8L);
+    } else if (id == TagTypes.INT.getId()) {
+      for (int i = 0; i < length; i++) {
+        this.input.readInt();
+      }
+    } else if (id == TagTypes.LONG.getId()) {
+      for (int i = 0; i < length; i++) {
+        this.input.readLong();
+      }
+    } else {
+      for (int i = 0; i < length; i++) {
+        this.skip(id);
+      }
+    }
+  }
+
+  /**
+   * skips the given count of bytes in the input.
+   *
+   * @param length the length to skip.
+   *
+   * @throws IOException if something went wrong when reading the given input.
+   */
+  private void skipFully(final long length) throws IOException {
+    long remaining = length;
+    while (remaining > 0) {
+      final int skipped = this.input.skipBytes((int) Math.min(remaining, Integer.MAX_VALUE));
+      if (skipped > 0) {
+        remaining -= skipped;
+      } else {
+        this.input.readByte();
+        remaining--;
+      }
+    }
+  }
+
+  /**
+   * skips the string in the input.
+   *
+   * @throws IOException if something went wrong when reading the given input.
+   */
+  private void skipString() throws IOException {
+    if (this.format == NBTFormat.NETWORK) {
+      this.skipFully(VarInts.readUnsignedInt(this.input) & 0xFFFFFFFFL);
+    } else {
+      this.skipFully(this.input.readUnsignedShort());
+    }
+  }
+
+  /**
+   * skips the tag of the given id in the input, which is not a compound or list tag.
+   *
+   * @param id the id to skip.
+   *
+   * @throws IOException if something went wrong when reading the given input.
+   */
+  private void skipValue(final byte id) throws IOException {
+    switch (id) {
+      case 1:
+      case 2:
+      case 3:
+      case 4:
+      case 5:
+      case 6:
+        this.skipElements(id, 1);
+        break;
+      case 7:
+        this.skipFully(this.input.readInt());
+        break;
+      case 8:
+        this.skipString();
+        break;
+      case 11:
+        this.skipElements(TagTypes.INT.getId(), this.input.readInt());
+        break;
+      case 12:
+        this.skipElements(TagTypes.LONG.getId(), this.input.readInt());
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown type " + id);
+    }
+  }
+
+  /**
+   * reads the tag of the given id, which is not a compound or list tag, and passes it to the given
+   * visitor.
+   *
+   * @param id the id to read.
+   * @param visitor the visitor to accept.
+   *
+   * @throws IOException if something went wrong when reading the given input.
+   */
+  private void visit(final byte id, @NotNull final TagVisitor visitor) throws IOException {
+    switch (id) {
+      case 1:
+        visitor.visitByte(this.input.readByte());
+        break;
+      case 2:
+        visitor.visitShort(this.input.readShort());
+        break;
+      case 3:
+        visitor.visitInt(this.input.readInt());
+        break;
+      case 4:
+        visitor.visitLong(this.input.readLong());
+        break;
+      case 5:
+        visitor.visitFloat(this.input.readFloat());
+        break;
+      case 6:
+        visitor.visitDouble(this.input.readDouble());
+        break;
+      case 7:
+        visitor.visitByteArray(this.readBytes());
+        break;
+      case 8:
+        visitor.visitString(this.input.readUTF());
+        break;
+      case 11:
+        visitor.visitIntArray(this.readInts());
+        break;
+      case 12:
+        visitor.visitLongArray(this.readLongs());
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown type " + id);
+    }
   }
 }
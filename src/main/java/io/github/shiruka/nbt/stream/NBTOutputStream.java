@@ -4,9 +4,12 @@ import io.github.shiruka.nbt.CompoundTag;
 import io.github.shiruka.nbt.ListTag;
 import io.github.shiruka.nbt.Tag;
 import io.github.shiruka.nbt.TagTypes;
+import io.github.shiruka.nbt.VarInts;
 import io.github.shiruka.nbt.array.ByteArrayTag;
 import io.github.shiruka.nbt.array.IntArrayTag;
 import io.github.shiruka.nbt.array.LongArrayTag;
+import io.github.shiruka.nbt.compound.LazyCompoundTag;
+import io.github.shiruka.nbt.compound.SealedCompoundTag;
 import io.github.shiruka.nbt.primitive.ByteTag;
 import io.github.shiruka.nbt.primitive.DoubleTag;
 import io.github.shiruka.nbt.primitive.FloatTag;
@@ -14,14 +17,20 @@ import io.github.shiruka.nbt.primitive.IntTag;
 import io.github.shiruka.nbt.primitive.LongTag;
 import io.github.shiruka.nbt.primitive.ShortTag;
 import io.github.shiruka.nbt.primitive.StringTag;
+import io.netty.buffer.ByteBuf;
 import java.io.Closeable;
 import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Map;
-import java.util.Set;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.experimental.Accessors;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * an output stream to write named binary tags.
@@ -30,11 +39,57 @@ import org.jetbrains.annotations.NotNull;
 @Accessors(fluent = true)
 public final class NBTOutputStream implements Closeable {
 
+  /**
+   * the streams of the current thread by the ordinals of their formats, see
+   * {@link #local(NBTFormat)}.
+   */
+  private static final ThreadLocal<NBTOutputStream[]> LOCAL = ThreadLocal.withInitial(() ->
+    new NBTOutputStream[NBTFormat.values().length]
+  );
+
   /**
    * the output.
    */
   @NotNull
-  private final DataOutput output;
+  private DataOutput output;
+
+  /**
+   * the format of the output.
+   */
+  @NotNull
+  private final NBTFormat format;
+
+  /**
+   * the cache of the encoded compound keys.
+   */
+  @Nullable
+  private final KeyCache keys;
+
+  /**
+   * if the int and long arrays are written as bytes at once.
+   */
+  @Getter(AccessLevel.NONE)
+  private boolean bulk;
+
+  /**
+   * the buffer to write int and long arrays at once.
+   */
+  @Nullable
+  @Getter(AccessLevel.NONE)
+  private ByteBuffer buffer;
+
+  /**
+   * the iterators of the compound and list tags which are being written, see
+   * {@link #writeTree(Tag)}.
+   */
+  @Getter(AccessLevel.NONE)
+  private Iterator<?>@NotNull[] frames = new Iterator<?>[16];
+
+  /**
+   * the count of the frames in use.
+   */
+  @Getter(AccessLevel.NONE)
+  private int depth;
 
   /**
    * if the stream is closed.
@@ -47,7 +102,62 @@ public final class NBTOutputStream implements Closeable {
    * @param output the output.
    */
   public NBTOutputStream(@NotNull final DataOutput output) {
+    this(output, null);
+  }
+
+  /**
+   * ctor.
+   *
+   * @param output the output.
+   * @param keys the cache of the encoded compound keys, the output has to encode the strings as its
+   *   {@link #format()} does.
+   */
+  public NBTOutputStream(@NotNull final DataOutput output, @Nullable final KeyCache keys) {
     this.output = output;
+    this.format = NBTFormat.of(output);
+    this.keys = keys;
+    this.bulk = NBTOutputStream.isBulk(output);
+  }
+
+  /**
+   * obtains the stream of the current thread which writes the given format into a {@link ByteBuf}.
+   * <p>
+   * the stream has no buffer to write until it is reset with {@link #reset(ByteBuf)}, and it keeps
+   * its scratch buffers between the resets, so writing a tag does not create any object. the
+   * compound keys are copied from {@link KeyCache#global()}. the stream should be closed after
+   * writing each buffer, which drops the buffer, so the stream does not keep it reachable after it
+   * is released. the stream must not be passed to another thread.
+   *
+   * @param format the format to obtain.
+   *
+   * @return the stream of the current thread.
+   */
+  @NotNull
+  public static NBTOutputStream local(@NotNull final NBTFormat format) {
+    final NBTOutputStream[] streams = NBTOutputStream.LOCAL.get();
+    NBTOutputStream stream = streams[format.ordinal()];
+    if (stream == null) {
+      stream = new NBTOutputStream(ByteBufDataOutput.of(format), KeyCache.global());
+      streams[format.ordinal()] = stream;
+    }
+    return stream;
+  }
+
+  /**
+   * checks if the int and long arrays can be written into the given output as bytes at once.
+   * <p>
+   * only the exact {@link DataOutputStream} class is trusted, since its subclasses may override
+   * {@code writeInt} to encode the values differently.
+   *
+   * @param output the output to check.
+   *
+   * @return {@code true} if the arrays are written at once.
+   */
+  private static boolean isBulk(@NotNull final DataOutput output) {
+    return (
+      NBTFormat.of(output) != NBTFormat.NETWORK &&
+      (output instanceof FormatAware || output.getClass() == DataOutputStream.class)
+    );
   }
 
   @Override
@@ -61,8 +171,44 @@ public final class NBTOutputStream implements Closeable {
     }
   }
 
+  /**
+   * moves the stream to the given buffer and reopens it if it is closed.
+   *
+   * @param buffer the buffer to write.
+   *
+   * @throws IllegalStateException if the output is not a {@link ByteBufDataOutput}.
+   */
+  public void reset(@NotNull final ByteBuf buffer) {
+    if (!(this.output instanceof ByteBufDataOutput)) {
+      throw new IllegalStateException("The output does not write into a buffer!");
+    }
+    ((ByteBufDataOutput) this.output).reset(buffer);
+    this.closed = false;
+  }
+
+  /**
+   * moves the stream to the given output and reopens it if it is closed.
+   * <p>
+   * the scratch buffers of the stream are kept, so a stream can be reused for many outputs.
+   *
+   * @param output the output to write, which has to write the same {@link #format()}.
+   */
+  public void reset(@NotNull final DataOutput output) {
+    final NBTFormat format = NBTFormat.of(output);
+    if (format != this.format) {
+      throw new IllegalArgumentException(
+        String.format("Expected an output of %s but was %s", this.format, format)
+      );
+    }
+    this.output = output;
+    this.bulk = NBTOutputStream.isBulk(output);
+    this.closed = false;
+  }
+
   /**
    * writes the given values into the {@link #output}.
+   * <p>
+   * the tag is dispatched by a single switch on its type id, see {@link #write(byte, Tag)}.
    *
    * @param value the value to write.
    *
@@ -72,33 +218,7 @@ public final class NBTOutputStream implements Closeable {
     if (this.closed) {
       throw new IllegalStateException("Trying to read from a closed reader!");
     }
-    if (value.isByte()) {
-      this.writeByte(value.asByte());
-    } else if (value.isShort()) {
-      this.writeShort(value.asShort());
-    } else if (value.isInt()) {
-      this.writeInt(value.asInt());
-    } else if (value.isLong()) {
-      this.writeLong(value.asLong());
-    } else if (value.isFloat()) {
-      this.writeFloat(value.asFloat());
-    } else if (value.isDouble()) {
-      this.writeDouble(value.asDouble());
-    } else if (value.isByteArray()) {
-      this.writeByteArray(value.asByteArray());
-    } else if (value.isString()) {
-      this.writeString(value.asString());
-    } else if (value.isList()) {
-      this.writeListTag(value.asList());
-    } else if (value.isCompound()) {
-      this.writeCompoundTag(value.asCompound());
-    } else if (value.isIntArray()) {
-      this.writeIntArray(value.asIntArray());
-    } else if (value.isLongArray()) {
-      this.writeLongArray(value.asLongArray());
-    } else {
-      throw new IllegalArgumentException(String.format("Unknown type %s", value.getType()));
-    }
+    this.write(value.getType().getId(), value);
   }
 
   /**
@@ -120,9 +240,7 @@ public final class NBTOutputStream implements Closeable {
    * @throws IOException if something went wrong when reading the given input.
    */
   public void writeByteArray(@NotNull final ByteArrayTag value) throws IOException {
-    final byte[] bytes = value.primitiveValue();
-    this.output.writeInt(bytes.length);
-    this.output.write(bytes);
+    this.writeBytes(value.primitiveValue());
   }
 
   /**
@@ -133,16 +251,15 @@ public final class NBTOutputStream implements Closeable {
    * @throws IOException if something went wrong when reading the given input.
    */
   public void writeCompoundTag(@NotNull final CompoundTag value) throws IOException {
-    final Set<Map.Entry<String, Tag>> entries = value.all().entrySet();
-    for (final Map.Entry<String, Tag> entry : entries) {
-      final Tag tag = entry.getValue();
-      this.output.writeByte(tag.getType().getId());
-      if (tag.getType() != TagTypes.END) {
-        this.output.writeUTF(entry.getKey());
-        this.write(tag);
-      }
+    if (value instanceof LazyCompoundTag) {
+      ((LazyCompoundTag) value).write(this);
+      return;
     }
-    this.output.writeByte(TagTypes.END.getId());
+    if (value instanceof SealedCompoundTag) {
+      ((SealedCompoundTag) value).write(this);
+      return;
+    }
+    this.writeTree(value);
   }
 
   /**
@@ -186,9 +303,26 @@ public final class NBTOutputStream implements Closeable {
    * @throws IOException if something went wrong when reading the given input.
    */
   public void writeIntArray(@NotNull final IntArrayTag value) throws IOException {
-    this.output.writeInt(value.size());
-    for (final int val : value.value()) {
-      this.output.writeInt(val);
+    this.writeInts(value.primitiveValue());
+  }
+
+  /**
+   * writes a compound key into the output, copying its encoded bytes from the {@link #keys()}
+   * cache if there is one.
+   * <p>
+   * custom compound tags which write their entries by themselves should use this instead of
+   * {@link DataOutput#writeUTF(String)}, so the key is encoded in the stream's format.
+   *
+   * @param key the key to write.
+   *
+   * @throws IOException if something went wrong when writing the given key into the output.
+   */
+  public void writeKey(@NotNull final String key) throws IOException {
+    final byte[] bytes = this.keys == null ? null : this.keys.get(key, this.format);
+    if (bytes == null) {
+      this.output.writeUTF(key);
+    } else {
+      this.output.write(bytes);
     }
   }
 
@@ -200,11 +334,7 @@ public final class NBTOutputStream implements Closeable {
    * @throws IOException if something went wrong when reading the given input.
    */
   public void writeListTag(@NotNull final ListTag value) throws IOException {
-    this.output.writeByte(value.getListType().getId());
-    this.output.writeInt(value.size());
-    for (final Tag tag : value) {
-      this.write(tag);
-    }
+    this.writeTree(value);
   }
 
   /**
@@ -226,10 +356,7 @@ public final class NBTOutputStream implements Closeable {
    * @throws IOException if something went wrong when reading the given input.
    */
   public void writeLongArray(@NotNull final LongArrayTag value) throws IOException {
-    this.output.writeInt(value.size());
-    for (final long val : value.value()) {
-      this.output.writeLong(val);
-    }
+    this.writeLongs(value.primitiveValue());
   }
 
   /**
@@ -245,12 +372,264 @@ public final class NBTOutputStream implements Closeable {
 
   /**
    * writes the given string into the {@link #output}.
+   * <p>
+   * the utf-8 bytes of the tags which are created by {@link StringTag#adopt(byte[])} are written as
+   * they are, unless the format is {@link NBTFormat#BIG_ENDIAN} which uses modified utf-8.
    *
    * @param value the value to write.
    *
    * @throws IOException if something went wrong when writing the given value into the output.
+   * @throws java.io.UTFDataFormatException if the encoded value is longer than 65535 bytes and the
+   *   format does not use var int lengths.
    */
   public void writeString(@NotNull final StringTag value) throws IOException {
-    this.output.writeUTF(value.value());
+    final byte[] utf8 = value.utf8();
+    if (utf8 == null || this.format == NBTFormat.BIG_ENDIAN) {
+      this.output.writeUTF(value.value());
+      return;
+    }
+    if (this.format == NBTFormat.NETWORK) {
+      VarInts.writeUnsignedInt(this.output, utf8.length);
+    } else {
+      Utf8.checkLength(utf8.length);
+      this.output.writeShort(utf8.length);
+    }
+    this.output.write(utf8);
+  }
+
+  /**
+   * writes the given bytes with their length into the {@link #output}.
+   *
+   * @param values the values to write.
+   *
+   * @throws IOException if something went wrong when writing the given values into the output.
+   */
+  void writeBytes(final byte@NotNull[] values) throws IOException {
+    this.output.writeInt(values.length);
+    this.output.write(values);
+  }
+
+  /**
+   * writes the given ints with their length into the {@link #output}.
+   *
+   * @param values the values to write.
+   *
+   * @throws IOException if something went wrong when writing the given values into the output.
+   */
+  void writeInts(final int@NotNull[] values) throws IOException {
+    this.output.writeInt(values.length);
+    if (!this.bulk) {
+      for (final int val : values) {
+        this.output.writeInt(val);
+      }
+      return;
+    }
+    final ByteBuffer buffer = this.buffer();
+    for (int offset = 0, count; offset < values.length; offset += count) {
+      count = Math.min(values.length - offset, buffer.capacity() / Integer.BYTES);
+      buffer.asIntBuffer().put(values, offset, count);
+      this.output.write(buffer.array(), 0, count * Integer.BYTES);
+    }
+  }
+
+  /**
+   * writes the given longs with their length into the {@link #output}.
+   *
+   * @param values the values to write.
+   *
+   * @throws IOException if something went wrong when writing the given values into the output.
+   */
+  void writeLongs(final long@NotNull[] values) throws IOException {
+    this.output.writeInt(values.length);
+    if (!this.bulk) {
+      for (final long val : values) {
+        this.output.writeLong(val);
+      }
+      return;
+    }
+    final ByteBuffer buffer = this.buffer();
+    for (int offset = 0, count; offset < values.length; offset += count) {
+      count = Math.min(values.length - offset, buffer.capacity() / Long.BYTES);
+      buffer.asLongBuffer().put(values, offset, count);
+      this.output.write(buffer.array(), 0, count * Long.BYTES);
+    }
+  }
+
+  /**
+   * obtains the buffer to write int and long arrays at once.
+   *
+   * @return buffer.
+   */
+  @NotNull
+  private ByteBuffer buffer() {
+    if (this.buffer == null) {
+      this.buffer = ByteBuffer.allocate(8192).order(this.format.order());
+    }
+    return this.buffer;
+  }
+
+  /**
+   * writes the given value which has the given type id into the {@link #output}.
+   * <p>
+   * the type id is obtained once by the callers and the value is cast directly, instead of asking
+   * the tag for each type in turn.
+   *
+   * @param id the type id of the value.
+   * @param value the value to write.
+   *
+   * @throws IOException if something went wrong when writing the given value into the output.
+   */
+  private void write(final byte id, @NotNull final Tag value) throws IOException {
+    switch (id) {
+      case 1:
+        this.writeByte((ByteTag) value);
+        break;
+      case 2:
+        this.writeShort((ShortTag) value);
+        break;
+      case 3:
+        this.writeInt((IntTag) value);
+        break;
+      case 4:
+        this.writeLong((LongTag) value);
+        break;
+      case 5:
+        this.writeFloat((FloatTag) value);
+        break;
+      case 6:
+        this.writeDouble((DoubleTag) value);
+        break;
+      case 7:
+        this.writeByteArray((ByteArrayTag) value);
+        break;
+      case 8:
+        this.writeString((StringTag) value);
+        break;
+      case 9:
+        this.writeListTag((ListTag) value);
+        break;
+      case 10:
+        this.writeCompoundTag((CompoundTag) value);
+        break;
+      case 11:
+        this.writeIntArray((IntArrayTag) value);
+        break;
+      case 12:
+        this.writeLongArray((LongArrayTag) value);
+        break;
+      default:
+        throw new IllegalArgumentException(String.format("Unknown type %s", value.getType()));
+    }
+  }
+
+  /**
+   * writes the header of the given compound or list tag and pushes its iterator.
+   *
+   * @param id the type id of the value.
+   * @param value the value to push.
+   *
+   * @throws IOException if something went wrong when writing the given value into the output.
+   */
+  private void push(final byte id, @NotNull final Tag value) throws IOException {
+    if (this.depth == this.frames.length) {
+      this.frames = Arrays.copyOf(this.frames, this.depth << 1);
+    }
+    if (id == TagTypes.COMPOUND.getId()) {
+      this.frames[this.depth++] = ((CompoundTag) value).all().entrySet().iterator();
+      return;
+    }
+    final ListTag list = (ListTag) value;
+    this.output.writeByte(list.getListType().getId());
+    this.output.writeInt(list.size());
+    this.frames[this.depth++] = new ListFrame(list.iterator());
+  }
+
+  /**
+   * writes the given compound or list tag without recursion.
+   * <p>
+   * the iterators of the containers which are being written are kept in {@link #frames} instead of
+   * the call stack, so deeply nested tags do not overflow the stack. {@link LazyCompoundTag}s and
+   * {@link SealedCompoundTag}s are written by themselves since they copy their encoded entries.
+   *
+   * @param value the value to write.
+   *
+   * @throws IOException if something went wrong when writing the given value into the output.
+   */
+  private void writeTree(@NotNull final Tag value) throws IOException {
+    final int base = this.depth;
+    try {
+      this.push(value.getType().getId(), value);
+      while (this.depth > base) {
+        final Iterator<?> iterator = this.frames[this.depth - 1];
+        final boolean compound = !(iterator instanceof ListFrame);
+        if (!iterator.hasNext()) {
+          if (compound) {
+            this.output.writeByte(TagTypes.END.getId());
+          }
+          this.frames[--this.depth] = null;
+          continue;
+        }
+        final Tag tag;
+        final byte id;
+        if (compound) {
+          final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) iterator.next();
+          tag = (Tag) entry.getValue();
+          id = tag.getType().getId();
+          this.output.writeByte(id);
+          if (id == TagTypes.END.getId()) {
+            continue;
+          }
+          this.writeKey((String) entry.getKey());
+        } else {
+          tag = (Tag) iterator.next();
+          id = tag.getType().getId();
+        }
+        if (
+          id == TagTypes.LIST.getId() ||
+          id == TagTypes.COMPOUND.getId() &&
+          !(tag instanceof LazyCompoundTag || tag instanceof SealedCompoundTag)
+        ) {
+          this.push(id, tag);
+        } else {
+          this.write(id, tag);
+        }
+      }
+    } finally {
+      while (this.depth > base) {
+        this.frames[--this.depth] = null;
+      }
+    }
+  }
+
+  /**
+   * a class that represents iterators of the list tags which are being written, to tell them apart
+   * from the compound tags' iterators.
+   */
+  private static final class ListFrame implements Iterator<Tag> {
+
+    /**
+     * the iterator.
+     */
+    @NotNull
+    private final Iterator<Tag> iterator;
+
+    /**
+     * ctor.
+     *
+     * @param iterator the iterator.
+     */
+    private ListFrame(@NotNull final Iterator<Tag> iterator) {
+      this.iterator = iterator;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.iterator.hasNext();
+    }
+
+    @Override
+    public Tag next() {
+      return this.iterator.next();
+    }
   }
 }
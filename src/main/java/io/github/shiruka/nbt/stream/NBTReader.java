@@ -0,0 +1,435 @@
+package io.github.shiruka.nbt.stream;
+
+import io.github.shiruka.nbt.Tag;
+import io.github.shiruka.nbt.TagTypes;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a pull reader to read named binary tags token by token, without building the tags.
+ * <p>
+ * the top level and the compounds contain named values, so their values are preceded by
+ * {@link #nextName()}. {@link #peek()} returns {@link TagTypes#END} when the current compound or
+ * list has no more values, and also when the top level reaches the end of the input.
+ * <pre>
+ *   reader.nextName();
+ *   reader.beginCompound();
+ *   while (reader.hasNext()) {
+ *     final String name = reader.nextName();
+ *     if (name.equals("DataVersion")) {
+ *       version = reader.nextInt();
+ *     } else {
+ *       reader.skipValue();
+ *     }
+ *   }
+ *   reader.endCompound();
+ * </pre>
+ */
+public final class NBTReader implements Closeable {
+
+  /**
+   * the scope value of the compounds.
+   */
+  private static final int COMPOUND_SCOPE = -1;
+
+  /**
+   * the input.
+   */
+  @NotNull
+  private final DataInput input;
+
+  /**
+   * the stream to read values.
+   */
+  @NotNull
+  private final NBTInputStream stream;
+
+  /**
+   * if the reader closed.
+   */
+  private boolean closed = false;
+
+  /**
+   * the current depth.
+   */
+  private int depth = 0;
+
+  /**
+   * the element types of the lists.
+   */
+  private byte@NotNull[] listTypes = new byte[32];
+
+  /**
+   * if the name of the current compound entry is read.
+   */
+  private boolean named = false;
+
+  /**
+   * the peeked id.
+   */
+  private byte peeked = TagTypes.NONE.getId();
+
+  /**
+   * the remaining element counts of the lists, or {@link #COMPOUND_SCOPE} for the compounds.
+   */
+  private int@NotNull[] scopes = new int[32];
+
+  /**
+   * ctor.
+   *
+   * @param input the input.
+   */
+  public NBTReader(@NotNull final DataInput input) {
+    this(input, null);
+  }
+
+  /**
+   * ctor.
+   *
+   * @param input the input.
+   * @param keys the pool to share the names, the input has to encode the strings as its format
+   *   does.
+   */
+  public NBTReader(@NotNull final DataInput input, @Nullable final KeyPool keys) {
+    this.input = input;
+    this.stream = new NBTInputStream(input, false, keys);
+    this.scopes[0] = NBTReader.COMPOUND_SCOPE;
+  }
+
+  /**
+   * consumes the next value which has to be a compound and starts reading its entries.
+   *
+   * @throws IOException if something went wrong when reading the input.
+   */
+  public void beginCompound() throws IOException {
+    this.consume(TagTypes.COMPOUND);
+    this.push(NBTReader.COMPOUND_SCOPE, TagTypes.END.getId());
+  }
+
+  /**
+   * consumes the next value which has to be a list and starts reading its elements.
+   *
+   * @return size of the list.
+   *
+   * @throws IOException if something went wrong when reading the input.
+   * @throws IllegalArgumentException if the length is negative, or the list has elements of
+   *   {@link TagTypes#END}.
+   */
+  public int beginList() throws IOException {
+    this.consume(TagTypes.LIST);
+    final byte id = this.input.readByte();
+    final int length = this.input.readInt();
+    TagFrames.checkList(id, length);
+    this.push(length, id);
+    return length;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+    if (this.input instanceof Closeable) {
+      ((Closeable) this.input).close();
+    }
+  }
+
+  /**
+   * consumes the end of the current compound.
+   *
+   * @throws IOException if something went wrong when reading the input.
+   */
+  public void endCompound() throws IOException {
+    if (this.depth == 0 || this.inList() || this.peek() != TagTypes.END) {
+      throw new IllegalStateException(
+        String.format("Expected end of compound but was %s", this.peek())
+      );
+    }
+    this.pop();
+  }
+
+  /**
+   * consumes the end of the current list.
+   *
+   * @throws IOException if something went wrong when reading the input.
+   */
+  public void endList() throws IOException {
+    if (!this.inList() || this.peek() != TagTypes.END) {
+      throw new IllegalStateException(
+        String.format("Expected end of list but was %s", this.peek())
+      );
+    }
+    this.pop();
+  }
+
+  /**
+   * checks if the current compound or list has more values.
+   *
+   * @return {@code true} if the current compound or list has more values.
+   *
+   * @throws IOException if something went wrong when reading the input.
+   */
+  public boolean hasNext() throws IOException {
+    return this.peek() != TagTypes.END;
+  }
+
+  /**
+   * consumes the next value which has to be a byte.
+   *
+   * @return the byte.
+   *
+   * @throws IOException if something went wrong when reading the input.
+   */
+  public byte nextByte() throws IOException {
+    this.consume(TagTypes.BYTE);
+    return this.input.readByte();
+  }
+
+  /**
+   * consumes the next value which has to be a byte array.
+   *
+   * @return the byte array.
+   *
+   * @throws IOException if something went wrong when reading the input.
+   */
+  public byte@NotNull[] nextByteArray() throws IOException {
+    this.consume(TagTypes.BYTE_ARRAY);
+    return this.stream.readBytes();
+  }
+
+  /**
+   * consumes the next value which has to be a double.
+   *
+   * @return the double.
+   *
+   * @throws IOException if something went wrong when reading the input.
+   */
+  public double nextDouble() throws IOException {
+    this.consume(TagTypes.DOUBLE);
+    return this.input.readDouble();
+  }
+
+  /**
+   * consumes the next value which has to be a float.
+   *
+   * @return the float.
+   *
+   * @throws IOException if something went wrong when reading the input.
+   */
+  public float nextFloat() throws IOException {
+    this.consume(TagTypes.FLOAT);
+    return this.input.readFloat();
+  }
+
+  /**
+   * consumes the next value which has to be an int.
+   *
+   * @return the int.
+   *
+   * @throws IOException if something went wrong when reading the input.
+   */
+  public int nextInt() throws IOException {
+    this.consume(TagTypes.INT);
+    return this.input.readInt();
+  }
+
+  /**
+   * consumes the next value which has to be an int array.
+   *
+   * @return the int array.
+   *
+   * @throws IOException if something went wrong when reading the input.
+   */
+  public int@NotNull[] nextIntArray() throws IOException {
+    this.consume(TagTypes.INT_ARRAY);
+    return this.stream.readInts();
+  }
+
+  /**
+   * consumes the next value which has to be a long.
+   *
+   * @return the long.
+   *
+   * @throws IOException if something went wrong when reading the input.
+   */
+  public long nextLong() throws IOException {
+    this.consume(TagTypes.LONG);
+    return this.input.readLong();
+  }
+
+  /**
+   * consumes the next value which has to be a long array.
+   *
+   * @return the long array.
+   *
+   * @throws IOException if something went wrong when reading the input.
+   */
+  public long@NotNull[] nextLongArray() throws IOException {
+    this.consume(TagTypes.LONG_ARRAY);
+    return this.stream.readLongs();
+  }
+
+  /**
+   * consumes the name of the next compound entry.
+   *
+   * @return the name.
+   *
+   * @throws IOException if something went wrong when reading the input.
+   */
+  @NotNull
+  public String nextName() throws IOException {
+    final TagTypes type = this.peek();
+    if (this.inList() || this.named || type == TagTypes.END) {
+      throw new IllegalStateException(String.format("Expected a name but was %s", type));
+    }
+    this.named = true;
+    return this.stream.readKey();
+  }
+
+  /**
+   * consumes the next value which has to be a short.
+   *
+   * @return the short.
+   *
+   * @throws IOException if something went wrong when reading the input.
+   */
+  public short nextShort() throws IOException {
+    this.consume(TagTypes.SHORT);
+    return this.input.readShort();
+  }
+
+  /**
+   * consumes the next value which has to be a string.
+   *
+   * @return the string.
+   *
+   * @throws IOException if something went wrong when reading the input.
+   */
+  @NotNull
+  public String nextString() throws IOException {
+    this.consume(TagTypes.STRING);
+    return this.input.readUTF();
+  }
+
+  /**
+   * consumes the next value as a tag.
+   *
+   * @return the tag.
+   *
+   * @throws IOException if something went wrong when reading the input.
+   */
+  @NotNull
+  public Tag nextTag() throws IOException {
+    final TagTypes type = this.peek();
+    if (type == TagTypes.END) {
+      throw new IllegalStateException("Expected a value but was END");
+    }
+    this.consume(type);
+    return this.stream.read(type.getId());
+  }
+
+  /**
+   * obtains type of the next value without consuming it.
+   *
+   * @return type of the next value, or {@link TagTypes#END} if the current compound or list has no
+   *   more values.
+   *
+   * @throws IOException if something went wrong when reading the input.
+   */
+  @NotNull
+  public TagTypes peek() throws IOException {
+    if (this.closed) {
+      throw new IllegalStateException("Trying to read from a closed reader!");
+    }
+    if (this.peeked == TagTypes.NONE.getId()) {
+      if (!this.inList()) {
+        try {
+          this.peeked = this.input.readByte();
+        } catch (final EOFException e) {
+          this.peeked = TagTypes.END.getId();
+        }
+      } else if (this.scopes[this.depth] == 0) {
+        this.peeked = TagTypes.END.getId();
+      } else {
+        this.peeked = this.listTypes[this.depth];
+      }
+    }
+    return TagTypes.byId(this.peeked);
+  }
+
+  /**
+   * skips the next value, with its name if it is not consumed yet.
+   *
+   * @throws IOException if something went wrong when reading the input.
+   */
+  public void skipValue() throws IOException {
+    final TagTypes type = this.peek();
+    if (type == TagTypes.END) {
+      throw new IllegalStateException("Expected a value but was END");
+    }
+    if (!this.inList() && !this.named) {
+      this.nextName();
+    }
+    this.consume(type);
+    this.stream.skip(type.getId());
+  }
+
+  /**
+   * consumes the next value's type.
+   *
+   * @param type the type to consume.
+   *
+   * @throws IOException if something went wrong when reading the input.
+   */
+  private void consume(@NotNull final TagTypes type) throws IOException {
+    final TagTypes next = this.peek();
+    if (next != type || next == TagTypes.END) {
+      throw new IllegalStateException(String.format("Expected %s but was %s", type, next));
+    }
+    if (this.inList()) {
+      this.scopes[this.depth]--;
+    } else if (!this.named) {
+      throw new IllegalStateException(String.format("Expected a name but was %s", type));
+    }
+    this.peeked = TagTypes.NONE.getId();
+    this.named = false;
+  }
+
+  /**
+   * checks if the current scope is a list.
+   *
+   * @return {@code true} if the current scope is a list.
+   */
+  private boolean inList() {
+    return this.scopes[this.depth] != NBTReader.COMPOUND_SCOPE;
+  }
+
+  /**
+   * pops the current scope.
+   */
+  private void pop() {
+    this.peeked = TagTypes.NONE.getId();
+    this.depth--;
+  }
+
+  /**
+   * pushes a new scope.
+   *
+   * @param scope the scope to push.
+   * @param listType the list type to push.
+   */
+  private void push(final int scope, final byte listType) {
+    if (++this.depth == this.scopes.length) {
+      this.scopes = Arrays.copyOf(this.scopes, this.depth * 2);
+      this.listTypes = Arrays.copyOf(this.listTypes, this.depth * 2);
+    }
+    this.scopes[this.depth] = scope;
+    this.listTypes[this.depth] = listType;
+  }
+}
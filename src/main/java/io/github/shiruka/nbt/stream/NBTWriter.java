@@ -0,0 +1,406 @@
+package io.github.shiruka.nbt.stream;
+
+import io.github.shiruka.nbt.Tag;
+import io.github.shiruka.nbt.TagTypes;
+import io.netty.buffer.ByteBuf;
+import java.io.Closeable;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a push writer to write named binary tags token by token, without building the tags.
+ * <p>
+ * the top level and the compounds contain named values, so their values are preceded by
+ * {@link #name(String)}. the lists are started with their element type and size, and each value
+ * which is written into a list is checked against them.
+ * <pre>
+ *   writer.name("");
+ *   writer.beginCompound();
+ *   writer.name("DataVersion");
+ *   writer.writeInt(3465);
+ *   writer.name("Pos");
+ *   writer.beginList(TagTypes.DOUBLE, 3);
+ *   writer.writeDouble(x);
+ *   writer.writeDouble(y);
+ *   writer.writeDouble(z);
+ *   writer.endList();
+ *   writer.endCompound();
+ * </pre>
+ */
+public final class NBTWriter implements Closeable {
+
+  /**
+   * the scope value of the compounds.
+   */
+  private static final int COMPOUND_SCOPE = -1;
+
+  /**
+   * the output.
+   */
+  @NotNull
+  private DataOutput output;
+
+  /**
+   * the stream to write values.
+   */
+  @NotNull
+  private final NBTOutputStream stream;
+
+  /**
+   * if the writer closed.
+   */
+  private boolean closed = false;
+
+  /**
+   * the current depth.
+   */
+  private int depth = 0;
+
+  /**
+   * the element types of the lists.
+   */
+  private byte@NotNull[] listTypes = new byte[32];
+
+  /**
+   * the name of the next compound entry.
+   */
+  @Nullable
+  private String name;
+
+  /**
+   * the remaining element counts of the lists, or {@link #COMPOUND_SCOPE} for the compounds.
+   */
+  private int@NotNull[] scopes = new int[32];
+
+  /**
+   * ctor.
+   *
+   * @param output the output.
+   */
+  public NBTWriter(@NotNull final DataOutput output) {
+    this(output, null);
+  }
+
+  /**
+   * ctor.
+   *
+   * @param output the output.
+   * @param keys the cache of the encoded compound keys, the output has to encode the strings as its
+   *   format does.
+   */
+  public NBTWriter(@NotNull final DataOutput output, @Nullable final KeyCache keys) {
+    this.output = output;
+    this.stream = new NBTOutputStream(output, keys);
+    this.scopes[0] = NBTWriter.COMPOUND_SCOPE;
+  }
+
+  /**
+   * starts a compound as the next value.
+   *
+   * @throws IOException if something went wrong when writing into the output.
+   */
+  public void beginCompound() throws IOException {
+    this.begin(TagTypes.COMPOUND);
+    this.push(NBTWriter.COMPOUND_SCOPE, TagTypes.END.getId());
+  }
+
+  /**
+   * starts a list as the next value.
+   *
+   * @param type the type of the elements.
+   * @param size the size of the list, which has to be the count of the elements which are written.
+   *
+   * @throws IOException if something went wrong when writing into the output.
+   */
+  public void beginList(@NotNull final TagTypes type, final int size) throws IOException {
+    if (size < 0) {
+      throw new IllegalArgumentException(String.format("Negative list size %s", size));
+    }
+    if (type == TagTypes.NONE || type == TagTypes.ALL || type == TagTypes.END && size > 0) {
+      throw new IllegalArgumentException(String.format("Invalid list type %s", type));
+    }
+    this.begin(TagTypes.LIST);
+    this.output.writeByte(type.getId());
+    this.output.writeInt(size);
+    this.push(size, type.getId());
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+    if (this.output instanceof Closeable) {
+      ((Closeable) this.output).close();
+    }
+  }
+
+  /**
+   * ends the current compound.
+   *
+   * @throws IOException if something went wrong when writing into the output.
+   */
+  public void endCompound() throws IOException {
+    if (this.depth == 0 || this.inList() || this.name != null) {
+      throw new IllegalStateException("Expected a compound without a pending name");
+    }
+    this.output.writeByte(TagTypes.END.getId());
+    this.depth--;
+  }
+
+  /**
+   * ends the current list.
+   */
+  public void endList() {
+    if (!this.inList() || this.scopes[this.depth] != 0) {
+      throw new IllegalStateException(
+        this.inList()
+          ? String.format("Expected %s more elements", this.scopes[this.depth])
+          : "Expected a list"
+      );
+    }
+    this.depth--;
+  }
+
+  /**
+   * sets the name of the next compound entry.
+   *
+   * @param name the name to set.
+   */
+  public void name(@NotNull final String name) {
+    if (this.inList() || this.name != null) {
+      throw new IllegalStateException(String.format("Unexpected name %s", name));
+    }
+    this.name = name;
+  }
+
+  /**
+   * moves the writer to the given buffer, discards the unfinished values and reopens the writer if
+   * it is closed.
+   *
+   * @param buffer the buffer to write.
+   *
+   * @throws IllegalStateException if the output is not a {@link ByteBufDataOutput}.
+   */
+  public void reset(@NotNull final ByteBuf buffer) {
+    this.stream.reset(buffer);
+    this.clear();
+  }
+
+  /**
+   * moves the writer to the given output, discards the unfinished values and reopens the writer if
+   * it is closed.
+   *
+   * @param output the output to write, which has to write the same format.
+   */
+  public void reset(@NotNull final DataOutput output) {
+    this.stream.reset(output);
+    this.output = output;
+    this.clear();
+  }
+
+  /**
+   * writes a byte as the next value.
+   *
+   * @param value the value to write.
+   *
+   * @throws IOException if something went wrong when writing into the output.
+   */
+  public void writeByte(final byte value) throws IOException {
+    this.begin(TagTypes.BYTE);
+    this.output.writeByte(value);
+  }
+
+  /**
+   * writes a byte array as the next value.
+   *
+   * @param value the value to write.
+   *
+   * @throws IOException if something went wrong when writing into the output.
+   */
+  public void writeByteArray(final byte@NotNull[] value) throws IOException {
+    this.begin(TagTypes.BYTE_ARRAY);
+    this.stream.writeBytes(value);
+  }
+
+  /**
+   * writes a double as the next value.
+   *
+   * @param value the value to write.
+   *
+   * @throws IOException if something went wrong when writing into the output.
+   */
+  public void writeDouble(final double value) throws IOException {
+    this.begin(TagTypes.DOUBLE);
+    this.output.writeDouble(value);
+  }
+
+  /**
+   * writes a float as the next value.
+   *
+   * @param value the value to write.
+   *
+   * @throws IOException if something went wrong when writing into the output.
+   */
+  public void writeFloat(final float value) throws IOException {
+    this.begin(TagTypes.FLOAT);
+    this.output.writeFloat(value);
+  }
+
+  /**
+   * writes an int as the next value.
+   *
+   * @param value the value to write.
+   *
+   * @throws IOException if something went wrong when writing into the output.
+   */
+  public void writeInt(final int value) throws IOException {
+    this.begin(TagTypes.INT);
+    this.output.writeInt(value);
+  }
+
+  /**
+   * writes an int array as the next value.
+   *
+   * @param value the value to write.
+   *
+   * @throws IOException if something went wrong when writing into the output.
+   */
+  public void writeIntArray(final int@NotNull[] value) throws IOException {
+    this.begin(TagTypes.INT_ARRAY);
+    this.stream.writeInts(value);
+  }
+
+  /**
+   * writes a long as the next value.
+   *
+   * @param value the value to write.
+   *
+   * @throws IOException if something went wrong when writing into the output.
+   */
+  public void writeLong(final long value) throws IOException {
+    this.begin(TagTypes.LONG);
+    this.output.writeLong(value);
+  }
+
+  /**
+   * writes a long array as the next value.
+   *
+   * @param value the value to write.
+   *
+   * @throws IOException if something went wrong when writing into the output.
+   */
+  public void writeLongArray(final long@NotNull[] value) throws IOException {
+    this.begin(TagTypes.LONG_ARRAY);
+    this.stream.writeLongs(value);
+  }
+
+  /**
+   * writes a short as the next value.
+   *
+   * @param value the value to write.
+   *
+   * @throws IOException if something went wrong when writing into the output.
+   */
+  public void writeShort(final short value) throws IOException {
+    this.begin(TagTypes.SHORT);
+    this.output.writeShort(value);
+  }
+
+  /**
+   * writes a string as the next value.
+   *
+   * @param value the value to write.
+   *
+   * @throws IOException if something went wrong when writing into the output.
+   */
+  public void writeString(@NotNull final String value) throws IOException {
+    this.begin(TagTypes.STRING);
+    this.output.writeUTF(value);
+  }
+
+  /**
+   * writes a tag as the next value.
+   *
+   * @param value the value to write.
+   *
+   * @throws IOException if something went wrong when writing into the output.
+   */
+  public void writeTag(@NotNull final Tag value) throws IOException {
+    if (value.getType() == TagTypes.END) {
+      throw new IllegalArgumentException("END cannot be written as a value");
+    }
+    this.begin(value.getType());
+    this.stream.write(value);
+  }
+
+  /**
+   * writes the header of the next value after checking it is expected.
+   * <p>
+   * the values in compounds are written with their types and names, and the values in lists are
+   * checked against the element type and the remaining size of the list.
+   *
+   * @param type the type of the value.
+   *
+   * @throws IOException if something went wrong when writing into the output.
+   */
+  private void begin(@NotNull final TagTypes type) throws IOException {
+    if (this.closed) {
+      throw new IllegalStateException("Trying to write into a closed writer!");
+    }
+    if (this.inList()) {
+      final TagTypes expected = this.scopes[this.depth] == 0
+        ? TagTypes.END
+        : TagTypes.byId(this.listTypes[this.depth]);
+      if (type != expected) {
+        throw new IllegalStateException(String.format("Expected %s but was %s", expected, type));
+      }
+      this.scopes[this.depth]--;
+      return;
+    }
+    final String key = this.name;
+    if (key == null) {
+      throw new IllegalStateException(String.format("Expected a name but was %s", type));
+    }
+    this.output.writeByte(type.getId());
+    this.stream.writeKey(key);
+    this.name = null;
+  }
+
+  /**
+   * clears the scopes and the pending name.
+   */
+  private void clear() {
+    this.closed = false;
+    this.depth = 0;
+    this.name = null;
+  }
+
+  /**
+   * checks if the current scope is a list.
+   *
+   * @return {@code true} if the current scope is a list.
+   */
+  private boolean inList() {
+    return this.scopes[this.depth] != NBTWriter.COMPOUND_SCOPE;
+  }
+
+  /**
+   * pushes a new scope.
+   *
+   * @param scope the scope to push.
+   * @param listType the list type to push.
+   */
+  private void push(final int scope, final byte listType) {
+    if (++this.depth == this.scopes.length) {
+      this.scopes = Arrays.copyOf(this.scopes, this.depth * 2);
+      this.listTypes = Arrays.copyOf(this.listTypes, this.depth * 2);
+    }
+    this.scopes[this.depth] = scope;
+    this.listTypes[this.depth] = listType;
+  }
+}
@@ -0,0 +1,44 @@
+package io.github.shiruka.nbt.stream;
+
+import io.github.shiruka.nbt.VarInts;
+import io.netty.buffer.ByteBuf;
+import java.io.IOException;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * an implementation for {@link LittleEndianByteBufInputStream} that reads the var ints of the
+ * network format directly from the buffer with {@link VarInts}.
+ */
+public final class NetworkByteBufInputStream extends LittleEndianByteBufInputStream {
+
+  /**
+   * ctor.
+   *
+   * @param buffer the buffer.
+   */
+  public NetworkByteBufInputStream(@NotNull final ByteBuf buffer) {
+    super(buffer);
+  }
+
+  @NotNull
+  @Override
+  public NBTFormat format() {
+    return NBTFormat.NETWORK;
+  }
+
+  @Override
+  public int readInt() {
+    return VarInts.readInt(this.buffer);
+  }
+
+  @Override
+  public long readLong() {
+    return VarInts.readLong(this.buffer);
+  }
+
+  @NotNull
+  @Override
+  public String readUTF() throws IOException {
+    return this.readUTF(VarInts.readUnsignedInt(this.buffer));
+  }
+}
@@ -0,0 +1,44 @@
+package io.github.shiruka.nbt.stream;
+
+import io.github.shiruka.nbt.VarInts;
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * an implementation for {@link LittleEndianByteBufOutputStream} that writes the var ints of the
+ * network format directly into the buffer with {@link VarInts}.
+ */
+public final class NetworkByteBufOutputStream extends LittleEndianByteBufOutputStream {
+
+  /**
+   * ctor.
+   *
+   * @param buffer the buffer.
+   */
+  public NetworkByteBufOutputStream(@NotNull final ByteBuf buffer) {
+    super(buffer);
+  }
+
+  @NotNull
+  @Override
+  public NBTFormat format() {
+    return NBTFormat.NETWORK;
+  }
+
+  @Override
+  public void writeInt(final int v) {
+    VarInts.writeInt(this.buffer, v);
+  }
+
+  @Override
+  public void writeLong(final long v) {
+    VarInts.writeLong(this.buffer, v);
+  }
+
+  @Override
+  public void writeUTF(@NotNull final String s) {
+    final int length = Utf8.length(s);
+    VarInts.writeUnsignedInt(this.buffer, length);
+    this.writeUTF(s, length);
+  }
+}
@@ -4,7 +4,6 @@ import io.github.shiruka.nbt.VarInts;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -30,6 +29,12 @@ public final class NetworkDataInputStream extends LittleEndianDataInputStream {
     super(stream);
   }
 
+  @NotNull
+  @Override
+  public NBTFormat format() {
+    return NBTFormat.NETWORK;
+  }
+
   @Override
   public int readInt() throws IOException {
     return VarInts.readInt(this.stream);
@@ -43,9 +48,6 @@ public final class NetworkDataInputStream extends LittleEndianDataInputStream {
   @NotNull
   @Override
   public String readUTF() throws IOException {
-    final int length = VarInts.readUnsignedInt(this.stream);
-    final byte[] bytes = new byte[length];
-    this.readFully(bytes);
-    return new String(bytes, StandardCharsets.UTF_8);
+    return this.readUTF(VarInts.readUnsignedInt(this.stream));
   }
 }
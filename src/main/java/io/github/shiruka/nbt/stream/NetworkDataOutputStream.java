@@ -4,7 +4,6 @@ import io.github.shiruka.nbt.VarInts;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -12,6 +11,11 @@ import org.jetbrains.annotations.NotNull;
  */
 public final class NetworkDataOutputStream extends LittleEndianDataOutputStream {
 
+  /**
+   * the scratch buffer to encode var ints, so they are written at once.
+   */
+  private final byte@NotNull[] varInt = new byte[10];
+
   /**
    * ctor.
    *
@@ -30,20 +34,41 @@ public final class NetworkDataOutputStream extends LittleEndianDataOutputStream
     super(stream);
   }
 
+  @NotNull
+  @Override
+  public NBTFormat format() {
+    return NBTFormat.NETWORK;
+  }
+
   @Override
   public void writeInt(final int v) throws IOException {
-    VarInts.writeInt(this.stream, v);
+    this.writeUnsignedVarInt((v << 1 ^ v >> 31) & 0xFFFFFFFFL);
   }
 
   @Override
   public void writeLong(final long v) throws IOException {
-    VarInts.writeLong(this.stream, v);
+    this.writeUnsignedVarInt(v << 1 ^ v >> 63);
   }
 
   @Override
   public void writeUTF(@NotNull final String s) throws IOException {
-    final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
-    VarInts.writeUnsignedInt(this.stream, bytes.length);
-    this.write(bytes);
+    final int length = Utf8.length(s);
+    this.writeUnsignedVarInt(length);
+    this.writeUTF(s, length);
+  }
+
+  /**
+   * encodes the given value into the scratch buffer and writes it at once.
+   *
+   * @param value the value to write.
+   *
+   * @throws IOException if something went wrong when writing to the stream.
+   */
+  private void writeUnsignedVarInt(final long value) throws IOException {
+    if ((value & ~0x7FL) == 0) {
+      this.stream.writeByte((int) value);
+      return;
+    }
+    this.stream.write(this.varInt, 0, VarInts.writeUnsignedInt(this.varInt, 0, value));
   }
 }
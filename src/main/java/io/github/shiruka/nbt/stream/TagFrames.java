@@ -0,0 +1,345 @@
+package io.github.shiruka.nbt.stream;
+
+import io.github.shiruka.nbt.CompoundTag;
+import io.github.shiruka.nbt.Tag;
+import io.github.shiruka.nbt.TagTypes;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that keeps the compound and list tags which are being read in a reusable stack instead of
+ * the call stack, so deeply nested tags do not overflow the stack.
+ * <p>
+ * the stack is shared by {@link NBTInputStream}, {@link NBTByteArrayDecoder} and
+ * {@link NBTIncrementalDecoder}, which only differ in how they read the values, see
+ * {@link Source}.
+ */
+final class TagFrames {
+
+  /**
+   * the max initial capacity of the lists, so a corrupted length does not allocate a huge array.
+   */
+  private static final int MAX_INITIAL_CAPACITY = 1024;
+
+  /**
+   * the count of the frames in use.
+   */
+  private int depth;
+
+  /**
+   * the frames of the compound and list tags which are being read.
+   */
+  private Frame@NotNull[] frames = new Frame[16];
+
+  /**
+   * checks the header of a list tag.
+   *
+   * @param elementId the element id of the list.
+   * @param length the length of the list.
+   *
+   * @throws IllegalArgumentException if the length is negative, or the list has elements of
+   *   {@link TagTypes#END}.
+   */
+  static void checkList(final byte elementId, final int length) {
+    if (length < 0) {
+      throw new IllegalArgumentException("Negative list length " + length);
+    }
+    if (elementId == TagTypes.END.getId() && length > 0) {
+      throw new IllegalArgumentException("Unknown type " + elementId);
+    }
+  }
+
+  /**
+   * adds the given tag into the top frame.
+   *
+   * @param key the key of the tag, if the top frame is a compound.
+   * @param tag the tag to add.
+   */
+  void add(@Nullable final String key, @NotNull final Tag tag) {
+    this.frames[this.depth - 1].add(key, tag);
+  }
+
+  /**
+   * clears the frames above the given depth to reuse them.
+   *
+   * @param base the depth to clear to.
+   */
+  void clear(final int base) {
+    while (this.depth > base) {
+      this.frames[--this.depth].clear();
+    }
+  }
+
+  /**
+   * obtains the count of the frames in use.
+   *
+   * @return depth.
+   */
+  int depth() {
+    return this.depth;
+  }
+
+  /**
+   * checks if the top frame is a compound.
+   *
+   * @return {@code true} if the top frame is a compound.
+   */
+  boolean isCompound() {
+    return this.frames[this.depth - 1].compound != null;
+  }
+
+  /**
+   * obtains the id of the next element of the top list.
+   *
+   * @return element id, or {@link TagTypes#END} if the list has no more elements.
+   */
+  byte nextElementId() {
+    final Frame frame = this.frames[this.depth - 1];
+    if (frame.remaining == 0) {
+      return TagTypes.END.getId();
+    }
+    frame.remaining--;
+    return frame.elementId;
+  }
+
+  /**
+   * completes the top frame and adds its tag into its parent.
+   *
+   * @param base the depth of the root's parent.
+   *
+   * @return the completed tag if it is the root, otherwise {@code null}.
+   */
+  @Nullable
+  Tag pop(final int base) {
+    final Frame frame = this.frames[--this.depth];
+    final Tag tag = frame.compound != null
+      ? frame.compound
+      : Tag.createList(Objects.requireNonNull(frame.list, "list"));
+    final String key = frame.key;
+    frame.clear();
+    if (this.depth == base) {
+      return tag;
+    }
+    this.add(key, tag);
+    return null;
+  }
+
+  /**
+   * pushes a frame of the given container id.
+   *
+   * @param id the id of the container.
+   * @param key the key of the container in its parent compound.
+   * @param elementId the element id, if the container is a list.
+   * @param length the length, if the container is a list.
+   *
+   * @throws IllegalArgumentException if the container is a list and its header is invalid, see
+   *   {@link #checkList(byte, int)}.
+   */
+  void push(final byte id, @Nullable final String key, final byte elementId, final int length) {
+    if (id != TagTypes.COMPOUND.getId()) {
+      TagFrames.checkList(elementId, length);
+    }
+    if (this.depth == this.frames.length) {
+      this.frames = Arrays.copyOf(this.frames, this.depth << 1);
+    }
+    Frame frame = this.frames[this.depth];
+    if (frame == null) {
+      frame = new Frame();
+      this.frames[this.depth] = frame;
+    }
+    frame.key = key;
+    if (id == TagTypes.COMPOUND.getId()) {
+      frame.compound = Tag.createCompound();
+    } else {
+      frame.elementId = elementId;
+      frame.remaining = length;
+      frame.list = new ArrayList<>(Math.min(length, TagFrames.MAX_INITIAL_CAPACITY));
+    }
+    this.depth++;
+  }
+
+  /**
+   * reads the compound or list tag of the given id from the given source without recursion.
+   *
+   * @param id the id of the container to read.
+   * @param source the source to read.
+   * @param lazy if the compound children are read by {@link Source#read(byte)} instead of being
+   *   walked into.
+   *
+   * @return container tag.
+   *
+   * @throws IOException if something went wrong when reading the given source.
+   */
+  @NotNull
+  Tag read(final byte id, @NotNull final Source source, final boolean lazy) throws IOException {
+    final int base = this.depth;
+    try {
+      this.push(id, null, source);
+      while (true) {
+        final byte childId;
+        String key = null;
+        if (this.isCompound()) {
+          childId = source.readId();
+          if (childId != TagTypes.END.getId()) {
+            key = source.readKey();
+          }
+        } else {
+          childId = this.nextElementId();
+        }
+        if (childId == TagTypes.END.getId()) {
+          final Tag done = this.pop(base);
+          if (done != null) {
+            return done;
+          }
+        } else if (
+          childId == TagTypes.LIST.getId() ||
+          childId == TagTypes.COMPOUND.getId() && !lazy
+        ) {
+          this.push(childId, key, source);
+        } else {
+          this.add(key, source.read(childId));
+        }
+      }
+    } finally {
+      this.clear(base);
+    }
+  }
+
+  /**
+   * pushes a frame of the given container id, reading the header of the list tags from the given
+   * source.
+   *
+   * @param id the id of the container.
+   * @param key the key of the container in its parent compound.
+   * @param source the source to read.
+   *
+   * @throws IOException if something went wrong when reading the given source.
+   */
+  private void push(final byte id, @Nullable final String key, @NotNull final Source source)
+    throws IOException {
+    if (id == TagTypes.COMPOUND.getId()) {
+      this.push(id, key, TagTypes.END.getId(), 0);
+    } else {
+      final byte elementId = source.readByte();
+      this.push(id, key, elementId, source.readInt());
+    }
+  }
+
+  /**
+   * an interface to determine the reads of the sources which are read by
+   * {@link #read(byte, Source, boolean)}.
+   */
+  interface Source {
+    /**
+     * reads the tag of the given id which is not a container that is being walked into.
+     *
+     * @param id the id to read.
+     *
+     * @return tag.
+     *
+     * @throws IOException if something went wrong when reading the source.
+     */
+    @NotNull
+    Tag read(byte id) throws IOException;
+
+    /**
+     * reads a byte of a list header.
+     *
+     * @return byte.
+     *
+     * @throws IOException if something went wrong when reading the source.
+     */
+    byte readByte() throws IOException;
+
+    /**
+     * reads the id of the next entry of a compound.
+     *
+     * @return id, or {@link TagTypes#END} if the source ends.
+     *
+     * @throws IOException if something went wrong when reading the source.
+     */
+    byte readId() throws IOException;
+
+    /**
+     * reads an int of a list header.
+     *
+     * @return int.
+     *
+     * @throws IOException if something went wrong when reading the source.
+     */
+    int readInt() throws IOException;
+
+    /**
+     * reads the key of a compound entry.
+     *
+     * @return key.
+     *
+     * @throws IOException if something went wrong when reading the source.
+     */
+    @NotNull
+    String readKey() throws IOException;
+  }
+
+  /**
+   * a class that represents compound and list tags which are being read.
+   */
+  private static final class Frame {
+
+    /**
+     * the compound.
+     */
+    @Nullable
+    private CompoundTag compound;
+
+    /**
+     * the element id of the list.
+     */
+    private byte elementId;
+
+    /**
+     * the key of the container in its parent compound.
+     */
+    @Nullable
+    private String key;
+
+    /**
+     * the list.
+     */
+    @Nullable
+    private List<Tag> list;
+
+    /**
+     * the remaining count of the list's elements.
+     */
+    private int remaining;
+
+    /**
+     * adds the given tag into the container.
+     *
+     * @param key the key of the tag, if the container is a compound.
+     * @param tag the tag to add.
+     */
+    private void add(@Nullable final String key, @NotNull final Tag tag) {
+      if (this.compound != null) {
+        this.compound.set(Objects.requireNonNull(key, "key"), tag);
+      } else {
+        Objects.requireNonNull(this.list, "list").add(tag);
+      }
+    }
+
+    /**
+     * clears the frame to reuse it.
+     */
+    private void clear() {
+      this.compound = null;
+      this.key = null;
+      this.list = null;
+      this.remaining = 0;
+    }
+  }
+}
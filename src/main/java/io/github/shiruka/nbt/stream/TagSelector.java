@@ -0,0 +1,241 @@
+package io.github.shiruka.nbt.stream;
+
+import io.github.shiruka.nbt.Tag;
+import io.github.shiruka.nbt.TagTypes;
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents compiled key paths to read only the selected values of a compound tag,
+ * skipping everything else in the input.
+ * <p>
+ * keys of a path are separated by dots and {@code [*]} selects every element of a list, such as
+ * {@code Level.xPos}, {@code Level.Sections[*].Y} and {@code DataVersion}. the paths which select
+ * list elements result in a list tag that contains every matched value.
+ */
+public final class TagSelector {
+
+  /**
+   * the root.
+   */
+  @NotNull
+  private final Node root;
+
+  /**
+   * ctor.
+   *
+   * @param root the root.
+   */
+  private TagSelector(@NotNull final Node root) {
+    this.root = root;
+  }
+
+  /**
+   * compiles the given paths.
+   *
+   * @param paths the paths to compile.
+   *
+   * @return a new tag selector instance.
+   *
+   * @throws IllegalArgumentException if a path is not valid.
+   */
+  @NotNull
+  public static TagSelector of(@NotNull final String... paths) {
+    return TagSelector.of(Arrays.asList(paths));
+  }
+
+  /**
+   * compiles the given paths.
+   *
+   * @param paths the paths to compile.
+   *
+   * @return a new tag selector instance.
+   *
+   * @throws IllegalArgumentException if a path is not valid.
+   */
+  @NotNull
+  public static TagSelector of(@NotNull final Collection<String> paths) {
+    final Node root = new Node();
+    for (final String path : paths) {
+      Node node = root;
+      boolean multiple = false;
+      for (final String segment : path.split("\\.", -1)) {
+        final int bracket = segment.indexOf('[');
+        final String key = bracket == -1 ? segment : segment.substring(0, bracket);
+        if (key.isEmpty()) {
+          throw new IllegalArgumentException(String.format("Invalid path %s", path));
+        }
+        node = node.keys.computeIfAbsent(key, k -> new Node());
+        if (bracket == -1) {
+          continue;
+        }
+        final String suffix = segment.substring(bracket);
+        if (!suffix.matches("(\\[\\*])+")) {
+          throw new IllegalArgumentException(String.format("Invalid path %s", path));
+        }
+        for (int i = 0; i < suffix.length() / 3; i++) {
+          if (node.any == null) {
+            node.any = new Node();
+          }
+          node = node.any;
+        }
+        multiple = true;
+      }
+      node.path = path;
+      node.multiple = multiple;
+    }
+    return new TagSelector(root);
+  }
+
+  /**
+   * reads the compound tag from the given stream and collects the selected values.
+   *
+   * @param stream the stream to read.
+   *
+   * @return selected values by their paths, the paths which do not match anything are absent.
+   *
+   * @throws IOException if something went wrong when reading the given stream.
+   */
+  @NotNull
+  public Map<String, Tag> select(@NotNull final NBTInputStream stream) throws IOException {
+    final Map<Node, List<Tag>> matches = new IdentityHashMap<>();
+    this.selectCompoundTag(stream, this.root, matches);
+    final Map<String, Tag> result = new HashMap<>();
+    matches.forEach((node, tags) ->
+      result.put(node.path, node.multiple ? Tag.createList(tags) : tags.get(0))
+    );
+    return result;
+  }
+
+  /**
+   * collects the given tag and its selected descendants.
+   *
+   * @param node the node to collect.
+   * @param tag the tag to collect.
+   * @param matches the matches to collect.
+   */
+  private void collect(
+    @NotNull final Node node,
+    @NotNull final Tag tag,
+    @NotNull final Map<Node, List<Tag>> matches
+  ) {
+    if (node.path != null) {
+      matches.computeIfAbsent(node, key -> new ArrayList<>()).add(tag);
+    }
+    if (!node.keys.isEmpty() && tag.isCompound()) {
+      node.keys.forEach((key, child) ->
+        tag.asCompound().get(key).ifPresent(value -> this.collect(child, value, matches))
+      );
+    }
+    if (node.any != null && tag.isList()) {
+      for (final Tag element : tag.asList()) {
+        this.collect(node.any, element, matches);
+      }
+    }
+  }
+
+  /**
+   * reads the tag of the given id from the given stream and collects its selected values.
+   *
+   * @param stream the stream to read.
+   * @param node the node to select.
+   * @param id the id to read.
+   * @param matches the matches to collect.
+   *
+   * @throws IOException if something went wrong when reading the given stream.
+   */
+  private void select(
+    @NotNull final NBTInputStream stream,
+    @NotNull final Node node,
+    final byte id,
+    @NotNull final Map<Node, List<Tag>> matches
+  ) throws IOException {
+    if (node.path != null) {
+      this.collect(node, stream.read(id), matches);
+    } else if (id == TagTypes.COMPOUND.getId() && !node.keys.isEmpty()) {
+      this.selectCompoundTag(stream, node, matches);
+    } else if (id == TagTypes.LIST.getId() && node.any != null) {
+      final DataInput input = stream.input();
+      final byte listId = input.readByte();
+      final int length = input.readInt();
+      for (int i = 0; i < length; i++) {
+        this.select(stream, node.any, listId, matches);
+      }
+    } else {
+      stream.skip(id);
+    }
+  }
+
+  /**
+   * reads the compound tag from the given stream and collects its selected values.
+   *
+   * @param stream the stream to read.
+   * @param node the node to select.
+   * @param matches the matches to collect.
+   *
+   * @throws IOException if something went wrong when reading the given stream.
+   */
+  private void selectCompoundTag(
+    @NotNull final NBTInputStream stream,
+    @NotNull final Node node,
+    @NotNull final Map<Node, List<Tag>> matches
+  ) throws IOException {
+    final DataInput input = stream.input();
+    while (true) {
+      final byte id;
+      try {
+        id = input.readByte();
+      } catch (final EOFException e) {
+        break;
+      }
+      if (id == TagTypes.END.getId()) {
+        break;
+      }
+      final Node child = node.keys.get(stream.readKey());
+      if (child == null) {
+        stream.skip(id);
+      } else {
+        this.select(stream, child, id, matches);
+      }
+    }
+  }
+
+  /**
+   * a class that represents a key of the compiled paths.
+   */
+  private static final class Node {
+
+    /**
+     * the children by their keys.
+     */
+    @NotNull
+    private final Map<String, Node> keys = new HashMap<>();
+
+    /**
+     * the child that matches every element of a list.
+     */
+    @Nullable
+    private Node any;
+
+    /**
+     * if the path selects list elements.
+     */
+    private boolean multiple;
+
+    /**
+     * the path that ends at this node.
+     */
+    @Nullable
+    private String path;
+  }
+}
@@ -0,0 +1,126 @@
+package io.github.shiruka.nbt.stream;
+
+import io.github.shiruka.nbt.TagTypes;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * an interface to determine visitors which receive the values of named binary tags while they are
+ * being read by {@link NBTInputStream#accept(byte, TagVisitor)}, without creating any tag.
+ * <p>
+ * compounds and lists start with {@link #visitCompoundStart()} and {@link #visitListStart(TagTypes,
+ * int)}, and end with {@link #visitEnd()}, unless they are skipped.
+ */
+public interface TagVisitor {
+  /**
+   * visits a byte.
+   *
+   * @param value the value to visit.
+   */
+  default void visitByte(final byte value) {}
+
+  /**
+   * visits a byte array.
+   *
+   * @param value the value to visit.
+   */
+  default void visitByteArray(final byte@NotNull[] value) {}
+
+  /**
+   * visits start of a compound.
+   *
+   * @return {@link VisitResult#SKIP} to skip the entire compound, in that case {@link #visitEnd()}
+   *   is not called for it.
+   */
+  @NotNull
+  default VisitResult visitCompoundStart() {
+    return VisitResult.CONTINUE;
+  }
+
+  /**
+   * visits a double.
+   *
+   * @param value the value to visit.
+   */
+  default void visitDouble(final double value) {}
+
+  /**
+   * visits end of a compound or a list.
+   */
+  default void visitEnd() {}
+
+  /**
+   * visits a float.
+   *
+   * @param value the value to visit.
+   */
+  default void visitFloat(final float value) {}
+
+  /**
+   * visits an int.
+   *
+   * @param value the value to visit.
+   */
+  default void visitInt(final int value) {}
+
+  /**
+   * visits an int array.
+   *
+   * @param value the value to visit.
+   */
+  default void visitIntArray(final int@NotNull[] value) {}
+
+  /**
+   * visits key of a compound entry before its value.
+   *
+   * @param key the key to visit.
+   * @param type the type of the entry's value.
+   *
+   * @return {@link VisitResult#SKIP} to skip the entry's value.
+   */
+  @NotNull
+  default VisitResult visitKey(@NotNull final String key, @NotNull final TagTypes type) {
+    return VisitResult.CONTINUE;
+  }
+
+  /**
+   * visits start of a list.
+   *
+   * @param type the type of the list's elements.
+   * @param size the size of the list.
+   *
+   * @return {@link VisitResult#SKIP} to skip the entire list, in that case {@link #visitEnd()} is
+   *   not called for it.
+   */
+  @NotNull
+  default VisitResult visitListStart(@NotNull final TagTypes type, final int size) {
+    return VisitResult.CONTINUE;
+  }
+
+  /**
+   * visits a long.
+   *
+   * @param value the value to visit.
+   */
+  default void visitLong(final long value) {}
+
+  /**
+   * visits a long array.
+   *
+   * @param value the value to visit.
+   */
+  default void visitLongArray(final long@NotNull[] value) {}
+
+  /**
+   * visits a short.
+   *
+   * @param value the value to visit.
+   */
+  default void visitShort(final short value) {}
+
+  /**
+   * visits a string.
+   *
+   * @param value the value to visit.
+   */
+  default void visitString(@NotNull final String value) {}
+}
@@ -0,0 +1,194 @@
+package io.github.shiruka.nbt.stream;
+
+import java.io.UTFDataFormatException;
+import java.nio.charset.StandardCharsets;
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that contains utility methods for standard utf-8 which is used by the little-endian and
+ * the network formats.
+ * <p>
+ * the methods take a fast path for ascii strings, which are the most of the keys and values, and
+ * fall back to the full utf-8 coding only when the string has other characters.
+ */
+@UtilityClass
+class Utf8 {
+
+  /**
+   * the initial size of the scratch buffers.
+   */
+  static final int SCRATCH_SIZE = 256;
+
+  /**
+   * the max size of the scratch buffers which are kept by the streams, longer strings use temporary
+   * arrays.
+   */
+  static final int MAX_SCRATCH_SIZE = 8192;
+
+  /**
+   * checks if the given encoded length fits into the unsigned short length prefix of the
+   * little-endian format.
+   *
+   * @param length the length to check.
+   *
+   * @throws UTFDataFormatException if the length is greater than 65535.
+   */
+  void checkLength(final int length) throws UTFDataFormatException {
+    if (length > 65535) {
+      throw new UTFDataFormatException(String.format("Encoded string too long: %s bytes", length));
+    }
+  }
+
+  /**
+   * decodes the given range of utf-8 bytes.
+   *
+   * @param data the data to decode.
+   * @param offset the offset to decode.
+   * @param length the length to decode.
+   *
+   * @return decoded string.
+   */
+  @NotNull
+  @SuppressWarnings("deprecation")
+  String decode(final byte@NotNull[] data, final int offset, final int length) {
+    if (Utf8.isAscii(data, offset, length)) {
+      return new String(data, 0, offset, length);
+    }
+    return new String(data, offset, length, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * encodes the given string into the given array which has at least {@link #length(String)} bytes
+   * from the offset.
+   *
+   * @param value the value to encode.
+   * @param bytes the bytes to encode into.
+   * @param offset the offset to encode into.
+   */
+  void encode(@NotNull final String value, final byte@NotNull[] bytes, final int offset) {
+    final int size = value.length();
+    int index = offset;
+    int i = 0;
+    for (char c; i < size && (c = value.charAt(i)) < 0x80; i++) {
+      bytes[index++] = (byte) c;
+    }
+    if (i == size) {
+      return;
+    }
+    for (; i < size; i++) {
+      final char c = value.charAt(i);
+      if (c < 0x80) {
+        bytes[index++] = (byte) c;
+      } else if (c < 0x800) {
+        bytes[index++] = (byte) (0xC0 | c >> 6);
+        bytes[index++] = (byte) (0x80 | c & 0x3F);
+      } else if (Character.isSurrogate(c)) {
+        final int codePoint = Utf8.codePoint(value, i);
+        if (codePoint < 0) {
+          bytes[index++] = '?';
+          continue;
+        }
+        i++;
+        bytes[index++] = (byte) (0xF0 | codePoint >> 18);
+        bytes[index++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+        bytes[index++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+        bytes[index++] = (byte) (0x80 | codePoint & 0x3F);
+      } else {
+        bytes[index++] = (byte) (0xE0 | c >> 12);
+        bytes[index++] = (byte) (0x80 | c >> 6 & 0x3F);
+        bytes[index++] = (byte) (0x80 | c & 0x3F);
+      }
+    }
+  }
+
+  /**
+   * checks if the given range of bytes is ascii.
+   * <p>
+   * the bytes are or-ed eight at a time and only the sign bit of the result is checked, so the loop
+   * does not branch on each byte.
+   *
+   * @param data the data to check.
+   * @param offset the offset to check.
+   * @param length the length to check.
+   *
+   * @return {@code true} if all the bytes are ascii.
+   */
+  boolean isAscii(final byte@NotNull[] data, final int offset, final int length) {
+    final int end = offset + length;
+    int index = offset;
+    int bits = 0;
+    for (final int words = end - 7; index < words; index += 8) {
+      bits |=
+        data[index] |
+        data[index + 1] |
+        data[index + 2] |
+        data[index + 3] |
+        data[index + 4] |
+        data[index + 5] |
+        data[index + 6] |
+        data[index + 7];
+    }
+    for (; index < end; index++) {
+      bits |= data[index];
+    }
+    return bits >= 0;
+  }
+
+  /**
+   * calculates the encoded length of the given string.
+   * <p>
+   * unpaired surrogates are encoded as {@code ?}, the same as
+   * {@link String#getBytes(java.nio.charset.Charset)} does.
+   *
+   * @param value the value to calculate.
+   *
+   * @return encoded length, equals to the string's length if it is ascii.
+   */
+  int length(@NotNull final String value) {
+    final int size = value.length();
+    int index = 0;
+    while (index < size && value.charAt(index) < 0x80) {
+      index++;
+    }
+    int length = index;
+    for (; index < size; index++) {
+      final char c = value.charAt(index);
+      if (c < 0x80) {
+        length++;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isSurrogate(c)) {
+        if (Utf8.codePoint(value, index) < 0) {
+          length++;
+        } else {
+          index++;
+          length += 4;
+        }
+      } else {
+        length += 3;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * obtains the code point of the surrogate pair at the given index.
+   *
+   * @param value the value to obtain.
+   * @param index the index of the high surrogate.
+   *
+   * @return code point, or {@code -1} if the surrogate is unpaired.
+   */
+  private int codePoint(@NotNull final String value, final int index) {
+    final char high = value.charAt(index);
+    if (!Character.isHighSurrogate(high) || index + 1 >= value.length()) {
+      return -1;
+    }
+    final char low = value.charAt(index + 1);
+    if (!Character.isLowSurrogate(low)) {
+      return -1;
+    }
+    return Character.toCodePoint(high, low);
+  }
+}
@@ -0,0 +1,15 @@
+package io.github.shiruka.nbt.stream;
+
+/**
+ * an enum class that contains answers of {@link TagVisitor}s.
+ */
+public enum VisitResult {
+  /**
+   * visits the tag.
+   */
+  CONTINUE,
+  /**
+   * skips the tag without visiting it.
+   */
+  SKIP
+}
@@ -1,6 +1,7 @@
 package io.github.shiruka.nbt;
 
 import io.github.shiruka.nbt.array.ByteArrayTag;
+import io.github.shiruka.nbt.array.LongArrayTag;
 import io.github.shiruka.nbt.primitive.ByteTag;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -14,4 +15,44 @@ final class TagTest {
     final ByteArrayTag arrayTag = Tag.createByteArray((byte) 1);
     Assertions.assertDoesNotThrow(arrayTag::asArray, "Array tag IS NOT an array!");
   }
+
+  @Test
+  void cache() {
+    Assertions.assertSame(Tag.createByte(-128), Tag.createByte((byte) -128));
+    Assertions.assertSame(Tag.createShort(1024), Tag.createShort(1024));
+    Assertions.assertSame(Tag.createInt(), TagTypes.INT.emptyTag());
+    Assertions.assertSame(Tag.createLong(-128L), Tag.createLong(-128L));
+    Assertions.assertNotSame(Tag.createInt(1025), Tag.createInt(1025));
+    Assertions.assertSame(Tag.createEnd(), TagTypes.END.emptyTag());
+    Assertions.assertSame(Tag.createDouble(), Tag.createDouble(0.0d));
+    Assertions.assertNotSame(Tag.createFloat(-0.0f), Tag.createFloat(-0.0f));
+    Assertions.assertSame(Tag.createString(), TagTypes.STRING.emptyTag());
+    Assertions.assertSame(Tag.createIntArray(), TagTypes.INT_ARRAY.emptyTag());
+  }
+
+  @Test
+  void longArray() {
+    final long[] values = { 1L, -2L, Long.MAX_VALUE };
+    final LongArrayTag copied = Tag.createLongArray(values);
+    final LongArrayTag adopted = LongArrayTag.adopt(values);
+    Assertions.assertNotSame(values, copied.primitiveValue());
+    Assertions.assertSame(values, adopted.primitiveValue());
+    Assertions.assertEquals(copied, adopted);
+    Assertions.assertEquals(-2L, adopted.getLong(1));
+    Assertions.assertEquals(Long.valueOf(Long.MAX_VALUE), adopted.get(2));
+    Assertions.assertArrayEquals(new Long[] { 1L, -2L, Long.MAX_VALUE }, adopted.value());
+    Assertions.assertEquals(Long.MAX_VALUE - 1, adopted.longStream().sum());
+    Assertions.assertThrows(IndexOutOfBoundsException.class, () -> adopted.getLong(3));
+  }
+
+  @Test
+  void numbers() {
+    Assertions.assertEquals(Tag.createInt(300), Tag.createInt(300));
+    Assertions.assertNotEquals(Tag.createInt(1), Tag.createLong(1L));
+    Assertions.assertEquals(Tag.createDouble(Double.NaN), Tag.createDouble(Double.NaN));
+    Assertions.assertNotEquals(Tag.createFloat(0.0f), Tag.createFloat(-0.0f));
+    Assertions.assertEquals(44, Tag.createInt(300).byteValue());
+    Assertions.assertEquals(-1L, Tag.createDouble(-1.75d).longValue());
+    Assertions.assertEquals(Double.valueOf(2.5d), Tag.createFloat(2.5f).value());
+  }
 }
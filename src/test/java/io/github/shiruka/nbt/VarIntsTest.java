@@ -0,0 +1,88 @@
+package io.github.shiruka.nbt;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+final class VarIntsTest {
+
+  private static final long[] VALUES = {
+    0L,
+    1L,
+    127L,
+    128L,
+    16_383L,
+    16_384L,
+    Integer.MAX_VALUE,
+    0xFFFFFFFFL,
+    1L << 55,
+    1L << 56,
+    Long.MAX_VALUE,
+    -1L,
+  };
+
+  @Test
+  void roundTrip() throws IOException {
+    for (final long value : VarIntsTest.VALUES) {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      VarInts.writeUnsignedInt(new DataOutputStream(bytes), value);
+      final byte[] expected = bytes.toByteArray();
+      Assertions.assertEquals(VarInts.varLongSize(value), expected.length);
+      final byte[] array = new byte[12];
+      Assertions.assertEquals(expected.length + 1, VarInts.writeUnsignedInt(array, 1, value));
+      Assertions.assertArrayEquals(expected, Arrays.copyOfRange(array, 1, expected.length + 1));
+      Assertions.assertEquals(value, VarInts.readUnsignedLong(array, 1));
+      Assertions.assertEquals((int) value, VarInts.readUnsignedInt(array, 1));
+      for (final ByteBuf buffer : new ByteBuf[] { Unpooled.buffer(1), Unpooled.buffer(64) }) {
+        VarInts.writeUnsignedInt(buffer, value);
+        Assertions.assertArrayEquals(
+          expected,
+          Arrays.copyOfRange(buffer.array(), buffer.arrayOffset(), buffer.writerIndex())
+        );
+        buffer.writeByte(1);
+        Assertions.assertEquals(value, VarInts.readUnsignedLong(buffer));
+        Assertions.assertEquals(1, buffer.readableBytes());
+      }
+      final ByteBuffer heap = ByteBuffer.allocate(expected.length);
+      final ByteBuffer direct = ByteBuffer.allocateDirect(expected.length);
+      for (final ByteBuffer buffer : new ByteBuffer[] { heap, direct }) {
+        VarInts.writeUnsignedInt(buffer, value);
+        buffer.flip();
+        Assertions.assertEquals(value, VarInts.readUnsignedLong(buffer));
+        Assertions.assertFalse(buffer.hasRemaining());
+        buffer.rewind();
+        Assertions.assertEquals((int) value, VarInts.readUnsignedInt(buffer));
+        Assertions.assertFalse(buffer.hasRemaining());
+      }
+      Assertions.assertEquals(
+        value,
+        VarInts.readUnsignedLong(new DataInputStream(new ByteArrayInputStream(expected)))
+      );
+    }
+  }
+
+  @Test
+  void signed() throws IOException {
+    for (final int value : new int[] { 0, -1, 1, -64, 64, Integer.MIN_VALUE, Integer.MAX_VALUE }) {
+      final ByteBuf buffer = Unpooled.buffer();
+      VarInts.writeInt(buffer, value);
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      VarInts.writeInt(new DataOutputStream(bytes), value);
+      Assertions.assertEquals(bytes.size(), buffer.readableBytes());
+      Assertions.assertEquals(value, VarInts.readInt(buffer));
+      VarInts.writeLong(buffer, value);
+      Assertions.assertEquals(value, VarInts.readLong(buffer));
+    }
+    Assertions.assertEquals(1, VarInts.varIntSize(0));
+    Assertions.assertEquals(2, VarInts.varIntSize(128));
+    Assertions.assertEquals(5, VarInts.varIntSize(-1));
+  }
+}
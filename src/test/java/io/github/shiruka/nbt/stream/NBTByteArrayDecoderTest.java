@@ -0,0 +1,89 @@
+package io.github.shiruka.nbt.stream;
+
+import io.github.shiruka.nbt.CompoundTag;
+import io.github.shiruka.nbt.Tag;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+final class NBTByteArrayDecoderTest {
+
+  @Test
+  void corrupted() {
+    final byte[][] samples = {
+      { 11, 0, (byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 },
+      { 12, 0, (byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 },
+      { 11, 0, 1 },
+      { 9, 0, 1, (byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 },
+    };
+    for (final byte[] sample : samples) {
+      Assertions.assertThrows(
+        EOFException.class,
+        () -> new NBTByteArrayDecoder(sample, NBTFormat.NETWORK).readCompoundTag()
+      );
+    }
+  }
+
+  @Test
+  void keyPool() throws IOException {
+    final CompoundTag sample = Tag.createCompound()
+      .setInteger("Version", 1)
+      .setString("\u00e7", "unicode");
+    final KeyPool keys = new KeyPool(16);
+    for (final NBTFormat format : NBTFormat.values()) {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      new NBTOutputStream(format.createOutput(bytes)).write(sample);
+      final byte[] data = bytes.toByteArray();
+      final CompoundTag first = new NBTByteArrayDecoder(data, 0, data.length, format, keys)
+        .readCompoundTag();
+      final CompoundTag second = new NBTInputStream(
+        format.createInput(new ByteArrayInputStream(data)),
+        false,
+        keys
+      )
+        .readCompoundTag();
+      Assertions.assertEquals(sample, first, format.name());
+      Assertions.assertEquals(sample, second, format.name());
+      Assertions.assertSame(
+        first.all().keySet().stream().filter("Version"::equals).findFirst().orElse(null),
+        second.all().keySet().stream().filter("Version"::equals).findFirst().orElse(null),
+        format.name()
+      );
+    }
+  }
+
+  @Test
+  void read() throws IOException {
+    final CompoundTag sample = Tag.createCompound()
+      .setString("Name", "ascii")
+      .setString("Unicode", "\u00e7\u011f \u0000 \ud83d\ude00 \u00df")
+      .setIntArray("Biomes", -1, 0, Integer.MAX_VALUE, Integer.MIN_VALUE)
+      .setLongArray("States", new long[] { Long.MIN_VALUE, -1L, 1L << 40 })
+      .setList(
+        "Sections",
+        Arrays.asList(
+          Tag.createCompound().setShort("Y", (short) -300).setDouble("Scale", 0.5d),
+          Tag.createCompound().setFloat("Y", 1.5f).setByteArray("Data", (byte) 1, (byte) -1)
+        )
+      )
+      .setLong("Time", -9_876_543_210L);
+    for (final NBTFormat format : NBTFormat.values()) {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      bytes.write(new byte[] { 1, 2, 3 });
+      new NBTOutputStream(format.createOutput(bytes)).write(sample);
+      final byte[] data = bytes.toByteArray();
+      final NBTByteArrayDecoder decoder = new NBTByteArrayDecoder(data, 3, data.length - 3, format);
+      Assertions.assertEquals(sample, decoder.readCompoundTag(), format.name());
+      Assertions.assertEquals(data.length, decoder.position(), format.name());
+      Assertions.assertThrows(
+        EOFException.class,
+        () -> new NBTByteArrayDecoder(data, 3, data.length - 5, format).readCompoundTag(),
+        format.name()
+      );
+    }
+  }
+}
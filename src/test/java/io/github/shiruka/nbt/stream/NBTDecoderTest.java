@@ -0,0 +1,67 @@
+package io.github.shiruka.nbt.stream;
+
+import io.github.shiruka.nbt.CompoundTag;
+import io.github.shiruka.nbt.Tag;
+import io.github.shiruka.nbt.TagTypes;
+import io.github.shiruka.nbt.VarInts;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.TooLongFrameException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+final class NBTDecoderTest {
+
+  @Test
+  void corruptedFrame() {
+    final CompoundTag sample = Tag.createCompound().setString("Name", "minecraft:stone");
+    final EmbeddedChannel encoder = new EmbeddedChannel(new NBTEncoder(NBTFormat.NETWORK, true));
+    Assertions.assertTrue(encoder.writeOutbound(sample));
+    final ByteBuf valid = encoder.readOutbound();
+    final EmbeddedChannel decoder = new EmbeddedChannel(new NBTDecoder(NBTFormat.NETWORK, true));
+    final ByteBuf corrupted = Unpooled.buffer();
+    VarInts.writeUnsignedInt(corrupted, 8);
+    corrupted.writeBytes(new byte[] { 10, 0, 1, 1, 'a', 5, 99, 0 });
+    Assertions.assertThrows(DecoderException.class, () -> decoder.writeInbound(corrupted));
+    decoder.writeInbound(valid);
+    Assertions.assertEquals(sample, decoder.readInbound());
+  }
+
+  @Test
+  void maxFrameLength() {
+    final EmbeddedChannel decoder = new EmbeddedChannel(
+      new NBTDecoder(NBTFormat.NETWORK, TagTypes.COMPOUND, true, 16)
+    );
+    final ByteBuf buffer = Unpooled.buffer();
+    VarInts.writeUnsignedInt(buffer, 17);
+    Assertions.assertThrows(TooLongFrameException.class, () -> decoder.writeInbound(buffer));
+  }
+
+  @Test
+  void roundTrip() {
+    final CompoundTag sample = Tag.createCompound()
+      .setString("Name", "minecraft:stone")
+      .setIntArray("Biomes", new int[300])
+      .setLong("Time", -9_876_543_210L);
+    for (final NBTFormat format : NBTFormat.values()) {
+      for (final boolean framed : new boolean[] { false, true }) {
+        final EmbeddedChannel encoder = new EmbeddedChannel(new NBTEncoder(format, framed));
+        Assertions.assertTrue(encoder.writeOutbound(sample, sample), format.name());
+        final ByteBuf first = encoder.readOutbound();
+        final ByteBuf second = encoder.readOutbound();
+        final EmbeddedChannel decoder = new EmbeddedChannel(new NBTDecoder(format, framed));
+        for (final ByteBuf buffer : new ByteBuf[] { first, second }) {
+          for (int index = buffer.readerIndex(); index < buffer.writerIndex(); index += 100) {
+            final int length = Math.min(100, buffer.writerIndex() - index);
+            decoder.writeInbound(buffer.copy(index, length));
+          }
+        }
+        Assertions.assertEquals(sample, decoder.readInbound(), format.name());
+        Assertions.assertEquals(sample, decoder.readInbound(), format.name());
+        Assertions.assertNull(decoder.readInbound(), format.name());
+      }
+    }
+  }
+}
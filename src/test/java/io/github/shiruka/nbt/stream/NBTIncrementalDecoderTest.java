@@ -0,0 +1,74 @@
+package io.github.shiruka.nbt.stream;
+
+import io.github.shiruka.nbt.CompoundTag;
+import io.github.shiruka.nbt.Tag;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+final class NBTIncrementalDecoderTest {
+
+  @Test
+  void decode() throws IOException {
+    final int[] ints = new int[10_000];
+    final long[] longs = new long[10_000];
+    final byte[] large = new byte[20_000];
+    for (int i = 0; i < ints.length; i++) {
+      ints[i] = i * 0x01020304;
+      longs[i] = i * 0x0102030405060708L;
+    }
+    Arrays.fill(large, (byte) 7);
+    final CompoundTag sample = Tag.createCompound()
+      .setIntArray("Large Ints", ints)
+      .setLongArray("Large Longs", longs)
+      .setByteArray("Large Bytes", large)
+      .setString("Name", "\u00e7\u011f \ud83d\ude00")
+      .setIntArray("Biomes", -1, 0, Integer.MAX_VALUE, Integer.MIN_VALUE)
+      .setLongArray("States", new long[] { Long.MIN_VALUE, -1L, 1L << 40 })
+      .setByteArray("Data", (byte) 1, (byte) -1, (byte) 0)
+      .setList(
+        "Sections",
+        Arrays.asList(
+          Tag.createCompound().setShort("Y", (short) -300).setDouble("Scale", 0.5d),
+          Tag.createCompound().setFloat("Y", 1.5f).set("Empty", Tag.createCompound())
+        )
+      )
+      .setLong("Time", -9_876_543_210L);
+    for (final NBTFormat format : NBTFormat.values()) {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      final NBTOutputStream output = new NBTOutputStream(format.createOutput(bytes));
+      output.write(sample);
+      output.write(sample);
+      final byte[] data = bytes.toByteArray();
+      for (final int step : new int[] { 1, 7, data.length }) {
+        final NBTIncrementalDecoder decoder = new NBTIncrementalDecoder(format);
+        final ByteBuf buffer = Unpooled.buffer();
+        int decoded = 0;
+        for (int offset = 0; offset < data.length; offset += step) {
+          buffer.writeBytes(data, offset, Math.min(step, data.length - offset));
+          Tag tag;
+          while ((tag = decoder.decode(buffer)) != null) {
+            Assertions.assertEquals(sample, tag, format.name());
+            decoded++;
+          }
+        }
+        Assertions.assertEquals(2, decoded, format.name());
+        Assertions.assertFalse(buffer.isReadable(), format.name());
+      }
+    }
+  }
+
+  @Test
+  void hugeLength() throws IOException {
+    final NBTIncrementalDecoder decoder = new NBTIncrementalDecoder(NBTFormat.BIG_ENDIAN);
+    final ByteBuf buffer = Unpooled.buffer();
+    buffer.writeByte(11).writeShort(0).writeInt(Integer.MAX_VALUE).writeInt(1);
+    Assertions.assertNull(decoder.decode(buffer));
+    Assertions.assertTrue(decoder.isDecoding());
+    Assertions.assertFalse(buffer.isReadable());
+  }
+}
@@ -0,0 +1,555 @@
+package io.github.shiruka.nbt.stream;
+
+import io.github.shiruka.nbt.CompoundTag;
+import io.github.shiruka.nbt.ListTag;
+import io.github.shiruka.nbt.Tag;
+import io.github.shiruka.nbt.TagTypes;
+import io.github.shiruka.nbt.compound.LazyCompoundTag;
+import io.github.shiruka.nbt.compound.SealedCompoundTag;
+import io.github.shiruka.nbt.primitive.StringTag;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+final class NBTInputStreamTest {
+
+  private static byte[] write(final NBTFormat format, final Tag tag) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    new NBTOutputStream(format.createOutput(bytes)).write(tag);
+    return bytes.toByteArray();
+  }
+
+  private static NBTInputStream input(final byte[] data) {
+    return new NBTInputStream(NBTFormat.BIG_ENDIAN.createInput(new ByteArrayInputStream(data)));
+  }
+
+  private static CompoundTag sample() {
+    final CompoundTag level = Tag.createCompound()
+      .setInteger("xPos", -12)
+      .setLongArray("Heightmap", new long[] { 1L, -2L, Long.MAX_VALUE })
+      .setString("Status", "full")
+      .setList(
+        "Sections",
+        Arrays.asList(
+          Tag.createCompound().setByte("Y", (byte) 0).setByteArray("Blocks", (byte) 1, (byte) 2),
+          Tag.createCompound().setByte("Y", (byte) 1).setIntArray("Palette", 7, 8, 9)
+        )
+      );
+    return Tag.createCompound()
+      .set("Level", level)
+      .setInteger("DataVersion", 3465)
+      .setDouble("Health", 20.5d)
+      .setFloat("Pitch", -1.25f)
+      .setShort("Air", (short) 300)
+      .setLong("Time", -9_876_543_210L);
+  }
+
+  @Test
+  void arrays() throws IOException {
+    final int[] ints = new int[5000];
+    final long[] longs = new long[5000];
+    for (int i = 0; i < ints.length; i++) {
+      ints[i] = i * 0x01020304;
+      longs[i] = i * 0x0102030405060708L;
+    }
+    final CompoundTag sample = Tag.createCompound()
+      .setIntArray("Biomes", ints)
+      .setLongArray("BlockStates", longs);
+    for (final NBTFormat format : NBTFormat.values()) {
+      final byte[] bytes = NBTInputStreamTest.write(format, sample);
+      final NBTInputStream stream = new NBTInputStream(
+        format.createInput(new ByteArrayInputStream(bytes))
+      );
+      Assertions.assertEquals(sample, stream.readCompoundTag(), format.name());
+    }
+    final ByteBuf buffer = Unpooled.buffer();
+    Tag.createWriterLE(buffer).write(sample);
+    Assertions.assertEquals(sample, Tag.createReaderLE(buffer).readCompoundTag());
+  }
+
+  @Test
+  void byteBuf() throws IOException {
+    final CompoundTag sample = NBTInputStreamTest.sample().setInteger("Big", Integer.MIN_VALUE);
+    final ByteBuf big = Unpooled.buffer();
+    Tag.createWriter(big).write(sample);
+    Assertions.assertArrayEquals(
+      NBTInputStreamTest.write(NBTFormat.BIG_ENDIAN, sample),
+      Arrays.copyOfRange(big.array(), big.arrayOffset(), big.writerIndex())
+    );
+    Assertions.assertEquals(sample, Tag.createReader(big).readCompoundTag());
+    final byte[] network = NBTInputStreamTest.write(NBTFormat.NETWORK, sample);
+    final ByteBuf buffer = Unpooled.buffer();
+    Tag.createNetworkWriter(buffer).write(sample);
+    Assertions.assertArrayEquals(
+      network,
+      Arrays.copyOfRange(buffer.array(), buffer.arrayOffset(), buffer.writerIndex())
+    );
+    Assertions.assertEquals(sample, Tag.createNetworkReader(buffer).readCompoundTag());
+    Assertions.assertFalse(buffer.isReadable());
+  }
+
+  @Test
+  void byteBufLines() {
+    final ByteBufDataInput input = ByteBufDataInput.of(
+      NBTFormat.BIG_ENDIAN,
+      Unpooled.wrappedBuffer("a\r\nb\rc\n\nd".getBytes(StandardCharsets.ISO_8859_1))
+    );
+    Assertions.assertEquals("a", input.readLine());
+    Assertions.assertEquals("b", input.readLine());
+    Assertions.assertEquals("c", input.readLine());
+    Assertions.assertEquals("", input.readLine());
+    Assertions.assertEquals("d", input.readLine());
+    Assertions.assertNull(input.readLine());
+  }
+
+  @Test
+  void byteBuffer() throws IOException {
+    final CompoundTag sample = NBTInputStreamTest.sample();
+    final byte[] big = NBTInputStreamTest.write(NBTFormat.BIG_ENDIAN, sample);
+    final byte[] little = NBTInputStreamTest.write(NBTFormat.LITTLE_ENDIAN, sample);
+    final ByteBuffer direct = ByteBuffer
+      .allocateDirect(little.length)
+      .order(ByteOrder.LITTLE_ENDIAN);
+    direct.put(little).flip();
+    Assertions.assertEquals(sample, Tag.createReader(ByteBuffer.wrap(big)).readCompoundTag());
+    Assertions.assertEquals(sample, Tag.createReader(direct).readCompoundTag());
+    Assertions.assertFalse(direct.hasRemaining());
+  }
+
+  @Test
+  void byteBufferLines() {
+    final ByteBufferDataInput input = new ByteBufferDataInput(
+      ByteBuffer.wrap("a\r\nb\rc\n\nd".getBytes(StandardCharsets.ISO_8859_1))
+    );
+    Assertions.assertEquals("a", input.readLine());
+    Assertions.assertEquals("b", input.readLine());
+    Assertions.assertEquals("c", input.readLine());
+    Assertions.assertEquals("", input.readLine());
+    Assertions.assertEquals("d", input.readLine());
+    Assertions.assertNull(input.readLine());
+  }
+
+  @Test
+  void directByteBuf() throws IOException {
+    final char[] chars = new char[10_000];
+    Arrays.fill(chars, '\u00e7');
+    final CompoundTag sample = NBTInputStreamTest.sample()
+      .setString("\u00e7\u011f \ud83d\ude00", "\u0000\u0800")
+      .setString("Long", new String(chars, 0, 3000))
+      .setString("Longer", new String(chars));
+    for (final NBTFormat format : NBTFormat.values()) {
+      final byte[] bytes = NBTInputStreamTest.write(format, sample);
+      final ByteBuf buffer = Unpooled.directBuffer();
+      for (int i = 0; i < 2; i++) {
+        buffer.clear();
+        new NBTOutputStream(ByteBufDataOutput.of(format, buffer)).write(sample);
+        final byte[] written = new byte[buffer.readableBytes()];
+        buffer.getBytes(buffer.readerIndex(), written);
+        Assertions.assertArrayEquals(bytes, written, format.name());
+        final NBTInputStream input = new NBTInputStream(ByteBufDataInput.of(format, buffer));
+        Assertions.assertEquals(sample, input.readCompoundTag(), format.name());
+        Assertions.assertFalse(buffer.isReadable(), format.name());
+      }
+    }
+  }
+
+  @Test
+  void deep() throws IOException {
+    Tag tag = Tag.createCompound().setString("Leaf", "leaf");
+    for (int i = 0; i < 50_000; i++) {
+      tag = Tag.createCompound().set("Child", Tag.createList(tag)).setInteger("Depth", i);
+    }
+    for (final NBTFormat format : NBTFormat.values()) {
+      final byte[] bytes = NBTInputStreamTest.write(format, tag);
+      final CompoundTag read = new NBTInputStream(
+        format.createInput(new ByteArrayInputStream(bytes))
+      )
+        .readCompoundTag();
+      Assertions.assertArrayEquals(bytes, NBTInputStreamTest.write(format, read), format.name());
+      final ByteArrayInputStream skipped = new ByteArrayInputStream(bytes);
+      new NBTInputStream(format.createInput(skipped)).skip(TagTypes.COMPOUND.getId());
+      Assertions.assertEquals(0, skipped.available(), format.name());
+      final int[] ends = new int[1];
+      new NBTInputStream(format.createInput(new ByteArrayInputStream(bytes)))
+        .accept(
+          TagTypes.COMPOUND.getId(),
+          new TagVisitor() {
+            @Override
+            public void visitEnd() {
+              ends[0]++;
+            }
+          }
+        );
+      Assertions.assertEquals(100_001, ends[0], format.name());
+      final CompoundTag decoded = new NBTByteArrayDecoder(bytes, format).readCompoundTag();
+      Assertions.assertArrayEquals(bytes, NBTInputStreamTest.write(format, decoded), format.name());
+    }
+  }
+
+  @Test
+  void endList() throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final DataOutput output = NBTFormat.BIG_ENDIAN.createOutput(bytes);
+    output.writeByte(TagTypes.LIST.getId());
+    output.writeUTF("List");
+    output.writeByte(TagTypes.END.getId());
+    output.writeInt(1);
+    output.writeByte(TagTypes.END.getId());
+    final byte[] data = bytes.toByteArray();
+    final List<Executable> reads = Arrays.asList(
+      () -> NBTInputStreamTest.input(data).readCompoundTag(),
+      () -> NBTInputStreamTest.input(data).skip(TagTypes.COMPOUND.getId()),
+      () -> NBTInputStreamTest.input(data).accept(TagTypes.COMPOUND.getId(), new TagVisitor() {}),
+      () -> new NBTByteArrayDecoder(data, NBTFormat.BIG_ENDIAN).readCompoundTag()
+    );
+    for (final Executable read : reads) {
+      Assertions.assertEquals(
+        "Unknown type 0",
+        Assertions.assertThrows(IllegalArgumentException.class, read).getMessage()
+      );
+    }
+  }
+
+  @Test
+  void keyCache() throws IOException {
+    final StringBuilder longKey = new StringBuilder();
+    for (int i = 0; i <= KeyCache.MAX_LENGTH; i++) {
+      longKey.append('k');
+    }
+    final CompoundTag sample = NBTInputStreamTest.sample()
+      .setString("\u0000\u00e7\u0800 \ud83d\ude00", "key")
+      .setString(longKey.toString(), "long");
+    final KeyCache keys = new KeyCache(16);
+    for (final NBTFormat format : NBTFormat.values()) {
+      final byte[] bytes = NBTInputStreamTest.write(format, sample);
+      for (int i = 0; i < 2; i++) {
+        final ByteArrayOutputStream cached = new ByteArrayOutputStream();
+        new NBTOutputStream(format.createOutput(cached), keys).write(sample);
+        Assertions.assertArrayEquals(bytes, cached.toByteArray(), format.name());
+      }
+    }
+  }
+
+  @Test
+  void lazy() throws IOException {
+    for (final NBTFormat format : NBTFormat.values()) {
+      final CompoundTag sample = NBTInputStreamTest.sample();
+      final byte[] bytes = NBTInputStreamTest.write(format, sample);
+      final NBTInputStream stream = new NBTInputStream(
+        format.createInput(new ByteArrayInputStream(bytes)),
+        true
+      );
+      final CompoundTag lazy = stream.readCompoundTag();
+      Assertions.assertTrue(lazy instanceof LazyCompoundTag, format.name());
+      Assertions.assertArrayEquals(bytes, NBTInputStreamTest.write(format, lazy), format.name());
+      Assertions.assertEquals(3465, lazy.getInteger("DataVersion").getAsInt(), format.name());
+      Assertions.assertArrayEquals(bytes, NBTInputStreamTest.write(format, lazy), format.name());
+      Assertions.assertEquals(sample, lazy, format.name());
+      Assertions.assertEquals(lazy, sample, format.name());
+      final ByteArrayOutputStream cached = new ByteArrayOutputStream();
+      new NBTOutputStream(format.createOutput(cached), new KeyCache(16)).write(lazy);
+      Assertions.assertArrayEquals(bytes, cached.toByteArray(), format.name());
+    }
+  }
+
+  @Test
+  void lazyBuffer() throws IOException {
+    final NBTFormat[] formats = { NBTFormat.BIG_ENDIAN, NBTFormat.LITTLE_ENDIAN };
+    for (final NBTFormat format : formats) {
+      final CompoundTag sample = NBTInputStreamTest.sample();
+      final byte[] bytes = NBTInputStreamTest.write(format, sample);
+      final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length).order(format.order());
+      buffer.put(bytes).flip();
+      final CompoundTag lazy = new NBTInputStream(new ByteBufferDataInput(buffer), true)
+        .readCompoundTag();
+      Assertions.assertFalse(buffer.hasRemaining(), format.name());
+      Assertions.assertArrayEquals(bytes, NBTInputStreamTest.write(format, lazy), format.name());
+      Assertions.assertEquals(sample, lazy, format.name());
+    }
+  }
+
+  @Test
+  void longString() throws IOException {
+    final byte[] bytes = new byte[70_000];
+    Arrays.fill(bytes, (byte) 'a');
+    final StringTag adopted = StringTag.adopt(bytes);
+    final String value = adopted.value();
+    Assertions.assertEquals(
+      adopted,
+      Tag
+        .createNetworkReader(
+          new ByteArrayInputStream(NBTInputStreamTest.write(NBTFormat.NETWORK, adopted))
+        )
+        .readString()
+    );
+    final NBTOutputStream little = new NBTOutputStream(
+      NBTFormat.LITTLE_ENDIAN.createOutput(new ByteArrayOutputStream())
+    );
+    Assertions.assertThrows(UTFDataFormatException.class, () -> little.writeString(adopted));
+    Assertions.assertThrows(UTFDataFormatException.class, () -> little.output().writeUTF(value));
+    final ByteBufDataOutput buffer = ByteBufDataOutput.of(NBTFormat.LITTLE_ENDIAN);
+    Assertions.assertThrows(UTFDataFormatException.class, () -> buffer.writeUTF(value));
+  }
+
+  @Test
+  void lazyString() throws IOException {
+    final StringTag sample = Tag.createString("\u00e7\u011f \ud83d\ude00");
+    for (final NBTFormat format : new NBTFormat[] { NBTFormat.LITTLE_ENDIAN, NBTFormat.NETWORK }) {
+      final byte[] bytes = NBTInputStreamTest.write(format, sample);
+      final NBTInputStream stream = new NBTInputStream(
+        format.createInput(new ByteArrayInputStream(bytes)),
+        true
+      );
+      final StringTag lazy = stream.readString();
+      Assertions.assertNotNull(lazy.utf8(), format.name());
+      Assertions.assertEquals(lazy, StringTag.adopt(lazy.utf8().clone()), format.name());
+      Assertions.assertArrayEquals(bytes, NBTInputStreamTest.write(format, lazy), format.name());
+      Assertions.assertEquals(sample, lazy, format.name());
+      Assertions.assertEquals(sample.hashCode(), lazy.hashCode(), format.name());
+      Assertions.assertArrayEquals(
+        NBTInputStreamTest.write(NBTFormat.BIG_ENDIAN, sample),
+        NBTInputStreamTest.write(NBTFormat.BIG_ENDIAN, lazy),
+        format.name()
+      );
+    }
+  }
+
+  @Test
+  void sizeOf() throws IOException {
+    final CompoundTag sample = NBTInputStreamTest.sample()
+      .setString("Text", "\u0000\u00e7\u0800 \ud83d\ude00")
+      .setIntArray("Ints", -1, 64, Integer.MIN_VALUE)
+      .setLongArray("Longs", new long[] { -1L, Long.MAX_VALUE });
+    for (final NBTFormat format : NBTFormat.values()) {
+      final byte[] bytes = NBTInputStreamTest.write(format, sample);
+      Assertions.assertEquals(bytes.length, format.sizeOf(sample), format.name());
+      final CompoundTag lazy = new NBTInputStream(
+        format.createInput(new ByteArrayInputStream(bytes)),
+        true
+      )
+        .readCompoundTag();
+      Assertions.assertEquals(bytes.length, format.sizeOf(lazy), format.name());
+      for (final NBTFormat other : NBTFormat.values()) {
+        Assertions.assertEquals(
+          NBTInputStreamTest.write(other, lazy).length,
+          other.sizeOf(lazy),
+          format.name() + " " + other.name()
+        );
+      }
+    }
+  }
+
+  @Test
+  void sealed() throws IOException {
+    final CompoundTag sample = NBTInputStreamTest.sample();
+    final SealedCompoundTag sealed = SealedCompoundTag.seal(sample);
+    final CompoundTag parent = Tag.createCompound().set("Item", sealed).setByte("Slot", (byte) 3);
+    final CompoundTag expected = Tag.createCompound().set("Item", sample).setByte("Slot", (byte) 3);
+    for (final NBTFormat format : NBTFormat.values()) {
+      final byte[] bytes = NBTInputStreamTest.write(format, sample);
+      Assertions.assertArrayEquals(bytes, NBTInputStreamTest.write(format, sealed), format.name());
+      Assertions.assertArrayEquals(bytes, NBTInputStreamTest.write(format, sealed), format.name());
+      Assertions.assertEquals(bytes.length, format.sizeOf(sealed), format.name());
+      Assertions.assertEquals(bytes.length, sealed.encoded(format).remaining(), format.name());
+      Assertions.assertArrayEquals(
+        NBTInputStreamTest.write(format, expected),
+        NBTInputStreamTest.write(format, parent),
+        format.name()
+      );
+    }
+    Assertions.assertEquals(sample, sealed);
+    Assertions.assertSame(sealed, SealedCompoundTag.seal(sealed));
+    Assertions.assertThrows(UnsupportedOperationException.class, () -> sealed.setInteger("X", 1));
+    Assertions.assertThrows(UnsupportedOperationException.class, () -> sealed.all().clear());
+    final CompoundTag level = sealed.getCompoundTag("Level").orElseThrow(AssertionError::new);
+    final ListTag sections = level.getListTag("Sections").orElseThrow(AssertionError::new);
+    Assertions.assertThrows(UnsupportedOperationException.class, () -> level.setInteger("X", 1));
+    Assertions.assertThrows(UnsupportedOperationException.class, () -> sections.remove(0));
+    Assertions.assertThrows(UnsupportedOperationException.class, () -> sections.all().clear());
+    final CompoundTag section = sections.getCompoundTag(0).orElseThrow(AssertionError::new);
+    Assertions.assertThrows(UnsupportedOperationException.class, () -> section.remove("Y"));
+    sample.getCompoundTag("Level").orElseThrow(AssertionError::new).setInteger("xPos", 5);
+    sample.setInteger("DataVersion", 1);
+    Assertions.assertEquals(NBTInputStreamTest.sample(), sealed);
+  }
+
+  @Test
+  void sealedDeep() throws IOException {
+    Tag tag = Tag.createCompound().setString("Leaf", "leaf");
+    for (int i = 0; i < 50_000; i++) {
+      tag = Tag.createCompound().set("Child", i % 2 == 0 ? tag : Tag.createList(tag));
+    }
+    final SealedCompoundTag sealed = SealedCompoundTag.seal(tag.asCompound());
+    for (final NBTFormat format : NBTFormat.values()) {
+      Assertions.assertArrayEquals(
+        NBTInputStreamTest.write(format, tag),
+        NBTInputStreamTest.write(format, sealed),
+        format.name()
+      );
+    }
+  }
+
+  @Test
+  void reset() throws IOException {
+    final CompoundTag sample = NBTInputStreamTest.sample();
+    for (final NBTFormat format : NBTFormat.values()) {
+      final byte[] bytes = NBTInputStreamTest.write(format, sample);
+      final NBTOutputStream output = NBTOutputStream.local(format);
+      final NBTInputStream input = NBTInputStream.local(format);
+      final NBTByteArrayDecoder decoder = NBTByteArrayDecoder.local(format);
+      Assertions.assertSame(input, NBTInputStream.local(format));
+      for (int i = 0; i < 2; i++) {
+        final ByteBuf buffer = Unpooled.buffer();
+        output.reset(buffer);
+        output.write(sample);
+        output.close();
+        Assertions.assertSame(
+          Unpooled.EMPTY_BUFFER,
+          ((ByteBufDataOutput) output.output()).buffer(),
+          format.name()
+        );
+        Assertions.assertArrayEquals(
+          bytes,
+          Arrays.copyOfRange(buffer.array(), buffer.arrayOffset(), buffer.writerIndex()),
+          format.name()
+        );
+        decoder.reset(buffer);
+        Assertions.assertEquals(sample, decoder.readCompoundTag(), format.name());
+        Assertions.assertEquals(0, decoder.remaining(), format.name());
+        input.reset(buffer);
+        Assertions.assertEquals(sample, input.readCompoundTag(), format.name());
+        Assertions.assertFalse(buffer.isReadable(), format.name());
+        input.close();
+        Assertions.assertSame(
+          Unpooled.EMPTY_BUFFER,
+          ((ByteBufDataInput) input.input()).buffer(),
+          format.name()
+        );
+      }
+      decoder.reset(bytes, 0, bytes.length);
+      Assertions.assertEquals(sample, decoder.readCompoundTag(), format.name());
+      decoder.clear();
+      Assertions.assertEquals(0, decoder.remaining(), format.name());
+    }
+    final DataInput big = NBTFormat.BIG_ENDIAN.createInput(new ByteArrayInputStream(new byte[0]));
+    Assertions.assertThrows(
+      IllegalArgumentException.class,
+      () -> NBTInputStream.local(NBTFormat.NETWORK).reset(big)
+    );
+  }
+
+  @Test
+  void accept() throws IOException {
+    final byte[] bytes = NBTInputStreamTest.write(NBTFormat.NETWORK, NBTInputStreamTest.sample());
+    final ByteArrayInputStream input = new ByteArrayInputStream(bytes);
+    final NBTInputStream stream = Tag.createNetworkReader(input);
+    final List<String> visited = new ArrayList<>();
+    stream.accept(
+      TagTypes.COMPOUND.getId(),
+      new TagVisitor() {
+        @Override
+        public VisitResult visitKey(final String key, final TagTypes type) {
+          visited.add(key);
+          return key.equals("Sections") ? VisitResult.SKIP : VisitResult.CONTINUE;
+        }
+
+        @Override
+        public void visitInt(final int value) {
+          visited.add(String.valueOf(value));
+        }
+      }
+    );
+    Assertions.assertTrue(visited.containsAll(Arrays.asList("Level", "xPos", "-12", "3465")));
+    Assertions.assertFalse(visited.contains("Y"));
+    Assertions.assertEquals(0, input.available());
+  }
+
+  @Test
+  void readPaths() throws IOException {
+    for (final NBTFormat format : NBTFormat.values()) {
+      final byte[] bytes = NBTInputStreamTest.write(format, NBTInputStreamTest.sample());
+      final NBTInputStream stream = new NBTInputStream(
+        format.createInput(new ByteArrayInputStream(bytes))
+      );
+      final Map<String, Tag> paths = stream.readPaths(
+        "Level.xPos",
+        "Level.Sections[*].Y",
+        "DataVersion",
+        "Level.Missing"
+      );
+      Assertions.assertEquals(3, paths.size(), format.name());
+      Assertions.assertEquals(Tag.createInt(-12), paths.get("Level.xPos"), format.name());
+      Assertions.assertEquals(Tag.createInt(3465), paths.get("DataVersion"), format.name());
+      Assertions.assertEquals(
+        Tag.createList(Arrays.asList(Tag.createByte((byte) 0), Tag.createByte((byte) 1))),
+        paths.get("Level.Sections[*].Y"),
+        format.name()
+      );
+    }
+    Assertions.assertThrows(IllegalArgumentException.class, () -> TagSelector.of("Level..xPos"));
+  }
+
+  @Test
+  void strings() throws IOException {
+    final char[] chars = new char[10000];
+    Arrays.fill(chars, 'a');
+    final String[] values = {
+      "",
+      "minecraft:stone",
+      "\u00e7\u011f \u0000 \ud83d\ude00 \u00df \u20ac",
+      "broken \ud83d surrogate \ude00",
+      new String(chars),
+    };
+    for (final NBTFormat format : new NBTFormat[] { NBTFormat.LITTLE_ENDIAN, NBTFormat.NETWORK }) {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      final DataOutput output = format.createOutput(bytes);
+      for (final String value : values) {
+        output.writeUTF(value);
+      }
+      final DataInput input = format.createInput(new ByteArrayInputStream(bytes.toByteArray()));
+      for (final String value : values) {
+        final String expected = new String(
+          value.getBytes(StandardCharsets.UTF_8),
+          StandardCharsets.UTF_8
+        );
+        Assertions.assertEquals(expected, input.readUTF(), format.name());
+      }
+    }
+    final ByteBuf buffer = Unpooled.buffer();
+    new LittleEndianByteBufOutputStream(buffer).writeUTF(values[2]);
+    final byte[] written = new byte[buffer.readableBytes()];
+    buffer.readBytes(written);
+    final DataInput input = new LittleEndianDataInputStream(new ByteArrayInputStream(written));
+    Assertions.assertEquals(values[2], input.readUTF());
+  }
+
+  @Test
+  void skip() throws IOException {
+    for (final NBTFormat format : NBTFormat.values()) {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      final DataOutput output = format.createOutput(bytes);
+      new NBTOutputStream(output).write(NBTInputStreamTest.sample());
+      output.writeInt(42);
+      final NBTInputStream stream = new NBTInputStream(
+        format.createInput(new ByteArrayInputStream(bytes.toByteArray()))
+      );
+      stream.skip(TagTypes.COMPOUND.getId());
+      Assertions.assertEquals(42, stream.readInt().intValue(), format.name());
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package io.github.shiruka.nbt.stream;
+
+import io.github.shiruka.nbt.CompoundTag;
+import io.github.shiruka.nbt.Tag;
+import io.github.shiruka.nbt.TagTypes;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+final class NBTReaderTest {
+
+  @Test
+  void corruptedList() throws IOException {
+    for (final int[] header : new int[][] { { 1, -1 }, { 1, -2 }, { 0, 1 } }) {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      final DataOutput output = new DataOutputStream(bytes);
+      output.writeByte(TagTypes.LIST.getId());
+      output.writeUTF("");
+      output.writeByte(header[0]);
+      output.writeInt(header[1]);
+      final NBTReader reader = new NBTReader(
+        new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))
+      );
+      Assertions.assertEquals("", reader.nextName());
+      Assertions.assertThrows(IllegalArgumentException.class, reader::beginList);
+    }
+  }
+
+  @Test
+  void read() throws IOException {
+    final CompoundTag root = Tag.createCompound()
+      .setString("name", "Steve")
+      .setIntArray("skip", 1, 2, 3)
+      .setList(
+        "Pos",
+        Arrays.asList(Tag.createDouble(1.5d), Tag.createDouble(64d), Tag.createDouble(-3d))
+      )
+      .setInteger("level", 30);
+    final KeyPool keys = new KeyPool(16);
+    for (final NBTFormat format : NBTFormat.values()) {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      final DataOutput output = format.createOutput(bytes);
+      output.writeByte(TagTypes.COMPOUND.getId());
+      output.writeUTF("");
+      new NBTOutputStream(output).write(root);
+      final NBTReader reader = new NBTReader(
+        format.createInput(new ByteArrayInputStream(bytes.toByteArray())),
+        keys
+      );
+      Assertions.assertEquals(TagTypes.COMPOUND, reader.peek());
+      Assertions.assertEquals("", reader.nextName());
+      reader.beginCompound();
+      double sum = 0;
+      int level = 0;
+      String name = null;
+      while (reader.hasNext()) {
+        switch (reader.nextName()) {
+          case "name":
+            name = reader.nextString();
+            break;
+          case "level":
+            level = reader.nextInt();
+            break;
+          case "Pos":
+            Assertions.assertEquals(3, reader.beginList());
+            while (reader.hasNext()) {
+              sum += reader.nextDouble();
+            }
+            reader.endList();
+            break;
+          default:
+            reader.skipValue();
+        }
+      }
+      reader.endCompound();
+      Assertions.assertEquals(TagTypes.END, reader.peek());
+      Assertions.assertEquals("Steve", name, format.name());
+      Assertions.assertEquals(30, level, format.name());
+      Assertions.assertEquals(62.5d, sum);
+    }
+  }
+}
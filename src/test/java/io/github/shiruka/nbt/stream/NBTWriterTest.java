@@ -0,0 +1,86 @@
+package io.github.shiruka.nbt.stream;
+
+import io.github.shiruka.nbt.CompoundTag;
+import io.github.shiruka.nbt.Tag;
+import io.github.shiruka.nbt.TagTypes;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.Arrays;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+final class NBTWriterTest {
+
+  @Test
+  void write() throws IOException {
+    final CompoundTag root = Tag.createCompound()
+      .setString("name", "Steve")
+      .setIntArray("ints", 1, -2, 3)
+      .setLongArray("longs", new long[] { Long.MIN_VALUE, 5L })
+      .setList(
+        "Pos",
+        Arrays.asList(Tag.createDouble(1.5d), Tag.createDouble(64d), Tag.createDouble(-3d))
+      )
+      .setList("Empty", Arrays.asList())
+      .set("Item", Tag.createCompound().setByte("Count", (byte) 3))
+      .setInteger("level", 30);
+    for (final NBTFormat format : NBTFormat.values()) {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      final NBTWriter writer = new NBTWriter(format.createOutput(bytes), new KeyCache(16));
+      writer.name("");
+      writer.beginCompound();
+      writer.name("name");
+      writer.writeString("Steve");
+      writer.name("ints");
+      writer.writeIntArray(new int[] { 1, -2, 3 });
+      writer.name("longs");
+      writer.writeLongArray(new long[] { Long.MIN_VALUE, 5L });
+      writer.name("Pos");
+      writer.beginList(TagTypes.DOUBLE, 3);
+      writer.writeDouble(1.5d);
+      writer.writeDouble(64d);
+      writer.writeDouble(-3d);
+      writer.endList();
+      writer.name("Empty");
+      writer.beginList(TagTypes.END, 0);
+      writer.endList();
+      writer.name("Item");
+      writer.writeTag(Tag.createCompound().setByte("Count", (byte) 3));
+      writer.name("level");
+      writer.writeInt(30);
+      writer.endCompound();
+      final DataInput input = format.createInput(new ByteArrayInputStream(bytes.toByteArray()));
+      Assertions.assertEquals(TagTypes.COMPOUND.getId(), input.readByte(), format.name());
+      Assertions.assertEquals("", input.readUTF(), format.name());
+      Assertions.assertEquals(root, new NBTInputStream(input).readCompoundTag(), format.name());
+    }
+  }
+
+  @Test
+  void validate() throws IOException {
+    final NBTWriter writer = new NBTWriter(
+      NBTFormat.NETWORK.createOutput(new ByteArrayOutputStream())
+    );
+    Assertions.assertThrows(IllegalStateException.class, () -> writer.writeInt(1));
+    writer.name("");
+    writer.beginCompound();
+    writer.name("list");
+    writer.beginList(TagTypes.INT, 2);
+    Assertions.assertThrows(IllegalStateException.class, () -> writer.name("x"));
+    Assertions.assertThrows(IllegalStateException.class, () -> writer.writeLong(1L));
+    writer.writeInt(1);
+    Assertions.assertThrows(IllegalStateException.class, writer::endList);
+    writer.writeInt(2);
+    Assertions.assertThrows(IllegalStateException.class, () -> writer.writeInt(3));
+    Assertions.assertThrows(IllegalStateException.class, writer::endCompound);
+    writer.endList();
+    Assertions.assertThrows(
+      IllegalArgumentException.class,
+      () -> writer.beginList(TagTypes.END, 1)
+    );
+    writer.endCompound();
+    Assertions.assertThrows(IllegalStateException.class, writer::endCompound);
+  }
+}